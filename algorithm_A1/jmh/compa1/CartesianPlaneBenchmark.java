@@ -0,0 +1,319 @@
+package compa1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the CartesianPlane implementations: random get, add and
+ * remove, row and column scans, forEach(), repeated resize() growth and
+ * clear(), across implementations, bounds and densities.
+ *
+ * Every benchmark works through the CartesianPlane interface only, so a new
+ * implementation is covered by adding it to factory() and to the kind
+ * parameter. Planes cover [-size/2, size/2 - 1] in both directions, so the
+ * offsets from negative minimum bounds are part of what is measured.
+ *
+ * Needs the jmh-core and jmh-generator-annprocess libraries with annotation
+ * processing enabled. Run all benchmarks, or a selection, with e.g.
+ *
+ *     java -cp CLASSES:JMH_JARS org.openjdk.jmh.Main CartesianPlaneBenchmark
+ *     java -cp CLASSES:JMH_JARS org.openjdk.jmh.Main
+ *             CartesianPlaneBenchmark.rowScan -p kind=array,tiled -p size=2048
+ *
+ * The random operations report the average time of one operation in
+ * nanoseconds; the whole-plane operations report the time of one pass in
+ * microseconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartesianPlaneBenchmark {
+    /** Number of random cells visited per call of a random benchmark */
+    static final int OPS = 4096;
+    /** Side of the plane that resizeGrowth() starts from */
+    static final int GROWTH_START = 16;
+
+    /** The implementation under test, see factory() */
+    @Param({"array", "growable", "flat", "morton", "tiled", "hash", "indexed",
+            "runlength", "concurrent", "unbounded"})
+    String kind;
+    /** Width and height of the plane */
+    @Param({"256", "2048"})
+    int size;
+    /** Fraction of cells holding an element */
+    @Param({"0.01", "0.1", "0.5"})
+    double density;
+
+    /** Creates planes of the kind under test */
+    PlaneFactory<Integer> factory;
+    /** The filled plane */
+    CartesianPlane<Integer> plane;
+    /** Random coordinates of cells, half occupied and half empty */
+    int[] xs, ys;
+    /** Random coordinates of occupied cells */
+    int[] occupiedXs, occupiedYs;
+    /** Random coordinates of empty cells */
+    int[] emptyXs, emptyYs;
+
+    /**
+     * Returns a factory for the planes of the given kind.
+     *
+     * @param kind The name of a CartesianPlane implementation
+     * @return a factory creating empty planes of that kind
+     * @throws IllegalArgumentException if the kind is unknown
+     */
+    static PlaneFactory<Integer> factory(String kind)
+            throws IllegalArgumentException {
+        switch (kind) {
+            case "array":
+                return ArrayCartesianPlane::new;
+            case "growable":
+                return (minX, maxX, minY, maxY) -> new ArrayCartesianPlane<>(
+                        minX, maxX, minY, maxY, true);
+            case "flat":
+                return FlatCartesianPlane::new;
+            case "morton":
+                return (minX, maxX, minY, maxY) -> new FlatCartesianPlane<>(
+                        minX, maxX, minY, maxY,
+                        FlatCartesianPlane.Layout.MORTON);
+            case "tiled":
+                return TiledCartesianPlane::new;
+            case "hash":
+                return HashCartesianPlane::new;
+            case "indexed":
+                return IndexedCartesianPlane::new;
+            case "runlength":
+                return RunLengthCartesianPlane::new;
+            case "concurrent":
+                return ConcurrentCartesianPlane::new;
+            case "unbounded":
+                return UnboundedCartesianPlane::new;
+            default:
+                throw new IllegalArgumentException(kind);
+        }
+    }
+
+    /**
+     * Creates an empty plane covering [-size/2, size/2 - 1] in both
+     * directions.
+     */
+    CartesianPlane<Integer> createPlane() {
+        int min = -(this.size / 2);
+        return this.factory.create(min, min + this.size - 1, min,
+                min + this.size - 1);
+    }
+
+    /**
+     * Fills a plane with elements at a random fraction density of its cells.
+     */
+    static void fill(CartesianPlane<Integer> plane, double density,
+            long seed) {
+        Random random = new Random(seed);
+        for (int x = plane.getMinimumX(); x <= plane.getMaximumX(); x++) {
+            for (int y = plane.getMinimumY(); y <= plane.getMaximumY(); y++) {
+                if (random.nextDouble() < density) {
+                    plane.add(x, y, x ^ y);
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.factory = factory(this.kind);
+        this.plane = createPlane();
+        fill(this.plane, this.density, 42);
+
+        // Sample occupied and empty cells up front, so the benchmarks spend
+        // no time drawing random numbers or searching for cells
+        Random random = new Random(43);
+        int min = this.plane.getMinimumX();
+        this.occupiedXs = new int[OPS];
+        this.occupiedYs = new int[OPS];
+        this.emptyXs = new int[OPS];
+        this.emptyYs = new int[OPS];
+        int occupied = 0, empty = 0;
+        while (occupied < OPS || empty < OPS) {
+            int x = min + random.nextInt(this.size);
+            int y = min + random.nextInt(this.size);
+            if (this.plane.get(x, y) != null) {
+                if (occupied < OPS) {
+                    this.occupiedXs[occupied] = x;
+                    this.occupiedYs[occupied++] = y;
+                }
+            } else if (empty < OPS) {
+                this.emptyXs[empty] = x;
+                this.emptyYs[empty++] = y;
+            }
+        }
+        this.xs = new int[OPS];
+        this.ys = new int[OPS];
+        for (int i = 0; i < OPS; i++) {
+            boolean hit = (i & 1) == 0;
+            this.xs[i] = hit ? this.occupiedXs[i] : this.emptyXs[i];
+            this.ys[i] = hit ? this.occupiedYs[i] : this.emptyYs[i];
+        }
+    }
+
+    /**
+     * get() at random cells, half of them occupied.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void randomGet(Blackhole blackhole) {
+        CartesianPlane<Integer> plane = this.plane;
+        for (int i = 0; i < OPS; i++) {
+            blackhole.consume(plane.get(this.xs[i], this.ys[i]));
+        }
+    }
+
+    /**
+     * add() over the element of random occupied cells, which leaves the
+     * density unchanged.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void randomReplace() {
+        CartesianPlane<Integer> plane = this.plane;
+        for (int i = 0; i < OPS; i++) {
+            plane.add(this.occupiedXs[i], this.occupiedYs[i], i);
+        }
+    }
+
+    /**
+     * add() into a random empty cell followed by remove() of the same cell,
+     * which leaves the density unchanged. Each operation is one add and one
+     * remove.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void randomAddRemove(Blackhole blackhole) {
+        CartesianPlane<Integer> plane = this.plane;
+        for (int i = 0; i < OPS; i++) {
+            plane.add(this.emptyXs[i], this.emptyYs[i], i);
+            blackhole.consume(plane.remove(this.emptyXs[i], this.emptyYs[i]));
+        }
+    }
+
+    /**
+     * get() at every cell, y in the outer loop.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long rowScan() {
+        CartesianPlane<Integer> plane = this.plane;
+        long sum = 0;
+        for (int y = plane.getMinimumY(); y <= plane.getMaximumY(); y++) {
+            for (int x = plane.getMinimumX(); x <= plane.getMaximumX(); x++) {
+                Integer element = plane.get(x, y);
+                if (element != null) {
+                    sum += element;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * get() at every cell, x in the outer loop.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long columnScan() {
+        CartesianPlane<Integer> plane = this.plane;
+        long sum = 0;
+        for (int x = plane.getMinimumX(); x <= plane.getMaximumX(); x++) {
+            for (int y = plane.getMinimumY(); y <= plane.getMaximumY(); y++) {
+                Integer element = plane.get(x, y);
+                if (element != null) {
+                    sum += element;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * forEach() over every element, for comparison with the scans.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long forEachScan() {
+        long[] sum = new long[1];
+        this.plane.forEach((x, y, element) -> sum[0] += element);
+        return sum[0];
+    }
+
+    /**
+     * Grows a plane from GROWTH_START x GROWTH_START to size x size by
+     * widening the narrower side by size/64 at a time and adding an element
+     * at the new corner, the way a plane tracking a growing world would.
+     * Measures resize() rather than fill speed, so density does not apply.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public CartesianPlane<Integer> resizeGrowth() {
+        int min = -(this.size / 2);
+        int maxX = min + GROWTH_START - 1, maxY = maxX;
+        CartesianPlane<Integer> plane = this.factory.create(min, maxX, min,
+                maxY);
+        plane.add(min, min, 0);
+        int last = min + this.size - 1;
+        int step = Math.max(1, this.size / 64);
+        while (maxX < last || maxY < last) {
+            if (maxX <= maxY && maxX < last || maxY == last) {
+                maxX = Math.min(last, maxX + step);
+            } else {
+                maxY = Math.min(last, maxY + step);
+            }
+            plane.resize(min, maxX, min, maxY);
+            plane.add(maxX, maxY, maxX);
+        }
+        return plane;
+    }
+
+    /**
+     * State for clear(), which needs a freshly filled plane for every call.
+     */
+    @State(Scope.Thread)
+    public static class ClearState {
+        /** The plane to clear */
+        CartesianPlane<Integer> plane;
+
+        @Setup(Level.Invocation)
+        public void setUp(CartesianPlaneBenchmark benchmark) {
+            if (this.plane == null) {
+                this.plane = benchmark.createPlane();
+            }
+            fill(this.plane, benchmark.density, 44);
+        }
+    }
+
+    /**
+     * clear() of a filled plane.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public CartesianPlane<Integer> clear(ClearState state) {
+        state.plane.clear();
+        return state.plane;
+    }
+}
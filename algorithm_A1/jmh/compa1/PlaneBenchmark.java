@@ -0,0 +1,129 @@
+package compa1;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Timing harness for GridPathFinder queries and multi-threaded access to a
+ * shared CartesianPlane. Prints the throughput of each run in expansions or
+ * operations per millisecond. The stencil comparisons are JMH benchmarks,
+ * see StencilOrderBenchmark and StencilEngineBenchmark.
+ */
+public class PlaneBenchmark {
+
+    /**
+     * Times GridPathFinder Dijkstra queries between random free cells of an
+     * n x n ArrayCartesianPlane with 25% obstacles.
+     *
+     * @param n The width and height of the plane
+     * @param queries The number of queries
+     */
+    static void pathTest(int n, int queries) {
+        CartesianPlane<Boolean> plane = new ArrayCartesianPlane<>(0, n - 1,
+                0, n - 1);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                if (random.nextInt(4) == 0) {
+                    plane.add(x, y, true);
+                }
+            }
+        }
+        GridPathFinder<Boolean> finder = new GridPathFinder<>(plane);
+
+        long startTime, endTime, duration;
+        long expansions = 0;
+        startTime = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            finder.findPathDijkstra(random.nextInt(n), random.nextInt(n),
+                    random.nextInt(n), random.nextInt(n));
+            expansions += finder.getExpansions();
+        }
+        endTime = System.nanoTime();
+        duration = (endTime - startTime);
+        System.out.println(n + "\t" + (float) expansions / (duration / 1000000f));
+    }
+
+    /**
+     * Times threads workers doing random get/add/remove on one shared
+     * 1024 x 1024 plane.
+     *
+     * @param kind "locked" for an ArrayCartesianPlane behind one global
+     *         lock, "concurrent" for a ConcurrentCartesianPlane
+     * @param threads The number of worker threads
+     * @param opsPerThread The number of operations each worker performs
+     */
+    static void concurrentTest(String kind, int threads, int opsPerThread)
+            throws InterruptedException {
+        int n = 1024;
+        CartesianPlane<Integer> plane = kind.equals("concurrent")
+                ? new ConcurrentCartesianPlane<>(0, n - 1, 0, n - 1)
+                : new ArrayCartesianPlane<>(0, n - 1, 0, n - 1);
+        boolean locked = !kind.equals("concurrent");
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    int x = random.nextInt(n);
+                    int y = random.nextInt(n);
+                    int op = random.nextInt(10);
+                    if (locked) {
+                        synchronized (plane) {
+                            randomOp(plane, op, x, y, i);
+                        }
+                    } else {
+                        randomOp(plane, op, x, y, i);
+                    }
+                }
+            });
+        }
+
+        long startTime, endTime, duration;
+        startTime = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        endTime = System.nanoTime();
+        duration = (endTime - startTime);
+        System.out.println(threads + "\t"
+                + (float) threads * opsPerThread / (duration / 1000000f));
+    }
+
+    /**
+     * Performs one operation of the concurrentTest() mix: 50% get, 40% add
+     * and 10% remove.
+     */
+    private static void randomOp(CartesianPlane<Integer> plane, int op, int x,
+            int y, int value) {
+        if (op < 5) {
+            plane.get(x, y);
+        } else if (op < 9) {
+            plane.add(x, y, value);
+        } else {
+            plane.remove(x, y);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("path finder   expansions/ms");
+        // Warm up before the measured sizes
+        pathTest(256, 200);
+        pathTest(256, 200);
+        pathTest(1024, 50);
+        System.out.println("------------");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (String kind : new String[]{"locked", "concurrent"}) {
+            System.out.println(kind + "   ops/ms");
+            // Warm up before the measured thread counts
+            concurrentTest(kind, 1, 1000000);
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                concurrentTest(kind, threads, 2000000);
+            }
+            System.out.println("------------");
+        }
+    }
+}
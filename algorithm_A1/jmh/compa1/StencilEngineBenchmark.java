@@ -0,0 +1,76 @@
+package compa1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for StencilCartesianPlane: the time of 10 generations of a
+ * 3x3 box blur, across sizes and parallelism levels.
+ *
+ * Run with e.g.
+ *
+ *     java -cp CLASSES:JMH_JARS org.openjdk.jmh.Main StencilEngineBenchmark
+ *             -p parallelism=1,2,4,8
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StencilEngineBenchmark {
+    /** Generations computed per call */
+    static final int GENERATIONS = 10;
+    /** The 3x3 box blur */
+    static final StencilKernel BLUR = (nw, no, ne, w, c, e, sw, so, se) ->
+            (nw + no + ne + w + c + e + sw + so + se) / 9;
+
+    /** Width and height of the plane */
+    @Param({"256", "1024", "2048"})
+    int size;
+    /** Number of threads stepping the plane */
+    @Param({"1", "2", "4"})
+    int parallelism;
+
+    /** The plane being stepped */
+    StencilCartesianPlane plane;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int n = this.size;
+        this.plane = new StencilCartesianPlane(0, n - 1, 0, n - 1);
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                this.plane.add(x, y, x ^ y);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.plane.close();
+    }
+
+    /**
+     * Computes GENERATIONS generations of the blur.
+     */
+    @Benchmark
+    public void steps(Blackhole blackhole) {
+        this.plane.steps(BLUR, GENERATIONS, this.parallelism);
+        blackhole.consume(this.plane.get(1, 1));
+    }
+}
@@ -0,0 +1,128 @@
+package compa1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the order in which a 3x3 stencil visits the cells of a
+ * full plane, on the array plane and both flat layouts: x by x, in 16 x 16
+ * blocks, or y by y. Each reports the time of one pass over the plane.
+ *
+ * Run with e.g.
+ *
+ *     java -cp CLASSES:JMH_JARS org.openjdk.jmh.Main StencilOrderBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StencilOrderBenchmark {
+    /** Width and height of the blocks visited by blocked() */
+    static final int BLOCK = 16;
+
+    /** The implementation under test, "array", "flat" or "morton" */
+    @Param({"array", "flat", "morton"})
+    String kind;
+    /** Width and height of the plane */
+    @Param({"256", "1024", "2048"})
+    int size;
+
+    /** The full plane */
+    CartesianPlane<Integer> plane;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int n = this.size;
+        switch (this.kind) {
+            case "flat":
+                this.plane = new FlatCartesianPlane<>(0, n - 1, 0, n - 1);
+                break;
+            case "morton":
+                this.plane = new FlatCartesianPlane<>(0, n - 1, 0, n - 1,
+                        FlatCartesianPlane.Layout.MORTON);
+                break;
+            default:
+                this.plane = new ArrayCartesianPlane<>(0, n - 1, 0, n - 1);
+                break;
+        }
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                this.plane.add(x, y, x ^ y);
+            }
+        }
+    }
+
+    /**
+     * Sums the 3x3 neighbourhood of every interior cell whose centre lies in
+     * the block [x0, x1) x [y0, y1).
+     *
+     * @return the sum over all visited neighbourhoods
+     */
+    private static long stencilBlock(CartesianPlane<Integer> plane, int x0,
+            int x1, int y0, int y1) {
+        long sum = 0;
+        for (int x = x0; x < x1; x++) {
+            for (int y = y0; y < y1; y++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        sum += plane.get(x + dx, y + dy);
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Visits the centres x by x.
+     */
+    @Benchmark
+    public void sweep(Blackhole blackhole) {
+        int n = this.size;
+        blackhole.consume(stencilBlock(this.plane, 1, n - 1, 1, n - 1));
+    }
+
+    /**
+     * Visits the centres in BLOCK x BLOCK blocks.
+     */
+    @Benchmark
+    public void blocked(Blackhole blackhole) {
+        int n = this.size;
+        for (int bx = 1; bx < n - 1; bx += BLOCK) {
+            for (int by = 1; by < n - 1; by += BLOCK) {
+                blackhole.consume(stencilBlock(this.plane, bx,
+                        Math.min(bx + BLOCK, n - 1), by,
+                        Math.min(by + BLOCK, n - 1)));
+            }
+        }
+    }
+
+    /**
+     * Visits the centres y by y, against the x-major layout.
+     */
+    @Benchmark
+    public void transposed(Blackhole blackhole) {
+        int n = this.size;
+        for (int y = 1; y < n - 1; y++) {
+            for (int x = 1; x < n - 1; x++) {
+                blackhole.consume(stencilBlock(this.plane, x, x + 1, y,
+                        y + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,797 @@
+package compa1;
+
+import java.util.Arrays;
+
+/**
+ * A 2D cartesian plane implemented as with an array. Each (x,y) coordinate can
+ * hold a single item of type <T>.
+ *
+ * Next to the array, one bit per cell records which cells are occupied, so
+ * scans jump from element to element with Long.numberOfTrailingZeros instead
+ * of reading every slot of a sparse plane.
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public class ArrayCartesianPlane<T> implements CartesianPlane<T> {
+    /** A new minimum bound for the x values of Y */
+    private int minimumY;
+    /** A new maximum bound for the x values of X */
+    private int maxmumX;
+    /** A new maximum bound for the x values of X */
+    private int maxmumY;
+    /** A new minimum bound for the x values of Y */
+    private int minimumX;
+    /** The total length of the x-axis */
+    private int xLength;
+    /** The total length of the y-axis */
+    private int yLength;
+    /**  2D array that holds item of type <T> */
+    T[][] plane;
+    /** The rightmost x-coordinate of elements */
+    private int maxElementX;
+    /** The topmost x-coordinate of elements */
+    private int maxElementY;
+    /** The leftmost y-coordinate of elements */
+    private int minElementX;
+    /** The bottommost y-coordinate of elements */
+    private int minElementY;
+    /** The x-coordinate stored at plane[0] */
+    private int originX;
+    /** The y-coordinate stored at plane[x][0] */
+    private int originY;
+    /** Whether resize keeps slack capacity around the bounds */
+    private final boolean growable;
+    /** One bit per cell, indexed like plane, set where the cell is occupied */
+    long[][] occupied;
+    /** Number of elements in each column, indexed like plane */
+    private int[] columnCounts;
+    /** Number of elements in each row, indexed like plane[x] */
+    private int[] rowCounts;
+    /** Total number of elements */
+    private int size;
+
+    /**
+     * Constructs a new ArrayCartesianPlane object with given minimum and
+     * maximum bounds.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public ArrayCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        this(minimumX, maximumX, minimumY, maximumY, false);
+    }
+
+    /**
+     * Constructs a new ArrayCartesianPlane object with given minimum and
+     * maximum bounds, optionally in growth mode.
+     *
+     * In growth mode the backing array is indexed relative to a movable
+     * origin and resize() grows it geometrically, leaving slack in the
+     * direction of growth. Widening the bounds within that slack only moves
+     * the bounds, so a plane grown one column at a time costs amortized O(1)
+     * copies per cell.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @param growable true to keep slack capacity on resize, false to
+     *         always size the backing array to the bounds
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public ArrayCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY, boolean growable) throws IllegalArgumentException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+
+        this.minimumX = minimumX;
+        this.maxmumX = maximumX;
+        this.minimumY = minimumY;
+        this.maxmumY = maximumY;
+        this.xLength = this.maxmumX - this.minimumX + 1;
+        this.yLength = this.maxmumY - this.minimumY + 1;
+        this.plane = (T[][]) new Object[this.xLength][this.yLength];
+        this.originX = minimumX;
+        this.originY = minimumY;
+        this.growable = growable;
+        this.occupied = new long[this.xLength][bitmapWords(this.yLength)];
+        this.columnCounts = new int[this.xLength];
+        this.rowCounts = new int[this.yLength];
+        minElementX = this.maxmumX;
+        maxElementX = this.minimumX;
+        minElementY = this.maxmumY;
+        maxElementY = this.minimumY;
+    }
+
+    /**
+     * Update the edge postion of the elements in the grid.
+     *
+     * @param x The x-coordinate of the element's position.
+     * @param y The y-coordinate of the element's position.
+     */
+    public void updatePosition(int x, int y) {
+        if (x >= this.maxElementX) this.maxElementX = x;
+        if (x <= this.minElementX) this.minElementX = x;
+        if (y >= this.maxElementY) this.maxElementY = y;
+        if (y <= this.minElementY) this.minElementY = y;
+    }
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, T element) throws IllegalArgumentException {
+        if (x > this.maxmumX || y > this.maxmumY || x < this.minimumX || y < this.minimumY) {
+            throw new IllegalArgumentException();
+        }
+        if (element == null) {
+            remove(x, y);
+            return;
+        }
+        T[] column = this.plane[x - this.originX];
+        if (column[y - this.originY] == null) {
+            if (this.size == 0) {
+                this.minElementX = this.maxElementX = x;
+                this.minElementY = this.maxElementY = y;
+            } else {
+                updatePosition(x, y);
+            }
+            this.occupied[x - this.originX][(y - this.originY) >>> 6] |=
+                    1L << (y - this.originY);
+            this.columnCounts[x - this.originX]++;
+            this.rowCounts[y - this.originY]++;
+            this.size++;
+        }
+        column[y - this.originY] = element;
+    }
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T get(int x, int y) throws IndexOutOfBoundsException {
+        if (x > this.maxmumX || y > this.maxmumY || x < this.minimumX || y < this.minimumY) {
+            throw new IndexOutOfBoundsException();
+        }
+        T element = this.plane[x - this.originX][y - this.originY];
+        return element;
+    }
+
+    /**
+     * Removes the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        if (x > this.maxmumX || y > this.maxmumY || x < this.minimumX || y < this.minimumY) {
+            throw new IndexOutOfBoundsException();
+        }
+        T element= this.plane[x - this.originX][y - this.originY];
+        if (element == null) {
+            return false;
+        } else {
+            this.plane[x - this.originX][y - this.originY] = null;
+            this.occupied[x - this.originX][(y - this.originY) >>> 6] &=
+                    ~(1L << (y - this.originY));
+            this.size--;
+            int columnCount = --this.columnCounts[x - this.originX];
+            int rowCount = --this.rowCounts[y - this.originY];
+            if (this.size > 0) {
+                if (columnCount == 0) {
+                    shrinkColumns(x);
+                }
+                if (rowCount == 0) {
+                    shrinkRows(y);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Moves the x edges of the element bounding box inwards after column x
+     * became empty.
+     *
+     * @param x The x-coordinate of the column that became empty
+     * @requires size > 0
+     */
+    private void shrinkColumns(int x) {
+        if (x == this.minElementX) {
+            while (this.columnCounts[this.minElementX - this.originX] == 0) {
+                this.minElementX++;
+            }
+        }
+        if (x == this.maxElementX) {
+            while (this.columnCounts[this.maxElementX - this.originX] == 0) {
+                this.maxElementX--;
+            }
+        }
+    }
+
+    /**
+     * Moves the y edges of the element bounding box inwards after row y
+     * became empty.
+     *
+     * @param y The y-coordinate of the row that became empty
+     * @requires size > 0
+     */
+    private void shrinkRows(int y) {
+        if (y == this.minElementY) {
+            while (this.rowCounts[this.minElementY - this.originY] == 0) {
+                this.minElementY++;
+            }
+        }
+        if (y == this.maxElementY) {
+            while (this.rowCounts[this.maxElementY - this.originY] == 0) {
+                this.maxElementY--;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements stored in the grid.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the grid holds no elements.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.minimumX;
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.maxmumX;
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.minimumY;
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.maxmumY;
+    }
+
+    /**
+     * Visits every element whose position lies in the rectangle
+     * [x0, x1] x [y0, y1]. Only the part of the rectangle inside the element
+     * bounding box is scanned, empty columns are skipped and occupied columns
+     * are walked through their bitmap, 64 cells per word.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param consumer The operation to perform on each element
+     */
+    public void forEachInRect(int x0, int x1, int y0, int y1,
+            CellConsumer<? super T> consumer) {
+        if (this.size == 0) {
+            return;
+        }
+        int fromX = Math.max(x0, this.minElementX);
+        int toX = Math.min(x1, this.maxElementX);
+        int fromY = Math.max(y0, this.minElementY);
+        int toY = Math.min(y1, this.maxElementY);
+        int from = fromY - this.originY;
+        int to = toY - this.originY + 1;
+        for (long x = fromX; x <= toX && from < to; x++) {
+            int i = (int) (x - this.originX);
+            if (this.columnCounts[i] == 0) {
+                continue;
+            }
+            T[] column = this.plane[i];
+            long[] bits = this.occupied[i];
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                long word = bits[w] & rangeMask(w, from, to);
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    consumer.accept((int) x, j + this.originY, column[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a batch of elements, overriding any existing elements at their
+     * positions. Element i is added at (xs[i], ys[i]). The bounds are
+     * checked once against the bounding box of the batch and the element
+     * bounding box is updated once at the end.
+     *
+     * @param xs The x-coordinates of the elements
+     * @param ys The y-coordinates of the elements
+     * @param values The elements to add
+     * @throws IllegalArgumentException If the arrays differ in length or
+     *         any position is out of the grid's minimum/maximum bounds
+     */
+    public void addAll(int[] xs, int[] ys, T[] values)
+            throws IllegalArgumentException {
+        if (xs.length != ys.length || xs.length != values.length) {
+            throw new IllegalArgumentException();
+        }
+        if (xs.length == 0) {
+            return;
+        }
+        int batchMinX = xs[0], batchMaxX = xs[0];
+        int batchMinY = ys[0], batchMaxY = ys[0];
+        for (int i = 1; i < xs.length; i++) {
+            batchMinX = Math.min(batchMinX, xs[i]);
+            batchMaxX = Math.max(batchMaxX, xs[i]);
+            batchMinY = Math.min(batchMinY, ys[i]);
+            batchMaxY = Math.max(batchMaxY, ys[i]);
+        }
+        if (batchMinX < this.minimumX || batchMaxX > this.maxmumX
+                || batchMinY < this.minimumY || batchMaxY > this.maxmumY) {
+            throw new IllegalArgumentException();
+        }
+
+        int addedMinX = Integer.MAX_VALUE, addedMaxX = Integer.MIN_VALUE;
+        int addedMinY = Integer.MAX_VALUE, addedMaxY = Integer.MIN_VALUE;
+        int added = 0;
+        for (int i = 0; i < xs.length; i++) {
+            if (values[i] == null) {
+                // remove() relies on size and the element bounding box, so
+                // bring them up to date with the additions so far first
+                if (added > 0) {
+                    includeInBounds(added, addedMinX, addedMaxX, addedMinY,
+                            addedMaxY);
+                    addedMinX = addedMinY = Integer.MAX_VALUE;
+                    addedMaxX = addedMaxY = Integer.MIN_VALUE;
+                    added = 0;
+                }
+                remove(xs[i], ys[i]);
+                continue;
+            }
+            T[] column = this.plane[xs[i] - this.originX];
+            if (column[ys[i] - this.originY] == null) {
+                this.occupied[xs[i] - this.originX][(ys[i] - this.originY)
+                        >>> 6] |= 1L << (ys[i] - this.originY);
+                this.columnCounts[xs[i] - this.originX]++;
+                this.rowCounts[ys[i] - this.originY]++;
+                addedMinX = Math.min(addedMinX, xs[i]);
+                addedMaxX = Math.max(addedMaxX, xs[i]);
+                addedMinY = Math.min(addedMinY, ys[i]);
+                addedMaxY = Math.max(addedMaxY, ys[i]);
+                added++;
+            }
+            column[ys[i] - this.originY] = values[i];
+        }
+        if (added > 0) {
+            includeInBounds(added, addedMinX, addedMaxX, addedMinY, addedMaxY);
+        }
+    }
+
+    /**
+     * Adds the same element at every position of the rectangle
+     * [x0, x1] x [y0, y1], overriding any existing elements there. Each
+     * column range is written with Arrays.fill.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param element The element to be added
+     * @throws IllegalArgumentException If the rectangle is empty or not
+     *         inside the grid's minimum/maximum bounds
+     */
+    public void fillRect(int x0, int x1, int y0, int y1, T element)
+            throws IllegalArgumentException {
+        if (x1 < x0 || y1 < y0 || x0 < this.minimumX || x1 > this.maxmumX
+                || y0 < this.minimumY || y1 > this.maxmumY) {
+            throw new IllegalArgumentException();
+        }
+        if (element == null) {
+            removeRect(x0, x1, y0, y1);
+            return;
+        }
+        int from = y0 - this.originY;
+        int to = y1 - this.originY + 1;
+        int added = 0;
+        for (int i = x0 - this.originX; i <= x1 - this.originX; i++) {
+            long[] bits = this.occupied[i];
+            int empty = 0;
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                long mask = rangeMask(w, from, to);
+                long word = ~bits[w] & mask;
+                empty += Long.bitCount(word);
+                while (word != 0) {
+                    this.rowCounts[(w << 6)
+                            + Long.numberOfTrailingZeros(word)]++;
+                    word &= word - 1;
+                }
+                bits[w] |= mask;
+            }
+            Arrays.fill(this.plane[i], from, to, element);
+            this.columnCounts[i] += empty;
+            added += empty;
+        }
+        if (added > 0) {
+            includeInBounds(added, x0, x1, y0, y1);
+        }
+    }
+
+    /**
+     * Removes every element in the rectangle [x0, x1] x [y0, y1]. Only
+     * occupied columns inside the element bounding box are visited, and the
+     * bounding box is tightened once at the end.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @return The number of elements removed
+     * @throws IndexOutOfBoundsException If the rectangle is not inside the
+     *         grid's minimum/maximum bounds
+     */
+    public int removeRect(int x0, int x1, int y0, int y1)
+            throws IndexOutOfBoundsException {
+        if (x0 < this.minimumX || x1 > this.maxmumX
+                || y0 < this.minimumY || y1 > this.maxmumY) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (this.size == 0) {
+            return 0;
+        }
+        int fromX = Math.max(x0, this.minElementX);
+        int toX = Math.min(x1, this.maxElementX);
+        int from = Math.max(y0, this.minElementY) - this.originY;
+        int to = Math.min(y1, this.maxElementY) - this.originY + 1;
+        int removed = 0;
+        for (int i = fromX - this.originX; i <= toX - this.originX && from < to; i++) {
+            if (this.columnCounts[i] == 0) {
+                continue;
+            }
+            T[] column = this.plane[i];
+            long[] bits = this.occupied[i];
+            int cleared = 0;
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                long mask = rangeMask(w, from, to);
+                long word = bits[w] & mask;
+                cleared += Long.bitCount(word);
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    column[j] = null;
+                    this.rowCounts[j]--;
+                }
+                bits[w] &= ~mask;
+            }
+            this.columnCounts[i] -= cleared;
+            removed += cleared;
+        }
+        this.size -= removed;
+        if (removed > 0 && this.size > 0) {
+            shrinkColumns(this.minElementX);
+            shrinkColumns(this.maxElementX);
+            shrinkRows(this.minElementY);
+            shrinkRows(this.maxElementY);
+        }
+        return removed;
+    }
+
+    /**
+     * Grows the element bounding box to include a block of newly added
+     * elements.
+     *
+     * @param added The number of elements added
+     * @param minX The minimum x-coordinate of the added elements
+     * @param maxX The maximum x-coordinate of the added elements
+     * @param minY The minimum y-coordinate of the added elements
+     * @param maxY The maximum y-coordinate of the added elements
+     */
+    private void includeInBounds(int added, int minX, int maxX, int minY,
+            int maxY) {
+        if (this.size == 0) {
+            this.minElementX = minX;
+            this.maxElementX = maxX;
+            this.minElementY = minY;
+            this.maxElementY = maxY;
+        } else {
+            updatePosition(minX, minY);
+            updatePosition(maxX, maxY);
+        }
+        this.size += added;
+    }
+
+    /**
+     * Removes all elements stored in the grid. Only the occupied columns of
+     * the element bounding box are visited.
+     */
+    public void clear() {
+        if (this.size == 0) {
+            return;
+        }
+        int from = this.minElementY - this.originY;
+        int to = this.maxElementY - this.originY + 1;
+        for (int i = this.minElementX - this.originX;
+                i <= this.maxElementX - this.originX; i++) {
+            if (this.columnCounts[i] != 0) {
+                Arrays.fill(this.plane[i], from, to, null);
+                Arrays.fill(this.occupied[i], from >>> 6, ((to - 1) >>> 6) + 1,
+                        0L);
+                this.columnCounts[i] = 0;
+            }
+        }
+        Arrays.fill(this.rowCounts, from, to, 0);
+        this.size = 0;
+    }
+
+    /**
+     * Changes the size of the grid. Existing elements should remain at the
+     *      * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     *      * causes an element to be lost, the grid should remain unmodified and an
+     *      * IllegalArgumentException thrown
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if an element
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+                       int newMaximumY) throws IllegalArgumentException {
+        if (this.size > 0 && (this.maxElementX > newMaximumX ||
+                this.minElementX < newMinimumX ||
+                this.maxElementY > newMaximumY ||
+                this.minElementY < newMinimumY) ||
+                newMaximumX < newMinimumX ||
+                newMaximumY < newMinimumY) {
+            throw new IllegalArgumentException();
+        }
+
+        int capacityX = this.plane.length;
+        int capacityY = this.plane[0].length;
+        if (this.growable
+                && fits(this.originX, capacityX, newMinimumX, newMaximumX)
+                && fits(this.originY, capacityY, newMinimumY, newMaximumY)) {
+            // The new bounds are inside the slack, only the bounds move
+            setBounds(newMinimumX, newMaximumX, newMinimumY, newMaximumY);
+            return;
+        }
+
+        int newCapacityX = newCapacity(this.originX, capacityX, newMinimumX,
+                newMaximumX);
+        int newCapacityY = newCapacity(this.originY, capacityY, newMinimumY,
+                newMaximumY);
+        int newOriginX = newOrigin(this.originX, capacityX, newCapacityX,
+                newMinimumX, newMaximumX);
+        int newOriginY = newOrigin(this.originY, capacityY, newCapacityY,
+                newMinimumY, newMaximumY);
+        T[][] newPlane = (T[][]) new Object[newCapacityX][newCapacityY];
+        long[][] newOccupied =
+                new long[newCapacityX][bitmapWords(newCapacityY)];
+        int[] newColumnCounts = new int[newCapacityX];
+        int[] newRowCounts = new int[newCapacityY];
+
+        if (this.size > 0) {
+            // Only occupied columns of the tight bounding box are copied
+            int height = this.maxElementY - this.minElementY + 1;
+            for (int x = this.minElementX; x <= this.maxElementX; x++) {
+                if (this.columnCounts[x - this.originX] != 0) {
+                    System.arraycopy(this.plane[x - this.originX],
+                            this.minElementY - this.originY,
+                            newPlane[x - newOriginX],
+                            this.minElementY - newOriginY, height);
+                    copyBits(this.occupied[x - this.originX],
+                            newOccupied[x - newOriginX],
+                            this.minElementY - this.originY,
+                            this.maxElementY - this.originY + 1,
+                            this.originY - newOriginY);
+                }
+            }
+            System.arraycopy(this.columnCounts, this.minElementX - this.originX,
+                    newColumnCounts, this.minElementX - newOriginX,
+                    this.maxElementX - this.minElementX + 1);
+            System.arraycopy(this.rowCounts, this.minElementY - this.originY,
+                    newRowCounts, this.minElementY - newOriginY, height);
+        }
+
+        this.plane = newPlane;
+        this.occupied = newOccupied;
+        this.columnCounts = newColumnCounts;
+        this.rowCounts = newRowCounts;
+        this.originX = newOriginX;
+        this.originY = newOriginY;
+        setBounds(newMinimumX, newMaximumX, newMinimumY, newMaximumY);
+    }
+
+    /**
+     * Returns the number of longs needed for a bitmap over the given number
+     * of cells.
+     */
+    private static int bitmapWords(int cells) {
+        return (cells + 63) >>> 6;
+    }
+
+    /**
+     * Returns the bits of bitmap word w that lie in the index range
+     * [from, to).
+     *
+     * @param w The index of the word
+     * @param from The first index of the range
+     * @param to The index after the last index of the range
+     * @return A mask selecting the range's bits of word w
+     */
+    private static long rangeMask(int w, int from, int to) {
+        long mask = -1L;
+        if (w == from >>> 6) {
+            mask &= -1L << from;
+        }
+        if (w == (to - 1) >>> 6) {
+            mask &= -1L >>> -to;
+        }
+        return mask;
+    }
+
+    /**
+     * Copies the set bits of source in [from, to) into target, moving each
+     * of them by shift.
+     *
+     * @param source The bitmap to copy from
+     * @param target The bitmap to copy into
+     * @param from The first index of the range
+     * @param to The index after the last index of the range
+     * @param shift The distance between a bit's old and new index
+     */
+    private static void copyBits(long[] source, long[] target, int from,
+            int to, int shift) {
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+            long word = source[w] & rangeMask(w, from, to);
+            while (word != 0) {
+                int j = (w << 6) + Long.numberOfTrailingZeros(word) + shift;
+                word &= word - 1;
+                target[j >>> 6] |= 1L << j;
+            }
+        }
+    }
+
+    /**
+     * Sets the bounds of the grid without touching the backing array.
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     */
+    private void setBounds(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) {
+        this.minimumX = newMinimumX;
+        this.maxmumX = newMaximumX;
+        this.minimumY = newMinimumY;
+        this.maxmumY = newMaximumY;
+        this.xLength = this.maxmumX - this.minimumX + 1;
+        this.yLength = this.maxmumY - this.minimumY + 1;
+    }
+
+    /**
+     * Returns whether the range [min, max] is covered by the storage of one
+     * axis.
+     *
+     * @param origin The coordinate stored at index 0 of the axis
+     * @param capacity The number of coordinates stored on the axis
+     * @param min The minimum of the range
+     * @param max The maximum of the range
+     * @return true if no reallocation is needed for this axis
+     */
+    private static boolean fits(int origin, int capacity, int min, int max) {
+        return min >= origin && (long) max < (long) origin + capacity;
+    }
+
+    /**
+     * Returns the capacity of one axis after resizing it to [min, max].
+     *
+     * @param origin The current coordinate stored at index 0 of the axis
+     * @param capacity The current capacity of the axis
+     * @param min The new minimum bound of the axis
+     * @param max The new maximum bound of the axis
+     * @return The new capacity of the axis
+     */
+    private int newCapacity(int origin, int capacity, int min, int max) {
+        int length = max - min + 1;
+        if (!this.growable) {
+            return length;
+        }
+        if (fits(origin, capacity, min, max)) {
+            return capacity;
+        }
+        // Grow geometrically so repeated widening is amortized O(1)
+        return (int) Math.min(Math.max((long) length, 2L * capacity),
+                Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Returns the coordinate stored at index 0 of one axis after resizing it
+     * to [min, max]. The slack is placed on the side(s) the axis grew
+     * towards.
+     *
+     * @param origin The current coordinate stored at index 0 of the axis
+     * @param capacity The current capacity of the axis
+     * @param newCapacity The capacity of the axis after resizing
+     * @param min The new minimum bound of the axis
+     * @param max The new maximum bound of the axis
+     * @return The new origin of the axis
+     */
+    private static int newOrigin(int origin, int capacity, int newCapacity,
+            int min, int max) {
+        if (newCapacity == capacity && fits(origin, capacity, min, max)) {
+            return origin;
+        }
+        int slack = newCapacity - (max - min + 1);
+        boolean growsDown = min < origin;
+        boolean growsUp = (long) max >= (long) origin + capacity;
+        if (growsDown && !growsUp) {
+            return min - slack;
+        } else if (growsUp && !growsDown) {
+            return min;
+        }
+        return min - slack / 2;
+    }
+}
+
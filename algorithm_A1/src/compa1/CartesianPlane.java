@@ -0,0 +1,280 @@
+package compa1;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+
+/**
+ * A 2D cartesian plane (i.e. a grid) data structure that holds items in a
+ * position. Each (x,y) coordinate can hold a single item of type <T>.
+ *
+ * x and y can potentially be negative
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public interface CartesianPlane<T> {
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, T element) throws IllegalArgumentException;
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T get(int x, int y) throws IndexOutOfBoundsException;
+
+    /**
+     * Removes the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException;
+
+    /**
+     * Adds a batch of elements, overriding any existing elements at their
+     * positions. Element i is added at (xs[i], ys[i]). The whole batch is
+     * checked against the bounds before anything is added.
+     *
+     * @param xs The x-coordinates of the elements
+     * @param ys The y-coordinates of the elements
+     * @param values The elements to add
+     * @throws IllegalArgumentException If the arrays differ in length or
+     *         any position is out of the grid's minimum/maximum bounds
+     */
+    public default void addAll(int[] xs, int[] ys, T[] values)
+            throws IllegalArgumentException {
+        if (xs.length != ys.length || xs.length != values.length) {
+            throw new IllegalArgumentException();
+        }
+        for (int i = 0; i < xs.length; i++) {
+            if (xs[i] < getMinimumX() || xs[i] > getMaximumX()
+                    || ys[i] < getMinimumY() || ys[i] > getMaximumY()) {
+                throw new IllegalArgumentException();
+            }
+        }
+        for (int i = 0; i < xs.length; i++) {
+            add(xs[i], ys[i], values[i]);
+        }
+    }
+
+    /**
+     * Adds the same element at every position of the rectangle
+     * [x0, x1] x [y0, y1], overriding any existing elements there.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param element The element to be added
+     * @throws IllegalArgumentException If the rectangle is empty or not
+     *         inside the grid's minimum/maximum bounds
+     */
+    public default void fillRect(int x0, int x1, int y0, int y1, T element)
+            throws IllegalArgumentException {
+        if (x1 < x0 || y1 < y0 || x0 < getMinimumX() || x1 > getMaximumX()
+                || y0 < getMinimumY() || y1 > getMaximumY()) {
+            throw new IllegalArgumentException();
+        }
+        for (long x = x0; x <= x1; x++) {
+            for (long y = y0; y <= y1; y++) {
+                add((int) x, (int) y, element);
+            }
+        }
+    }
+
+    /**
+     * Removes every element in the rectangle [x0, x1] x [y0, y1].
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @return The number of elements removed
+     * @throws IndexOutOfBoundsException If the rectangle is not inside the
+     *         grid's minimum/maximum bounds
+     */
+    public default int removeRect(int x0, int x1, int y0, int y1)
+            throws IndexOutOfBoundsException {
+        if (x0 < getMinimumX() || x1 > getMaximumX()
+                || y0 < getMinimumY() || y1 > getMaximumY()) {
+            throw new IndexOutOfBoundsException();
+        }
+        int removed = 0;
+        for (long x = x0; x <= x1; x++) {
+            for (long y = y0; y <= y1; y++) {
+                if (remove((int) x, (int) y)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all elements stored in the grid.
+     */
+    public void clear();
+
+    /**
+     * Returns the number of elements stored in the grid.
+     *
+     * @return the number of elements
+     */
+    public int size();
+
+    /**
+     * Returns whether the grid holds no elements.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty();
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX();
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX();
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY();
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY();
+
+    /**
+     * Visits every element whose position lies in the rectangle
+     * [x0, x1] x [y0, y1]. Parts of the rectangle outside the grid's bounds
+     * are ignored. The order of the visits is unspecified.
+     *
+     * Implementations override this to skip their empty regions; this
+     * version calls get() on every cell of the rectangle.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param consumer The operation to perform on each element
+     */
+    public default void forEachInRect(int x0, int x1, int y0, int y1,
+            CellConsumer<? super T> consumer) {
+        int fromX = Math.max(x0, getMinimumX());
+        int toX = Math.min(x1, getMaximumX());
+        int fromY = Math.max(y0, getMinimumY());
+        int toY = Math.min(y1, getMaximumY());
+        for (long x = fromX; x <= toX; x++) {
+            for (long y = fromY; y <= toY; y++) {
+                T element = get((int) x, (int) y);
+                if (element != null) {
+                    consumer.accept((int) x, (int) y, element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits every element of the grid. The order of the visits is
+     * unspecified.
+     *
+     * @param consumer The operation to perform on each element
+     */
+    public default void forEach(CellConsumer<? super T> consumer) {
+        forEachInRect(getMinimumX(), getMaximumX(), getMinimumY(),
+                getMaximumY(), consumer);
+    }
+
+    /**
+     * Returns a Spliterator over the elements of the grid, which splits the
+     * grid into bands of x values and then into tiles. Use it with
+     * StreamSupport.stream(plane.spliterator(), true) to scan a large grid
+     * in parallel. The grid must not be modified during the traversal.
+     *
+     * @return a Spliterator over the occupied cells of the grid
+     */
+    public default Spliterator<Cell<T>> spliterator() {
+        return new PlaneSpliterator<>(this, getMinimumX(), getMaximumX(),
+                getMinimumY(), getMaximumY());
+    }
+
+    /**
+     * Writes the grid to a channel, starting at its position, in the tiled
+     * format described by PlaneFormat: each 64x64 tile holding an element is
+     * written as its occupancy bitmap followed by its encoded elements.
+     *
+     * @param channel The channel to write to
+     * @param codec Encodes the elements
+     * @throws IOException If writing fails
+     */
+    public default void writeTo(FileChannel channel,
+            ElementCodec<? super T> codec) throws IOException {
+        PlaneFormat.writeReference(this, channel, codec);
+    }
+
+    /**
+     * Reads a grid written by writeTo() from a channel, starting at its
+     * position.
+     *
+     * @param channel The channel to read from
+     * @param codec Decodes the elements
+     * @param factory Creates the empty grid to fill, e.g.
+     *         ArrayCartesianPlane::new
+     * @param <T> The type of element held in the grid
+     * @return The new grid holding the elements written
+     * @throws IOException If reading fails or the channel does not hold a
+     *         grid written by writeTo()
+     */
+    public static <T> CartesianPlane<T> readFrom(FileChannel channel,
+            ElementCodec<? extends T> codec, PlaneFactory<T> factory)
+            throws IOException {
+        return PlaneFormat.readReference(channel, codec, factory);
+    }
+
+    /**
+     * Changes the size of the grid. Existing elements should remain at the
+     *      * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     *      * causes an element to be lost, the grid should remain unmodified and an
+     *      * IllegalArgumentException thrown
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if an element
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException;
+
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package compa1;
+
+/**
+ * An immutable (x, y, element) triple describing an occupied cell of a
+ * CartesianPlane, as produced by its spliterator.
+ *
+ * @param <T> The type of element held in the plane
+ */
+public final class Cell<T> {
+    /** The x-coordinate of the cell */
+    private final int x;
+    /** The y-coordinate of the cell */
+    private final int y;
+    /** The element stored in the cell */
+    private final T element;
+
+    /**
+     * Constructs a new Cell.
+     *
+     * @param x The x-coordinate of the cell
+     * @param y The y-coordinate of the cell
+     * @param element The element stored in the cell
+     */
+    public Cell(int x, int y, T element) {
+        this.x = x;
+        this.y = y;
+        this.element = element;
+    }
+
+    /**
+     * @return The x-coordinate of the cell
+     */
+    public int getX() {
+        return this.x;
+    }
+
+    /**
+     * @return The y-coordinate of the cell
+     */
+    public int getY() {
+        return this.y;
+    }
+
+    /**
+     * @return The element stored in the cell
+     */
+    public T getElement() {
+        return this.element;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + this.x + ", " + this.y + ") = " + this.element;
+    }
+}
@@ -0,0 +1,20 @@
+package compa1;
+
+/**
+ * An operation that accepts an occupied cell of a CartesianPlane, i.e. its
+ * (x, y) coordinate together with the element stored there.
+ *
+ * @param <T> The type of element held in the plane
+ */
+@FunctionalInterface
+public interface CellConsumer<T> {
+
+    /**
+     * Performs this operation on a cell.
+     *
+     * @param x The x-coordinate of the cell
+     * @param y The y-coordinate of the cell
+     * @param element The element stored at (x, y), never null
+     */
+    void accept(int x, int y, T element);
+}
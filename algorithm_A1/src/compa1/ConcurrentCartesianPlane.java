@@ -0,0 +1,435 @@
+package compa1;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+
+/**
+ * A thread-safe 2D cartesian plane. Each (x,y) coordinate can hold a single
+ * item of type <T>.
+ *
+ * Cells live in a flat array and are read and written with VarHandle
+ * volatile and compare-and-set operations, so threads working on different
+ * cells never block each other. get() takes no lock at all. Writers hold
+ * the read side of one of several striped locks while they touch a cell;
+ * clear() and resize() take the write side of every stripe, which waits for
+ * in-flight writers and then swaps in a new storage array.
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public class ConcurrentCartesianPlane<T> implements CartesianPlane<T> {
+    /** Access to the elements of an Object[] */
+    private static final VarHandle CELLS =
+            MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * The bounds of the plane together with the array holding its cells,
+     * replaced as a whole by clear() and resize().
+     */
+    private static final class Storage {
+        /** The minimum bound for the x values of elements */
+        final int minimumX;
+        /** The maximum bound for the x values of elements */
+        final int maximumX;
+        /** The minimum bound for the y values of elements */
+        final int minimumY;
+        /** The maximum bound for the y values of elements */
+        final int maximumY;
+        /** Number of y values per x */
+        final int height;
+        /** The cells, x-major */
+        final Object[] cells;
+
+        Storage(int minimumX, int maximumX, int minimumY, int maximumY) {
+            long cells = ((long) maximumX - minimumX + 1)
+                    * ((long) maximumY - minimumY + 1);
+            if (cells > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException();
+            }
+            this.minimumX = minimumX;
+            this.maximumX = maximumX;
+            this.minimumY = minimumY;
+            this.maximumY = maximumY;
+            this.height = maximumY - minimumY + 1;
+            this.cells = new Object[(int) cells];
+        }
+
+        boolean inBounds(int x, int y) {
+            return x >= this.minimumX && x <= this.maximumX
+                    && y >= this.minimumY && y <= this.maximumY;
+        }
+
+        int index(int x, int y) {
+            return (x - this.minimumX) * this.height + (y - this.minimumY);
+        }
+    }
+
+    /** The current storage */
+    private volatile Storage storage;
+    /** Locks held shared by cell writers and exclusively by clear/resize */
+    private final ReentrantReadWriteLock[] stripes;
+    /** Number of elements stored */
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Constructs a new ConcurrentCartesianPlane object with given minimum and
+     * maximum bounds.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public ConcurrentCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+        this.storage = new Storage(minimumX, maximumX, minimumY, maximumY);
+        int count = Integer.highestOneBit(
+                Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        this.stripes = new ReentrantReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Returns the stripe guarding writes to (x, y).
+     *
+     * @param x The x-coordinate of the cell
+     * @param y The y-coordinate of the cell
+     * @return the read lock of the cell's stripe
+     */
+    private ReentrantReadWriteLock.ReadLock stripe(int x, int y) {
+        int h = x * 0x9E3779B9 + y;
+        h ^= h >>> 16;
+        return this.stripes[h & (this.stripes.length - 1)].readLock();
+    }
+
+    /**
+     * Takes the write side of every stripe, in order.
+     */
+    private void lockAll() {
+        for (ReentrantReadWriteLock stripe : this.stripes) {
+            stripe.writeLock().lock();
+        }
+    }
+
+    /**
+     * Releases the write side of every stripe.
+     */
+    private void unlockAll() {
+        for (int i = this.stripes.length - 1; i >= 0; i--) {
+            this.stripes[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, T element) throws IllegalArgumentException {
+        ReentrantReadWriteLock.ReadLock lock = stripe(x, y);
+        lock.lock();
+        try {
+            Storage s = this.storage;
+            if (!s.inBounds(x, y)) {
+                throw new IllegalArgumentException();
+            }
+            Object old = CELLS.getAndSet(s.cells, s.index(x, y), element);
+            if (old == null && element != null) {
+                this.size.increment();
+            } else if (old != null && element == null) {
+                this.size.decrement();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T get(int x, int y) throws IndexOutOfBoundsException {
+        Storage s = this.storage;
+        if (!s.inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (T) CELLS.getVolatile(s.cells, s.index(x, y));
+    }
+
+    /**
+     * Removes the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        ReentrantReadWriteLock.ReadLock lock = stripe(x, y);
+        lock.lock();
+        try {
+            Storage s = this.storage;
+            if (!s.inBounds(x, y)) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (CELLS.getAndSet(s.cells, s.index(x, y), null) == null) {
+                return false;
+            }
+            this.size.decrement();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces the element at (x, y) with newElement if the
+     * current element is expected. Elements are compared by identity, and
+     * null stands for an empty cell on either side.
+     *
+     * @param x The x-coordinate of the position
+     * @param y The y-coordinate of the position
+     * @param expected The element expected at (x, y), or null for empty
+     * @param newElement The element to store, or null to remove
+     * @return true if the element was replaced
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean compareAndSet(int x, int y, T expected, T newElement)
+            throws IllegalArgumentException {
+        ReentrantReadWriteLock.ReadLock lock = stripe(x, y);
+        lock.lock();
+        try {
+            Storage s = this.storage;
+            if (!s.inBounds(x, y)) {
+                throw new IllegalArgumentException();
+            }
+            if (!CELLS.compareAndSet(s.cells, s.index(x, y), expected,
+                    newElement)) {
+                return false;
+            }
+            if (expected == null && newElement != null) {
+                this.size.increment();
+            } else if (expected != null && newElement == null) {
+                this.size.decrement();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the element at (x, y), first storing the result of function if
+     * the cell is empty. If several threads race on an empty cell, each may
+     * run function, but all of them return the element that was stored.
+     *
+     * @param x The x-coordinate of the position
+     * @param y The y-coordinate of the position
+     * @param function Computes the element to store from the position
+     * @return The element now at (x, y), or null if function returned null
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T computeIfAbsent(int x, int y,
+            BiFunction<Integer, Integer, ? extends T> function)
+            throws IllegalArgumentException {
+        Storage s = this.storage;
+        if (!s.inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        T current = (T) CELLS.getVolatile(s.cells, s.index(x, y));
+        if (current != null) {
+            return current;
+        }
+        T computed = function.apply(x, y);
+        if (computed == null) {
+            return null;
+        }
+        while (true) {
+            if (compareAndSet(x, y, null, computed)) {
+                return computed;
+            }
+            // A resize may have replaced the storage since the last attempt,
+            // so read the bounds again rather than going through get()
+            s = this.storage;
+            if (!s.inBounds(x, y)) {
+                throw new IllegalArgumentException();
+            }
+            current = (T) CELLS.getVolatile(s.cells, s.index(x, y));
+            if (current != null) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Removes all elements stored in the grid.
+     */
+    public void clear() {
+        lockAll();
+        try {
+            Storage s = this.storage;
+            this.storage = new Storage(s.minimumX, s.maximumX, s.minimumY,
+                    s.maximumY);
+            this.size.reset();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Returns the number of elements stored in the grid. The count is exact
+     * when no writer runs concurrently.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.size.intValue();
+    }
+
+    /**
+     * Returns whether the grid holds no elements.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.storage.minimumX;
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.storage.maximumX;
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.storage.minimumY;
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.storage.maximumY;
+    }
+
+    /**
+     * Visits every element whose position lies in the rectangle
+     * [x0, x1] x [y0, y1]. Concurrent writes may or may not be seen.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param consumer The operation to perform on each element
+     */
+    public void forEachInRect(int x0, int x1, int y0, int y1,
+            CellConsumer<? super T> consumer) {
+        Storage s = this.storage;
+        int fromX = Math.max(x0, s.minimumX);
+        int toX = Math.min(x1, s.maximumX);
+        int fromY = Math.max(y0, s.minimumY);
+        int toY = Math.min(y1, s.maximumY);
+        for (long x = fromX; x <= toX && fromY <= toY; x++) {
+            for (long y = fromY; y <= toY; y++) {
+                Object element = CELLS.getVolatile(s.cells,
+                        s.index((int) x, (int) y));
+                if (element != null) {
+                    consumer.accept((int) x, (int) y, (T) element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes the size of the grid. Existing elements should remain at the
+     * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     * causes an element to be lost, the grid should remain unmodified and an
+     * IllegalArgumentException thrown
+     *
+     * Blocks all writers while the cells are copied.
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if an element
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException {
+        if (newMaximumX < newMinimumX || newMaximumY < newMinimumY) {
+            throw new IllegalArgumentException();
+        }
+        lockAll();
+        try {
+            Storage s = this.storage;
+            for (int i = 0; i < s.cells.length; i++) {
+                if (s.cells[i] != null && !(s.minimumX + i / s.height >= newMinimumX
+                        && s.minimumX + i / s.height <= newMaximumX
+                        && s.minimumY + i % s.height >= newMinimumY
+                        && s.minimumY + i % s.height <= newMaximumY)) {
+                    throw new IllegalArgumentException();
+                }
+            }
+            Storage resized = new Storage(newMinimumX, newMaximumX,
+                    newMinimumY, newMaximumY);
+            int fromX = Math.max(s.minimumX, newMinimumX);
+            int toX = Math.min(s.maximumX, newMaximumX);
+            int fromY = Math.max(s.minimumY, newMinimumY);
+            int toY = Math.min(s.maximumY, newMaximumY);
+            for (int x = fromX; x <= toX && fromY <= toY; x++) {
+                System.arraycopy(s.cells, s.index(x, fromY), resized.cells,
+                        resized.index(x, fromY), toY - fromY + 1);
+            }
+            this.storage = resized;
+        } finally {
+            unlockAll();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package compa1;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts the elements of a CartesianPlane to and from bytes, for
+ * CartesianPlane.writeTo() and CartesianPlane.readFrom().
+ *
+ * @param <T> The type of element held in the plane
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Writes an element at the buffer's position, advancing it. May throw
+     * BufferOverflowException, in which case the caller retries with a
+     * larger buffer.
+     *
+     * @param element The element to write, never null
+     * @param buffer The buffer to write into
+     */
+    void encode(T element, ByteBuffer buffer);
+
+    /**
+     * Reads an element written by encode() at the buffer's position,
+     * advancing it.
+     *
+     * @param buffer The buffer to read from
+     * @return The element, not null
+     */
+    T decode(ByteBuffer buffer);
+}
@@ -0,0 +1,412 @@
+package compa1;
+
+import java.util.Arrays;
+
+/**
+ * A 2D cartesian plane backed by a single flat array. Each (x,y) coordinate
+ * can hold a single item of type <T>.
+ *
+ * Unlike the array of arrays in ArrayCartesianPlane, every access is one
+ * index computation and one array load. The mapping from coordinates to
+ * indices is chosen with a Layout: ROW_MAJOR keeps the cells of one x
+ * contiguous, MORTON interleaves the bits of x and y (Z-order) so that cells
+ * close to each other in 2D are also close in memory, which keeps
+ * neighbourhood scans cache-local in both directions.
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public class FlatCartesianPlane<T> implements CartesianPlane<T> {
+    /** Largest number of cells a MORTON plane may allocate */
+    private static final int MAX_MORTON_CELLS = 1 << 30;
+
+    /**
+     * Mapping from (x, y) coordinates to indices of the backing array.
+     */
+    public enum Layout {
+        /** Index (x - minimumX) * height + (y - minimumY) */
+        ROW_MAJOR,
+        /** Bit-interleaved (Z-order) index over a power of two square */
+        MORTON
+    }
+
+    /** The minimum bound for the x values of elements */
+    private int minimumX;
+    /** The maximum bound for the x values of elements */
+    private int maximumX;
+    /** The minimum bound for the y values of elements */
+    private int minimumY;
+    /** The maximum bound for the y values of elements */
+    private int maximumY;
+    /** Number of y values per x in the ROW_MAJOR layout */
+    private int height;
+    /** How coordinates map to indices of cells */
+    private final Layout layout;
+    /** The cells of the plane */
+    Object[] cells;
+    /** Total number of elements */
+    private int size;
+
+    /**
+     * Constructs a new row-major FlatCartesianPlane object with given minimum
+     * and maximum bounds.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public FlatCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        this(minimumX, maximumX, minimumY, maximumY, Layout.ROW_MAJOR);
+    }
+
+    /**
+     * Constructs a new FlatCartesianPlane object with given minimum and
+     * maximum bounds and layout.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @param layout The mapping from coordinates to array indices
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max), or the bounds
+     *         need more cells than a single array can hold
+     */
+    public FlatCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY, Layout layout) throws IllegalArgumentException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+
+        this.layout = layout;
+        this.cells = new Object[capacity(minimumX, maximumX, minimumY, maximumY)];
+        setBounds(minimumX, maximumX, minimumY, maximumY);
+    }
+
+    /**
+     * Returns the number of cells the layout needs for the given bounds.
+     *
+     * @param minX The minimum x bound
+     * @param maxX The maximum x bound
+     * @param minY The minimum y bound
+     * @param maxY The maximum y bound
+     * @return The length of the backing array
+     * @throws IllegalArgumentException if a single array cannot hold that
+     *         many cells
+     */
+    private int capacity(int minX, int maxX, int minY, int maxY)
+            throws IllegalArgumentException {
+        long width = (long) maxX - minX + 1;
+        long height = (long) maxY - minY + 1;
+        long cells;
+        if (this.layout == Layout.MORTON) {
+            long side = Long.highestOneBit(Math.max(width, height) - 1) << 1;
+            cells = Math.max(side, 1) * Math.max(side, 1);
+            if (cells > MAX_MORTON_CELLS) {
+                throw new IllegalArgumentException();
+            }
+        } else {
+            cells = width * height;
+            if (cells > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException();
+            }
+        }
+        return (int) cells;
+    }
+
+    /**
+     * Sets the bounds of the grid without touching the cells.
+     *
+     * @param minX The minimum x bound
+     * @param maxX The maximum x bound
+     * @param minY The minimum y bound
+     * @param maxY The maximum y bound
+     */
+    private void setBounds(int minX, int maxX, int minY, int maxY) {
+        this.minimumX = minX;
+        this.maximumX = maxX;
+        this.minimumY = minY;
+        this.maximumY = maxY;
+        this.height = maxY - minY + 1;
+    }
+
+    /**
+     * Spreads the low 16 bits of a value out to the even bits of the result.
+     *
+     * @param v A value below 2^16
+     * @return v with a zero bit inserted above each of its bits
+     */
+    static int spread(int v) {
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    /**
+     * Collects the even bits of a value into its low 16 bits, the inverse of
+     * spread().
+     *
+     * @param v A value whose even bits are of interest
+     * @return The even bits of v packed together
+     */
+    static int compact(int v) {
+        v &= 0x55555555;
+        v = (v | (v >>> 1)) & 0x33333333;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F;
+        v = (v | (v >>> 4)) & 0x00FF00FF;
+        v = (v | (v >>> 8)) & 0x0000FFFF;
+        return v;
+    }
+
+    /**
+     * Returns the index of cell (x, y), relative to the current bounds.
+     *
+     * @param x The x-coordinate of a position inside the bounds
+     * @param y The y-coordinate of a position inside the bounds
+     * @return The index of the position in cells
+     */
+    private int index(int x, int y) {
+        if (this.layout == Layout.MORTON) {
+            return (spread(y - this.minimumY) << 1) | spread(x - this.minimumX);
+        }
+        return (x - this.minimumX) * this.height + (y - this.minimumY);
+    }
+
+    /**
+     * Returns whether (x, y) lies inside the bounds of the grid.
+     *
+     * @param x The x-coordinate to check
+     * @param y The y-coordinate to check
+     * @return true if the position is inside the bounds
+     */
+    private boolean inBounds(int x, int y) {
+        return x >= this.minimumX && x <= this.maximumX
+                && y >= this.minimumY && y <= this.maximumY;
+    }
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, T element) throws IllegalArgumentException {
+        if (!inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        int i = index(x, y);
+        if (this.cells[i] == null) {
+            if (element != null) {
+                this.size++;
+            }
+        } else if (element == null) {
+            this.size--;
+        }
+        this.cells[i] = element;
+    }
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T get(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (T) this.cells[index(x, y)];
+    }
+
+    /**
+     * Removes the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        int i = index(x, y);
+        if (this.cells[i] == null) {
+            return false;
+        }
+        this.cells[i] = null;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Removes all elements stored in the grid.
+     */
+    public void clear() {
+        if (this.size != 0) {
+            Arrays.fill(this.cells, null);
+            this.size = 0;
+        }
+    }
+
+    /**
+     * Returns the number of elements stored in the grid.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the grid holds no elements.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.minimumX;
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.maximumX;
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.minimumY;
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.maximumY;
+    }
+
+    /**
+     * Visits every element whose position lies in the rectangle
+     * [x0, x1] x [y0, y1], reading the cells directly without per-cell
+     * bounds checks.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param consumer The operation to perform on each element
+     */
+    public void forEachInRect(int x0, int x1, int y0, int y1,
+            CellConsumer<? super T> consumer) {
+        int fromX = Math.max(x0, this.minimumX);
+        int toX = Math.min(x1, this.maximumX);
+        int fromY = Math.max(y0, this.minimumY);
+        int toY = Math.min(y1, this.maximumY);
+        if (this.size == 0) {
+            return;
+        }
+        for (long x = fromX; x <= toX && fromY <= toY; x++) {
+            for (long y = fromY; y <= toY; y++) {
+                Object element = this.cells[index((int) x, (int) y)];
+                if (element != null) {
+                    consumer.accept((int) x, (int) y, (T) element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes the size of the grid. Existing elements should remain at the
+     * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     * causes an element to be lost, the grid should remain unmodified and an
+     * IllegalArgumentException thrown
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if an element
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException {
+        if (newMaximumX < newMinimumX || newMaximumY < newMinimumY) {
+            throw new IllegalArgumentException();
+        }
+        Object[] newCells = new Object[capacity(newMinimumX, newMaximumX,
+                newMinimumY, newMaximumY)];
+        int oldMinimumX = this.minimumX;
+        int oldMaximumX = this.maximumX;
+        int oldMinimumY = this.minimumY;
+        int oldMaximumY = this.maximumY;
+        int oldHeight = this.height;
+        Object[] oldCells = this.cells;
+
+        // Copy into the new cells under the new bounds; the old cells are
+        // never written, so a lost element only needs the old cells and
+        // bounds restored
+        this.cells = newCells;
+        setBounds(newMinimumX, newMaximumX, newMinimumY, newMaximumY);
+        for (int i = 0; i < oldCells.length; i++) {
+            if (oldCells[i] == null) {
+                continue;
+            }
+            int x, y;
+            if (this.layout == Layout.MORTON) {
+                x = oldMinimumX + compact(i);
+                y = oldMinimumY + compact(i >>> 1);
+            } else {
+                x = oldMinimumX + i / oldHeight;
+                y = oldMinimumY + i % oldHeight;
+            }
+            if (!inBounds(x, y)) {
+                this.cells = oldCells;
+                setBounds(oldMinimumX, oldMaximumX, oldMinimumY, oldMaximumY);
+                throw new IllegalArgumentException();
+            }
+            newCells[index(x, y)] = oldCells[i];
+        }
+    }
+}
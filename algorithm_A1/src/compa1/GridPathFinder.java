@@ -0,0 +1,357 @@
+package compa1;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Shortest 4-connected paths across the obstacles of a CartesianPlane, found
+ * with A* (Manhattan heuristic) or Dijkstra. Each step costs 1.
+ *
+ * All bookkeeping lives in int arrays indexed by cell, x-major like the
+ * primitive planes, which are allocated once for the plane's bounds and
+ * reused by every query. Instead of being cleared, they are validated with a
+ * per-query stamp, so a query costs time in proportion to the cells it
+ * expands rather than to the area, and allocates nothing once the buffers
+ * have grown to their working size. Not thread-safe: use one finder per
+ * thread.
+ *
+ * @param <T> The type of element held in the plane
+ */
+public class GridPathFinder<T> {
+    /** The plane holding the obstacles */
+    private final CartesianPlane<T> plane;
+    /** Which elements block a cell */
+    private final Predicate<? super T> blocked;
+    /** The bounds the buffers were sized for */
+    private int minimumX, maximumX, minimumY, maximumY;
+    /** Number of y values per x */
+    private int height;
+    /** Stamp of the query in which a cell was last reached */
+    private int[] reached;
+    /** Stamp of the query in which a cell was last expanded */
+    private int[] expanded;
+    /** Cost from the start, valid where reached holds the current stamp */
+    private int[] cost;
+    /** Predecessor on the best known path, valid like cost */
+    private int[] previous;
+    /** Stamp of the current query */
+    private int stamp;
+    /** Min-heap keys: f in the high half, tie broken towards larger g */
+    private long[] heapKeys = new long[64];
+    /** Cells of the heap entries, stale entries are skipped when popped */
+    private int[] heapCells = new int[64];
+    /** Number of heap entries */
+    private int heapSize;
+    /** Cells of the last path found, from start to target */
+    private int[] path = new int[64];
+    /** Number of cells in the last path found */
+    private int pathLength;
+    /** Number of cells expanded by the last query */
+    private int expansions;
+
+    /**
+     * Creates a path finder treating every occupied cell as blocked.
+     *
+     * @param plane The plane holding the obstacles
+     */
+    public GridPathFinder(CartesianPlane<T> plane) {
+        this(plane, element -> element != null);
+    }
+
+    /**
+     * Creates a path finder treating the cells whose element matches blocked
+     * as obstacles. The predicate is also called for empty cells, with null.
+     *
+     * @param plane The plane holding the obstacles
+     * @param blocked Which elements block a cell
+     */
+    public GridPathFinder(CartesianPlane<T> plane,
+            Predicate<? super T> blocked) {
+        this.plane = plane;
+        this.blocked = blocked;
+    }
+
+    /**
+     * Finds a shortest path with A*.
+     *
+     * @param startX The x-coordinate of the start
+     * @param startY The y-coordinate of the start
+     * @param targetX The x-coordinate of the target
+     * @param targetY The y-coordinate of the target
+     * @return The number of steps of the path, or -1 if the target cannot
+     *         be reached or either end is blocked
+     * @throws IndexOutOfBoundsException If either end is out of the plane's
+     *         minimum/maximum bounds
+     */
+    public int findPath(int startX, int startY, int targetX, int targetY)
+            throws IndexOutOfBoundsException {
+        return search(startX, startY, targetX, targetY, true);
+    }
+
+    /**
+     * Finds a shortest path with Dijkstra's algorithm, i.e. without a
+     * heuristic. Expands more cells than findPath() but finds paths of the
+     * same length.
+     *
+     * @param startX The x-coordinate of the start
+     * @param startY The y-coordinate of the start
+     * @param targetX The x-coordinate of the target
+     * @param targetY The y-coordinate of the target
+     * @return The number of steps of the path, or -1 if the target cannot
+     *         be reached or either end is blocked
+     * @throws IndexOutOfBoundsException If either end is out of the plane's
+     *         minimum/maximum bounds
+     */
+    public int findPathDijkstra(int startX, int startY, int targetX,
+            int targetY) throws IndexOutOfBoundsException {
+        return search(startX, startY, targetX, targetY, false);
+    }
+
+    /**
+     * @return The number of cells of the last path found, including both
+     *         ends, or 0 if the last query found none
+     */
+    public int getPathLength() {
+        return this.pathLength;
+    }
+
+    /**
+     * Returns the x-coordinate of a cell of the last path found.
+     *
+     * @param i The position of the cell on the path, 0 being the start
+     * @return The x-coordinate of the cell
+     * @throws IndexOutOfBoundsException If i is not below getPathLength()
+     */
+    public int getPathX(int i) throws IndexOutOfBoundsException {
+        if (i < 0 || i >= this.pathLength) {
+            throw new IndexOutOfBoundsException();
+        }
+        return this.minimumX + this.path[i] / this.height;
+    }
+
+    /**
+     * Returns the y-coordinate of a cell of the last path found.
+     *
+     * @param i The position of the cell on the path, 0 being the start
+     * @return The y-coordinate of the cell
+     * @throws IndexOutOfBoundsException If i is not below getPathLength()
+     */
+    public int getPathY(int i) throws IndexOutOfBoundsException {
+        if (i < 0 || i >= this.pathLength) {
+            throw new IndexOutOfBoundsException();
+        }
+        return this.minimumY + this.path[i] % this.height;
+    }
+
+    /**
+     * @return The number of cells expanded by the last query
+     */
+    public int getExpansions() {
+        return this.expansions;
+    }
+
+    /**
+     * Sizes the buffers for the plane's current bounds, reallocating them
+     * only if the bounds changed, and starts a new stamp.
+     *
+     * @throws IllegalArgumentException if the plane holds more cells than a
+     *         single array can
+     */
+    private void prepare() {
+        int minX = this.plane.getMinimumX();
+        int maxX = this.plane.getMaximumX();
+        int minY = this.plane.getMinimumY();
+        int maxY = this.plane.getMaximumY();
+        if (this.reached == null || minX != this.minimumX
+                || maxX != this.maximumX || minY != this.minimumY
+                || maxY != this.maximumY) {
+            long cells = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+            if (cells > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException();
+            }
+            this.minimumX = minX;
+            this.maximumX = maxX;
+            this.minimumY = minY;
+            this.maximumY = maxY;
+            this.height = maxY - minY + 1;
+            this.reached = new int[(int) cells];
+            this.expanded = new int[(int) cells];
+            this.cost = new int[(int) cells];
+            this.previous = new int[(int) cells];
+            this.stamp = 0;
+        }
+        if (this.stamp == Integer.MAX_VALUE) {
+            Arrays.fill(this.reached, 0);
+            Arrays.fill(this.expanded, 0);
+            this.stamp = 0;
+        }
+        this.stamp++;
+        this.heapSize = 0;
+        this.pathLength = 0;
+        this.expansions = 0;
+    }
+
+    /**
+     * Returns whether (x, y), inside the bounds, is blocked.
+     */
+    private boolean isBlocked(int x, int y) {
+        return this.blocked.test(this.plane.get(x, y));
+    }
+
+    /**
+     * Runs A* (or Dijkstra when heuristic is false) and records the path.
+     */
+    private int search(int startX, int startY, int targetX, int targetY,
+            boolean heuristic) {
+        prepare();
+        if (startX < this.minimumX || startX > this.maximumX
+                || startY < this.minimumY || startY > this.maximumY
+                || targetX < this.minimumX || targetX > this.maximumX
+                || targetY < this.minimumY || targetY > this.maximumY) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (isBlocked(startX, startY) || isBlocked(targetX, targetY)) {
+            return -1;
+        }
+        int height = this.height;
+        int start = (startX - this.minimumX) * height + (startY - this.minimumY);
+        int target = (targetX - this.minimumX) * height
+                + (targetY - this.minimumY);
+        int targetI = targetX - this.minimumX;
+        int targetJ = targetY - this.minimumY;
+        int lastI = this.maximumX - this.minimumX;
+        int lastJ = height - 1;
+
+        this.reached[start] = this.stamp;
+        this.cost[start] = 0;
+        this.previous[start] = -1;
+        push(heuristic ? distance(start, targetI, targetJ) : 0, 0, start);
+        while (this.heapSize > 0) {
+            int cell = pop();
+            if (this.expanded[cell] == this.stamp) {
+                continue;
+            }
+            this.expanded[cell] = this.stamp;
+            this.expansions++;
+            if (cell == target) {
+                recordPath(target);
+                return this.cost[target];
+            }
+            int i = cell / height;
+            int j = cell - i * height;
+            int g = this.cost[cell] + 1;
+            for (int k = 0; k < 4; k++) {
+                int ni = i, nj = j;
+                switch (k) {
+                    case 0: ni--; break;
+                    case 1: ni++; break;
+                    case 2: nj--; break;
+                    default: nj++; break;
+                }
+                if (ni < 0 || ni > lastI || nj < 0 || nj > lastJ) {
+                    continue;
+                }
+                int next = ni * height + nj;
+                if (this.expanded[next] == this.stamp
+                        || (this.reached[next] == this.stamp
+                                && this.cost[next] <= g)) {
+                    continue;
+                }
+                if (this.reached[next] != this.stamp
+                        && isBlocked(this.minimumX + ni, this.minimumY + nj)) {
+                    // Remember blocked cells as expanded so they are only
+                    // tested once per query
+                    this.expanded[next] = this.stamp;
+                    continue;
+                }
+                this.reached[next] = this.stamp;
+                this.cost[next] = g;
+                this.previous[next] = cell;
+                int h = heuristic
+                        ? Math.abs(ni - targetI) + Math.abs(nj - targetJ) : 0;
+                push(g + h, g, next);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the Manhattan distance from cell to (targetI, targetJ).
+     */
+    private int distance(int cell, int targetI, int targetJ) {
+        int i = cell / this.height;
+        int j = cell - i * this.height;
+        return Math.abs(i - targetI) + Math.abs(j - targetJ);
+    }
+
+    /**
+     * Copies the path ending in target into the path buffer, start first.
+     */
+    private void recordPath(int target) {
+        int length = this.cost[target] + 1;
+        if (length > this.path.length) {
+            this.path = new int[Math.max(length, this.path.length * 2)];
+        }
+        int cell = target;
+        for (int i = length - 1; i >= 0; i--) {
+            this.path[i] = cell;
+            cell = this.previous[cell];
+        }
+        this.pathLength = length;
+    }
+
+    /**
+     * Adds a cell to the heap with priority f, preferring larger g among
+     * equal f so the search dives towards the target.
+     */
+    private void push(int f, int g, int cell) {
+        if (this.heapSize == this.heapKeys.length) {
+            this.heapKeys = Arrays.copyOf(this.heapKeys, this.heapSize * 2);
+            this.heapCells = Arrays.copyOf(this.heapCells, this.heapSize * 2);
+        }
+        long key = ((long) f << 32) | (Integer.MAX_VALUE - g);
+        int i = this.heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (this.heapKeys[parent] <= key) {
+                break;
+            }
+            this.heapKeys[i] = this.heapKeys[parent];
+            this.heapCells[i] = this.heapCells[parent];
+            i = parent;
+        }
+        this.heapKeys[i] = key;
+        this.heapCells[i] = cell;
+    }
+
+    /**
+     * Removes the entry with the smallest key from the heap and returns its
+     * cell.
+     */
+    private int pop() {
+        int top = this.heapCells[0];
+        int size = --this.heapSize;
+        long key = this.heapKeys[size];
+        int cell = this.heapCells[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size
+                    && this.heapKeys[child + 1] < this.heapKeys[child]) {
+                child++;
+            }
+            if (this.heapKeys[child] >= key) {
+                break;
+            }
+            this.heapKeys[i] = this.heapKeys[child];
+            this.heapCells[i] = this.heapCells[child];
+            i = child;
+        }
+        this.heapKeys[i] = key;
+        this.heapCells[i] = cell;
+        return top;
+    }
+}
@@ -0,0 +1,384 @@
+package compa1;
+
+import java.util.Arrays;
+
+/**
+ * A 2D cartesian plane stored in an open-addressing hash table, for planes
+ * where only a tiny fraction of the bounds is ever occupied. Each (x,y)
+ * coordinate can hold a single item of type <T>.
+ *
+ * Coordinates are packed into a single long key, and keys and elements are
+ * kept in two parallel arrays, so no keys are boxed and no entry objects are
+ * created. Collisions are resolved with linear probing; removal shifts later
+ * entries of the probe sequence back instead of leaving deletion markers.
+ * The table is doubled once it would become more than half full.
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public class HashCartesianPlane<T> implements CartesianPlane<T> {
+    /** Table capacity used by a new or cleared plane */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The minimum bound for the x values of elements */
+    private int minimumX;
+    /** The maximum bound for the x values of elements */
+    private int maximumX;
+    /** The minimum bound for the y values of elements */
+    private int minimumY;
+    /** The maximum bound for the y values of elements */
+    private int maximumY;
+    /** Packed (x, y) keys of the table, valid where values[i] != null */
+    private long[] keys;
+    /** Elements of the table, null marks an empty slot */
+    private Object[] values;
+    /** Number of elements stored */
+    private int size;
+
+    /**
+     * Constructs a new HashCartesianPlane object with given minimum and
+     * maximum bounds.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public HashCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+
+        this.minimumX = minimumX;
+        this.maximumX = maximumX;
+        this.minimumY = minimumY;
+        this.maximumY = maximumY;
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Packs a coordinate into a single key.
+     *
+     * @param x The x-coordinate
+     * @param y The y-coordinate
+     * @return x in the high 32 bits and y in the low 32 bits
+     */
+    static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the home slot of a key in a table of the given capacity.
+     *
+     * @param key A packed coordinate
+     * @param mask The table capacity minus one
+     * @return The first slot of the key's probe sequence
+     */
+    private static int slot(long key, int mask) {
+        // Finaliser of MurmurHash3, spreads both coordinates over all bits
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /**
+     * Returns the slot holding a key, or -1 if the key is not in the table.
+     *
+     * @param key A packed coordinate
+     * @return The slot of the key, or -1
+     */
+    private int find(long key) {
+        int mask = this.values.length - 1;
+        int i = slot(key, mask);
+        while (this.values[i] != null) {
+            if (this.keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether (x, y) lies inside the bounds of the grid.
+     *
+     * @param x The x-coordinate to check
+     * @param y The y-coordinate to check
+     * @return true if the position is inside the bounds
+     */
+    private boolean inBounds(int x, int y) {
+        return x >= this.minimumX && x <= this.maximumX
+                && y >= this.minimumY && y <= this.maximumY;
+    }
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, T element) throws IllegalArgumentException {
+        if (!inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        if (element == null) {
+            remove(x, y);
+            return;
+        }
+        long key = pack(x, y);
+        int mask = this.values.length - 1;
+        int i = slot(key, mask);
+        while (this.values[i] != null) {
+            if (this.keys[i] == key) {
+                this.values[i] = element;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        this.keys[i] = key;
+        this.values[i] = element;
+        if (++this.size > this.values.length >> 1) {
+            rehash(this.values.length << 1);
+        }
+    }
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T get(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        int i = find(pack(x, y));
+        return i < 0 ? null : (T) this.values[i];
+    }
+
+    /**
+     * Removes the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        int hole = find(pack(x, y));
+        if (hole < 0) {
+            return false;
+        }
+        // Shift back every later entry of the cluster whose home slot does
+        // not lie between the hole and its current slot
+        int mask = this.values.length - 1;
+        int i = (hole + 1) & mask;
+        while (this.values[i] != null) {
+            int home = slot(this.keys[i], mask);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                this.keys[hole] = this.keys[i];
+                this.values[hole] = this.values[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        this.values[hole] = null;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Removes all elements stored in the grid.
+     */
+    public void clear() {
+        if (this.values.length > INITIAL_CAPACITY) {
+            this.keys = new long[INITIAL_CAPACITY];
+            this.values = new Object[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(this.values, null);
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of elements stored in the grid.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the grid holds no elements.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.minimumX;
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.maximumX;
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.minimumY;
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.maximumY;
+    }
+
+    /**
+     * Visits every element whose position lies in the rectangle
+     * [x0, x1] x [y0, y1]. Small rectangles are probed cell by cell, larger
+     * ones by scanning the table, whichever touches fewer slots.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param consumer The operation to perform on each element
+     */
+    public void forEachInRect(int x0, int x1, int y0, int y1,
+            CellConsumer<? super T> consumer) {
+        int fromX = Math.max(x0, this.minimumX);
+        int toX = Math.min(x1, this.maximumX);
+        int fromY = Math.max(y0, this.minimumY);
+        int toY = Math.min(y1, this.maximumY);
+        if (fromX > toX || fromY > toY || this.size == 0) {
+            return;
+        }
+        long area = ((long) toX - fromX + 1) * ((long) toY - fromY + 1);
+        if (area < this.values.length) {
+            for (long x = fromX; x <= toX; x++) {
+                for (long y = fromY; y <= toY; y++) {
+                    int i = find(pack((int) x, (int) y));
+                    if (i >= 0) {
+                        consumer.accept((int) x, (int) y, (T) this.values[i]);
+                    }
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] == null) {
+                continue;
+            }
+            int x = (int) (this.keys[i] >> 32);
+            int y = (int) this.keys[i];
+            if (x >= fromX && x <= toX && y >= fromY && y <= toY) {
+                consumer.accept(x, y, (T) this.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Changes the size of the grid. Existing elements should remain at the
+     * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     * causes an element to be lost, the grid should remain unmodified and an
+     * IllegalArgumentException thrown
+     *
+     * Elements are stored by coordinate, so this only checks that every
+     * element is inside the new bounds; no cells are copied.
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if an element
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException {
+        if (newMaximumX < newMinimumX || newMaximumY < newMinimumY) {
+            throw new IllegalArgumentException();
+        }
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] == null) {
+                continue;
+            }
+            int x = (int) (this.keys[i] >> 32);
+            int y = (int) this.keys[i];
+            if (x < newMinimumX || x > newMaximumX
+                    || y < newMinimumY || y > newMaximumY) {
+                throw new IllegalArgumentException();
+            }
+        }
+        this.minimumX = newMinimumX;
+        this.maximumX = newMaximumX;
+        this.minimumY = newMinimumY;
+        this.maximumY = newMaximumY;
+    }
+
+    /**
+     * Moves every entry into a new table of the given capacity.
+     *
+     * @param capacity The new capacity, a power of two
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] == null) {
+                continue;
+            }
+            int i = slot(oldKeys[j], mask);
+            while (this.values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = oldKeys[j];
+            this.values[i] = oldValues[j];
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package compa1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A 2D cartesian plane with a spatial index for k-nearest-neighbour and
+ * radius queries. Each (x,y) coordinate can hold a single item of type <T>.
+ *
+ * Elements are stored in a HashCartesianPlane. Next to it a bucket grid
+ * records the coordinates of the elements in each BUCKET_SIZE x BUCKET_SIZE
+ * square; the grid itself is a HashCartesianPlane of buckets, so only
+ * occupied buckets take memory. Queries only visit the buckets near the
+ * query point, so their cost follows the size of the answer rather than the
+ * bounds of the plane.
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public class IndexedCartesianPlane<T> implements CartesianPlane<T> {
+    /** Number of low coordinate bits used to index inside a bucket */
+    static final int BUCKET_SHIFT = 4;
+    /** Width and height of a bucket */
+    static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+
+    /** The elements of the plane */
+    private final HashCartesianPlane<T> elements;
+    /** Occupied buckets, keyed by (x >> BUCKET_SHIFT, y >> BUCKET_SHIFT) */
+    private final HashCartesianPlane<Bucket> buckets;
+
+    /**
+     * The coordinates of the elements inside one bucket, in no particular
+     * order.
+     */
+    static final class Bucket {
+        /** x-coordinates of the elements */
+        int[] xs = new int[4];
+        /** y-coordinates of the elements */
+        int[] ys = new int[4];
+        /** Number of elements in the bucket */
+        int count;
+
+        /**
+         * Records an element at (x, y).
+         */
+        void add(int x, int y) {
+            if (this.count == this.xs.length) {
+                this.xs = Arrays.copyOf(this.xs, this.count << 1);
+                this.ys = Arrays.copyOf(this.ys, this.count << 1);
+            }
+            this.xs[this.count] = x;
+            this.ys[this.count] = y;
+            this.count++;
+        }
+
+        /**
+         * Forgets the element at (x, y) by moving the last entry into its
+         * place.
+         */
+        void remove(int x, int y) {
+            for (int i = 0; i < this.count; i++) {
+                if (this.xs[i] == x && this.ys[i] == y) {
+                    this.count--;
+                    this.xs[i] = this.xs[this.count];
+                    this.ys[i] = this.ys[this.count];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs a new IndexedCartesianPlane object with given minimum and
+     * maximum bounds.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public IndexedCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        this.elements = new HashCartesianPlane<>(minimumX, maximumX, minimumY,
+                maximumY);
+        // One extra bucket column and row keep the bucket bounds non-empty
+        this.buckets = new HashCartesianPlane<>(minimumX >> BUCKET_SHIFT,
+                (maximumX >> BUCKET_SHIFT) + 1, minimumY >> BUCKET_SHIFT,
+                (maximumY >> BUCKET_SHIFT) + 1);
+    }
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, T element) throws IllegalArgumentException {
+        if (element == null) {
+            if (x < getMinimumX() || x > getMaximumX()
+                    || y < getMinimumY() || y > getMaximumY()) {
+                throw new IllegalArgumentException();
+            }
+            remove(x, y);
+            return;
+        }
+        boolean isNew = x >= getMinimumX() && x <= getMaximumX()
+                && y >= getMinimumY() && y <= getMaximumY()
+                && this.elements.get(x, y) == null;
+        this.elements.add(x, y, element);
+        if (isNew) {
+            Bucket bucket = this.buckets.get(x >> BUCKET_SHIFT,
+                    y >> BUCKET_SHIFT);
+            if (bucket == null) {
+                bucket = new Bucket();
+                this.buckets.add(x >> BUCKET_SHIFT, y >> BUCKET_SHIFT, bucket);
+            }
+            bucket.add(x, y);
+        }
+    }
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T get(int x, int y) throws IndexOutOfBoundsException {
+        return this.elements.get(x, y);
+    }
+
+    /**
+     * Removes the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        if (!this.elements.remove(x, y)) {
+            return false;
+        }
+        Bucket bucket = this.buckets.get(x >> BUCKET_SHIFT, y >> BUCKET_SHIFT);
+        bucket.remove(x, y);
+        if (bucket.count == 0) {
+            this.buckets.remove(x >> BUCKET_SHIFT, y >> BUCKET_SHIFT);
+        }
+        return true;
+    }
+
+    /**
+     * Removes all elements stored in the grid.
+     */
+    public void clear() {
+        this.elements.clear();
+        this.buckets.clear();
+    }
+
+    /**
+     * Returns the number of elements stored in the grid.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.elements.size();
+    }
+
+    /**
+     * Returns whether the grid holds no elements.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.elements.isEmpty();
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.elements.getMinimumX();
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.elements.getMaximumX();
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.elements.getMinimumY();
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.elements.getMaximumY();
+    }
+
+    /**
+     * Visits every element whose position lies in the rectangle
+     * [x0, x1] x [y0, y1].
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param consumer The operation to perform on each element
+     */
+    public void forEachInRect(int x0, int x1, int y0, int y1,
+            CellConsumer<? super T> consumer) {
+        this.elements.forEachInRect(x0, x1, y0, y1, consumer);
+    }
+
+    /**
+     * Changes the size of the grid. Existing elements should remain at the
+     * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     * causes an element to be lost, the grid should remain unmodified and an
+     * IllegalArgumentException thrown
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if an element
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException {
+        this.elements.resize(newMinimumX, newMaximumX, newMinimumY,
+                newMaximumY);
+        // Every element fits the new bounds, so every bucket does too
+        this.buckets.resize(newMinimumX >> BUCKET_SHIFT,
+                (newMaximumX >> BUCKET_SHIFT) + 1, newMinimumY >> BUCKET_SHIFT,
+                (newMaximumY >> BUCKET_SHIFT) + 1);
+    }
+
+    /**
+     * Returns the k elements closest to (x, y) by euclidean distance,
+     * nearest first. Ties are broken arbitrarily. The query point may lie
+     * outside the bounds.
+     *
+     * Buckets are visited in square rings around the query point until no
+     * unvisited bucket can hold a closer element.
+     *
+     * @param x The x-coordinate of the query point
+     * @param y The y-coordinate of the query point
+     * @param k The maximum number of elements to return
+     * @return Up to k cells, ordered by increasing distance to (x, y)
+     */
+    public List<Cell<T>> nearest(int x, int y, int k) {
+        NearestSearch search = new NearestSearch(x, y, Math.min(k, size()));
+        if (search.capacity == 0) {
+            return new ArrayList<>();
+        }
+        int bx = x >> BUCKET_SHIFT;
+        int by = y >> BUCKET_SHIFT;
+        int minBX = this.buckets.getMinimumX();
+        int maxBX = this.buckets.getMaximumX();
+        int minBY = this.buckets.getMinimumY();
+        int maxBY = this.buckets.getMaximumY();
+        for (int r = 0; ; r++) {
+            long ringArea = (2L * r + 1) * (2L * r + 1);
+            if (ringArea > 4L * this.buckets.size()) {
+                // Cheaper to look at every remaining occupied bucket at once
+                final int visited = r;
+                this.buckets.forEachInRect(minBX, maxBX, minBY, maxBY,
+                        (i, j, bucket) -> {
+                            if (Math.max(Math.abs((long) i - bx),
+                                    Math.abs((long) j - by)) >= visited) {
+                                search.offer(bucket);
+                            }
+                        });
+                break;
+            }
+            if (r == 0) {
+                this.buckets.forEachInRect(bx, bx, by, by,
+                        (i, j, bucket) -> search.offer(bucket));
+            } else {
+                // Top and bottom rows of the ring, then its sides
+                this.buckets.forEachInRect(bx - r, bx + r, by - r, by - r,
+                        (i, j, bucket) -> search.offer(bucket));
+                this.buckets.forEachInRect(bx - r, bx + r, by + r, by + r,
+                        (i, j, bucket) -> search.offer(bucket));
+                this.buckets.forEachInRect(bx - r, bx - r, by - r + 1,
+                        by + r - 1, (i, j, bucket) -> search.offer(bucket));
+                this.buckets.forEachInRect(bx + r, bx + r, by - r + 1,
+                        by + r - 1, (i, j, bucket) -> search.offer(bucket));
+            }
+            // Elements outside the ring are more than r buckets away
+            long bound = (long) r * BUCKET_SIZE;
+            if (search.count == search.capacity
+                    && search.distances[0] <= bound * bound) {
+                break;
+            }
+            if ((long) bx - r <= minBX && (long) bx + r >= maxBX
+                    && (long) by - r <= minBY && (long) by + r >= maxBY) {
+                break;
+            }
+        }
+        return search.sortedCells();
+    }
+
+    /**
+     * Returns every element within euclidean distance r of (x, y). The query
+     * point may lie outside the bounds.
+     *
+     * @param x The x-coordinate of the query point
+     * @param y The y-coordinate of the query point
+     * @param r The radius of the query circle
+     * @return The cells inside the circle, in no particular order
+     */
+    public List<Cell<T>> withinRadius(int x, int y, int r) {
+        List<Cell<T>> result = new ArrayList<>();
+        if (r < 0) {
+            return result;
+        }
+        long limit = (long) r * r;
+        long minX = Math.max((long) x - r, Integer.MIN_VALUE);
+        long maxX = Math.min((long) x + r, Integer.MAX_VALUE);
+        long minY = Math.max((long) y - r, Integer.MIN_VALUE);
+        long maxY = Math.min((long) y + r, Integer.MAX_VALUE);
+        this.buckets.forEachInRect((int) minX >> BUCKET_SHIFT,
+                (int) maxX >> BUCKET_SHIFT, (int) minY >> BUCKET_SHIFT,
+                (int) maxY >> BUCKET_SHIFT, (i, j, bucket) -> {
+                    for (int n = 0; n < bucket.count; n++) {
+                        long dx = (long) bucket.xs[n] - x;
+                        long dy = (long) bucket.ys[n] - y;
+                        if (dx * dx + dy * dy <= limit) {
+                            result.add(new Cell<>(bucket.xs[n], bucket.ys[n],
+                                    this.elements.get(bucket.xs[n],
+                                            bucket.ys[n])));
+                        }
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * The k best candidates of a nearest() query, kept in a binary max-heap
+     * on squared distance over parallel arrays.
+     */
+    private final class NearestSearch {
+        /** The query point */
+        private final int x, y;
+        /** The number of elements wanted */
+        final int capacity;
+        /** Number of candidates held */
+        int count;
+        /** Squared distances, distances[0] is the worst candidate */
+        final long[] distances;
+        /** Coordinates of the candidates */
+        private final int[] xs, ys;
+
+        NearestSearch(int x, int y, int capacity) {
+            this.x = x;
+            this.y = y;
+            this.capacity = Math.max(capacity, 0);
+            this.distances = new long[this.capacity];
+            this.xs = new int[this.capacity];
+            this.ys = new int[this.capacity];
+        }
+
+        /**
+         * Offers every element of a bucket as a candidate.
+         */
+        void offer(Bucket bucket) {
+            for (int n = 0; n < bucket.count; n++) {
+                long dx = (long) bucket.xs[n] - this.x;
+                long dy = (long) bucket.ys[n] - this.y;
+                long distance = dx * dx + dy * dy;
+                if (this.count < this.capacity) {
+                    siftUp(this.count++, distance, bucket.xs[n], bucket.ys[n]);
+                } else if (distance < this.distances[0]) {
+                    siftDown(0, distance, bucket.xs[n], bucket.ys[n]);
+                }
+            }
+        }
+
+        private void siftUp(int i, long distance, int cx, int cy) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (this.distances[parent] >= distance) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            set(i, distance, cx, cy);
+        }
+
+        private void siftDown(int i, long distance, int cx, int cy) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= this.count) {
+                    break;
+                }
+                if (child + 1 < this.count
+                        && this.distances[child + 1] > this.distances[child]) {
+                    child++;
+                }
+                if (this.distances[child] <= distance) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            set(i, distance, cx, cy);
+        }
+
+        private void move(int from, int to) {
+            set(to, this.distances[from], this.xs[from], this.ys[from]);
+        }
+
+        private void set(int i, long distance, int cx, int cy) {
+            this.distances[i] = distance;
+            this.xs[i] = cx;
+            this.ys[i] = cy;
+        }
+
+        /**
+         * Empties the heap into a list ordered by increasing distance.
+         */
+        List<Cell<T>> sortedCells() {
+            Cell<T>[] sorted = (Cell<T>[]) new Cell[this.count];
+            while (this.count > 0) {
+                int cx = this.xs[0];
+                int cy = this.ys[0];
+                sorted[--this.count] = new Cell<>(cx, cy,
+                        IndexedCartesianPlane.this.elements.get(cx, cy));
+                siftDown(0, this.distances[this.count], this.xs[this.count],
+                        this.ys[this.count]);
+            }
+            return new ArrayList<>(Arrays.asList(sorted));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package compa1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A 2D cartesian plane of long values, stored without boxing in a single
+ * long[]. Each (x,y) coordinate can hold a single long.
+ *
+ * Mirrors the CartesianPlane contract. Cells without a value read as the
+ * plane's empty value (0 unless given to the constructor); use contains() to
+ * tell an empty cell from a stored value equal to the empty value.
+ */
+public class LongCartesianPlane extends PrimitiveCartesianPlane {
+    /** Value read from cells that hold no value */
+    private final long emptyValue;
+    /** The cells of the plane */
+    long[] values;
+
+    /**
+     * Constructs a new LongCartesianPlane object with given minimum and
+     * maximum bounds, whose empty cells read as 0.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public LongCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        this(minimumX, maximumX, minimumY, maximumY, 0);
+    }
+
+    /**
+     * Constructs a new LongCartesianPlane object with given minimum and
+     * maximum bounds and empty value.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @param emptyValue The value read from cells that hold no value
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public LongCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY, long emptyValue) throws IllegalArgumentException {
+        super(minimumX, maximumX, minimumY, maximumY);
+        this.emptyValue = emptyValue;
+        allocate(cellCount(minimumX, maximumX, minimumY, maximumY));
+    }
+
+    /**
+     * Returns the value read from cells that hold no value.
+     *
+     * @return the empty value
+     */
+    public long getEmptyValue() {
+        return this.emptyValue;
+    }
+
+    /**
+     * Add a value at a fixed position, overriding any existing value there.
+     *
+     * @param x The x-coordinate of the value's position
+     * @param y The y-coordinate of the value's position
+     * @param value The value to be added at the indicated position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, long value) throws IllegalArgumentException {
+        if (!inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        int i = index(x, y);
+        this.values[i] = value;
+        occupy(i);
+    }
+
+    /**
+     * Returns the value at the indicated position.
+     *
+     * @param x The x-coordinate of the value to retrieve
+     * @param y The y-coordinate of the value to retrieve
+     * @return The value at this position, or the empty value if no value
+     *         exists
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public long get(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return this.values[index(x, y)];
+    }
+
+    /**
+     * Reads a plane written by writeTo() from a channel, starting at its
+     * position.
+     *
+     * @param channel The channel to read from
+     * @return A new plane with the bounds, empty value and values written
+     * @throws IOException If reading fails or the channel does not hold a
+     *         LongCartesianPlane
+     */
+    public static LongCartesianPlane readFrom(FileChannel channel)
+            throws IOException {
+        ByteBuffer header = PlaneFormat.readHeader(channel,
+                PlaneFormat.TYPE_LONG);
+        int minX = header.getInt();
+        int maxX = header.getInt();
+        int minY = header.getInt();
+        int maxY = header.getInt();
+        int size = header.getInt();
+        LongCartesianPlane plane;
+        try {
+            plane = new LongCartesianPlane(minX, maxX, minY, maxY,
+                    header.getLong());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid bounds", e);
+        }
+        PlaneFormat.readPrimitive(plane, channel, size);
+        return plane;
+    }
+
+    @Override
+    Object storage() {
+        return this.values;
+    }
+
+    @Override
+    Object allocate(int cells) {
+        this.values = new long[cells];
+        if (this.emptyValue != 0) {
+            Arrays.fill(this.values, this.emptyValue);
+        }
+        return this.values;
+    }
+
+    @Override
+    void clearCell(int i) {
+        this.values[i] = this.emptyValue;
+    }
+
+    @Override
+    int valueBytes() {
+        return 8;
+    }
+
+    @Override
+    int typeCode() {
+        return PlaneFormat.TYPE_LONG;
+    }
+
+    @Override
+    long emptyBits() {
+        return this.emptyValue;
+    }
+
+    @Override
+    void putValues(ByteBuffer buffer, int at, int from, int len) {
+        slice(buffer, at).asLongBuffer().put(this.values, from, len);
+    }
+
+    @Override
+    void getValues(ByteBuffer buffer, int at, int from, int len) {
+        slice(buffer, at).asLongBuffer().get(this.values, from, len);
+    }
+}
@@ -0,0 +1,493 @@
+package compa1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A 2D cartesian plane of int values stored in a memory-mapped file, so the
+ * plane survives restarts and reopening it costs no parsing or copying.
+ * Each (x,y) coordinate can hold a single int.
+ *
+ * The file holds a small header, an occupancy bitmap and the cells, laid out
+ * like IntCartesianPlane (x-major, one bit and one int per cell). Values are
+ * little-endian. Files larger than 2GB are mapped as several 1GB segments.
+ * Changes are written to the mapping directly; flush() forces them to disk.
+ */
+public class MappedIntCartesianPlane implements Closeable {
+    /** "CPLI" */
+    private static final int MAGIC = 0x43504C49;
+    /** Version of the file layout */
+    private static final int VERSION = 1;
+    /** Size of the header in bytes */
+    static final int HEADER_BYTES = 64;
+    /** Offsets of the header fields */
+    private static final int MAGIC_AT = 0, VERSION_AT = 4, MIN_X_AT = 8,
+            MAX_X_AT = 12, MIN_Y_AT = 16, MAX_Y_AT = 20, EMPTY_AT = 24,
+            SIZE_AT = 28;
+    /** log2 of the size of a mapped segment */
+    private static final int SEGMENT_SHIFT = 30;
+    /** Mask selecting the offset inside a segment */
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /** The file backing the plane */
+    private final Path file;
+    /** The open channel of the file */
+    private FileChannel channel;
+    /** The mapped segments of the file */
+    private MappedByteBuffer[] segments;
+    /** The minimum bound for the x values of elements */
+    private int minimumX;
+    /** The maximum bound for the x values of elements */
+    private int maximumX;
+    /** The minimum bound for the y values of elements */
+    private int minimumY;
+    /** The maximum bound for the y values of elements */
+    private int maximumY;
+    /** Number of y values per x */
+    private long height;
+    /** Value read from cells that hold no value */
+    private int emptyValue;
+    /** Total number of stored values, mirrored in the header */
+    private int size;
+    /** File offset of the first int cell */
+    private long valuesAt;
+
+    /**
+     * Opens an existing plane file and maps it in place.
+     *
+     * @param file The file written by an earlier MappedIntCartesianPlane
+     * @throws IOException If the file cannot be read or is not a plane file
+     */
+    public MappedIntCartesianPlane(Path file) throws IOException {
+        this.file = file;
+        map();
+        if (getInt(MAGIC_AT) != MAGIC || getInt(VERSION_AT) != VERSION) {
+            close();
+            throw new IOException("Not a plane file: " + file);
+        }
+        readHeader();
+    }
+
+    /**
+     * Creates a new plane file with given minimum and maximum bounds,
+     * replacing any existing file.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param file The file to create
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @param emptyValue The value read from cells that hold no value
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     * @throws IOException If the file cannot be created
+     */
+    public MappedIntCartesianPlane(Path file, int minimumX, int maximumX,
+            int minimumY, int maximumY, int emptyValue)
+            throws IllegalArgumentException, IOException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+        this.file = file;
+        create(file, minimumX, maximumX, minimumY, maximumY, emptyValue);
+        map();
+        readHeader();
+    }
+
+    /**
+     * Writes an empty plane file with the given bounds.
+     */
+    private static void create(Path target, int minX, int maxX, int minY,
+            int maxY, int emptyValue) throws IOException {
+        long cells = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+        long length = valuesOffset(cells) + 4 * cells;
+        try (FileChannel out = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedIntCartesianPlane plane = new MappedIntCartesianPlane(target,
+                    out, length);
+            plane.putInt(MAGIC_AT, MAGIC);
+            plane.putInt(VERSION_AT, VERSION);
+            plane.putInt(MIN_X_AT, minX);
+            plane.putInt(MAX_X_AT, maxX);
+            plane.putInt(MIN_Y_AT, minY);
+            plane.putInt(MAX_Y_AT, maxY);
+            plane.putInt(EMPTY_AT, emptyValue);
+            plane.putInt(SIZE_AT, 0);
+            if (emptyValue != 0) {
+                long at = valuesOffset(cells);
+                for (long i = 0; i < cells; i++) {
+                    plane.putInt(at + 4 * i, emptyValue);
+                }
+            }
+            for (MappedByteBuffer segment : plane.segments) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Maps a freshly created file of the given length, used while writing
+     * its initial contents.
+     */
+    private MappedIntCartesianPlane(Path file, FileChannel channel,
+            long length) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        channel.truncate(length);
+        if (channel.size() < length) {
+            // Extend the file by writing its last byte
+            channel.write(ByteBuffer.allocate(1), length - 1);
+        }
+        mapSegments(length);
+    }
+
+    /**
+     * Returns the file offset of the first int cell of a plane with the
+     * given number of cells.
+     */
+    private static long valuesOffset(long cells) {
+        return HEADER_BYTES + 8 * ((cells + 63) >>> 6);
+    }
+
+    /**
+     * Opens and maps this plane's file.
+     */
+    private void map() throws IOException {
+        this.channel = FileChannel.open(this.file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (this.channel.size() < HEADER_BYTES) {
+            this.channel.close();
+            throw new IOException("Not a plane file: " + this.file);
+        }
+        mapSegments(this.channel.size());
+    }
+
+    /**
+     * Maps the first length bytes of the channel in 1GB segments.
+     */
+    private void mapSegments(long length) throws IOException {
+        int count = (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        this.segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << SEGMENT_SHIFT;
+            this.segments[i] = this.channel.map(FileChannel.MapMode.READ_WRITE,
+                    start, Math.min(1L << SEGMENT_SHIFT, length - start));
+            this.segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Loads the bounds and counters from the mapped header.
+     */
+    private void readHeader() {
+        this.minimumX = getInt(MIN_X_AT);
+        this.maximumX = getInt(MAX_X_AT);
+        this.minimumY = getInt(MIN_Y_AT);
+        this.maximumY = getInt(MAX_Y_AT);
+        this.emptyValue = getInt(EMPTY_AT);
+        this.size = getInt(SIZE_AT);
+        this.height = (long) this.maximumY - this.minimumY + 1;
+        this.valuesAt = valuesOffset(
+                ((long) this.maximumX - this.minimumX + 1) * this.height);
+    }
+
+    private int getInt(long offset) {
+        return this.segments[(int) (offset >>> SEGMENT_SHIFT)]
+                .getInt((int) (offset & SEGMENT_MASK));
+    }
+
+    private void putInt(long offset, int value) {
+        this.segments[(int) (offset >>> SEGMENT_SHIFT)]
+                .putInt((int) (offset & SEGMENT_MASK), value);
+    }
+
+    private long getLong(long offset) {
+        return this.segments[(int) (offset >>> SEGMENT_SHIFT)]
+                .getLong((int) (offset & SEGMENT_MASK));
+    }
+
+    private void putLong(long offset, long value) {
+        this.segments[(int) (offset >>> SEGMENT_SHIFT)]
+                .putLong((int) (offset & SEGMENT_MASK), value);
+    }
+
+    /**
+     * Returns the index of cell (x, y).
+     */
+    private long index(int x, int y) {
+        return ((long) x - this.minimumX) * this.height + (y - this.minimumY);
+    }
+
+    /**
+     * Returns whether (x, y) lies inside the bounds of the grid.
+     */
+    private boolean inBounds(int x, int y) {
+        return x >= this.minimumX && x <= this.maximumX
+                && y >= this.minimumY && y <= this.maximumY;
+    }
+
+    /**
+     * Add a value at a fixed position, overriding any existing value there.
+     *
+     * @param x The x-coordinate of the value's position
+     * @param y The y-coordinate of the value's position
+     * @param value The value to be added at the indicated position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, int value) throws IllegalArgumentException {
+        if (!inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        long i = index(x, y);
+        putInt(this.valuesAt + 4 * i, value);
+        long wordAt = HEADER_BYTES + 8 * (i >>> 6);
+        long word = getLong(wordAt);
+        if ((word & (1L << i)) == 0) {
+            putLong(wordAt, word | (1L << i));
+            putInt(SIZE_AT, ++this.size);
+        }
+    }
+
+    /**
+     * Returns the value at the indicated position.
+     *
+     * @param x The x-coordinate of the value to retrieve
+     * @param y The y-coordinate of the value to retrieve
+     * @return The value at this position, or the empty value if no value
+     *         exists
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public int get(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return getInt(this.valuesAt + 4 * index(x, y));
+    }
+
+    /**
+     * Returns whether a value is stored at the indicated position.
+     *
+     * @param x The x-coordinate of the position
+     * @param y The y-coordinate of the position
+     * @return true if a value is stored at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean contains(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        long i = index(x, y);
+        return (getLong(HEADER_BYTES + 8 * (i >>> 6)) & (1L << i)) != 0;
+    }
+
+    /**
+     * Removes the value at the indicated position.
+     *
+     * @param x The x-coordinate of the value to remove
+     * @param y The y-coordinate of the value to remove
+     * @return true if a value was successfully removed, false if no value
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        long i = index(x, y);
+        long wordAt = HEADER_BYTES + 8 * (i >>> 6);
+        long word = getLong(wordAt);
+        if ((word & (1L << i)) == 0) {
+            return false;
+        }
+        putLong(wordAt, word & ~(1L << i));
+        putInt(this.valuesAt + 4 * i, this.emptyValue);
+        putInt(SIZE_AT, --this.size);
+        return true;
+    }
+
+    /**
+     * Removes all values stored in the grid. Only occupied cells are
+     * visited.
+     */
+    public void clear() {
+        for (long wordAt = HEADER_BYTES; wordAt < this.valuesAt
+                && this.size > 0; wordAt += 8) {
+            long word = getLong(wordAt);
+            if (word == 0) {
+                continue;
+            }
+            long first = (wordAt - HEADER_BYTES) << 3;
+            while (word != 0) {
+                putInt(this.valuesAt + 4 * (first
+                        + Long.numberOfTrailingZeros(word)), this.emptyValue);
+                word &= word - 1;
+                this.size--;
+            }
+            putLong(wordAt, 0);
+        }
+        putInt(SIZE_AT, this.size);
+    }
+
+    /**
+     * Returns the number of values stored in the grid.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the grid holds no values.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return The value read from cells that hold no value
+     */
+    public int getEmptyValue() {
+        return this.emptyValue;
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.minimumX;
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.maximumX;
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.minimumY;
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.maximumY;
+    }
+
+    /**
+     * Changes the size of the grid. Existing values should remain at the
+     * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     * causes a value to be lost, the grid should remain unmodified and an
+     * IllegalArgumentException thrown
+     *
+     * The stored values are written to a new file next to the current one,
+     * which then replaces it and is mapped in its place.
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if a value
+     *         would be lost after this resizing operation
+     * @throws IOException If the new file cannot be written
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException, IOException {
+        if (newMaximumX < newMinimumX || newMaximumY < newMinimumY) {
+            throw new IllegalArgumentException();
+        }
+        for (long wordAt = HEADER_BYTES; wordAt < this.valuesAt; wordAt += 8) {
+            long word = getLong(wordAt);
+            while (word != 0) {
+                long i = ((wordAt - HEADER_BYTES) << 3)
+                        + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                long x = this.minimumX + i / this.height;
+                long y = this.minimumY + i % this.height;
+                if (x < newMinimumX || x > newMaximumX
+                        || y < newMinimumY || y > newMaximumY) {
+                    throw new IllegalArgumentException();
+                }
+            }
+        }
+
+        Path resized = this.file.resolveSibling(this.file.getFileName()
+                + ".resize");
+        create(resized, newMinimumX, newMaximumX, newMinimumY, newMaximumY,
+                this.emptyValue);
+        try (MappedIntCartesianPlane target =
+                new MappedIntCartesianPlane(resized)) {
+            for (long wordAt = HEADER_BYTES; wordAt < this.valuesAt;
+                    wordAt += 8) {
+                long word = getLong(wordAt);
+                while (word != 0) {
+                    long i = ((wordAt - HEADER_BYTES) << 3)
+                            + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    target.add((int) (this.minimumX + i / this.height),
+                            (int) (this.minimumY + i % this.height),
+                            getInt(this.valuesAt + 4 * i));
+                }
+            }
+            target.flush();
+        }
+        close();
+        Files.move(resized, this.file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        map();
+        readHeader();
+    }
+
+    /**
+     * Forces all changes to the storage device.
+     */
+    public void flush() {
+        for (MappedByteBuffer segment : this.segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flushes the plane and closes its file. The mappings stay valid until
+     * they are garbage collected, but the plane must not be used afterwards.
+     *
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        this.channel.close();
+    }
+}
@@ -0,0 +1,23 @@
+package compa1;
+
+/**
+ * Creates an empty CartesianPlane with given bounds, e.g.
+ * ArrayCartesianPlane::new.
+ *
+ * @param <T> The type of element held in the plane
+ */
+@FunctionalInterface
+public interface PlaneFactory<T> {
+
+    /**
+     * Creates an empty plane.
+     *
+     * @param minimumX The minimum bound for the x values of elements
+     * @param maximumX The maximum bound for the x values of elements
+     * @param minimumY The minimum bound for the y values of elements
+     * @param maximumY The maximum bound for the y values of elements
+     * @return a new, empty plane
+     */
+    CartesianPlane<T> create(int minimumX, int maximumX, int minimumY,
+            int maximumY);
+}
@@ -0,0 +1,466 @@
+package compa1;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * The binary checkpoint format shared by PrimitiveCartesianPlane.writeTo()
+ * and CartesianPlane.writeTo(), and the readers of both.
+ *
+ * A file starts with a header (magic, version, element type, bounds, number
+ * of elements and the raw bits of the empty value). The plane is cut into
+ * TILE_SIZE x TILE_SIZE tiles, aligned to the minimum bounds, and only tiles
+ * holding at least one element are stored. Each stored tile records its
+ * position and one occupancy word per column.
+ *
+ * Primitive planes store whole tiles of values, grouped in batches of
+ * BATCH_TILES: a count, then all tile records of the batch, then all their
+ * values, moved with one gather write or scatter read per batch through
+ * direct buffers. A count of 0 ends the file. Reference planes store one
+ * record per tile followed by its encoded elements, ended by a tile x index
+ * of -1. All numbers are little-endian.
+ */
+final class PlaneFormat {
+    /** "CPLT" */
+    static final int MAGIC = 0x43504C54;
+    /** Version of the format */
+    static final int VERSION = 1;
+    /** Element type codes */
+    static final int TYPE_INT = 1, TYPE_LONG = 2, TYPE_DOUBLE = 3,
+            TYPE_REFERENCE = 4;
+    /** Size of the file header in bytes */
+    static final int HEADER_BYTES = 40;
+    /** log2 of the width and height of a tile */
+    static final int TILE_SHIFT = 6;
+    /** Width and height of a tile */
+    static final int TILE_SIZE = 1 << TILE_SHIFT;
+    /** Mask selecting the in-tile part of a coordinate */
+    static final int TILE_MASK = TILE_SIZE - 1;
+    /** Size of a tile record: its position and one occupancy word per column */
+    static final int TILE_RECORD_BYTES = 8 + 8 * TILE_SIZE;
+    /** Number of primitive tiles moved per gather write or scatter read */
+    static final int BATCH_TILES = 64;
+    /** Buffered reference records are written once they exceed this size */
+    static final int FLUSH_BYTES = 1 << 20;
+
+    private PlaneFormat() {
+    }
+
+    /**
+     * Allocates a little-endian direct buffer.
+     */
+    static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity)
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes the remaining bytes of all buffers with gather writes.
+     */
+    static void writeFully(FileChannel channel, ByteBuffer... buffers)
+            throws IOException {
+        ByteBuffer last = buffers[buffers.length - 1];
+        do {
+            channel.write(buffers);
+        } while (last.hasRemaining());
+    }
+
+    /**
+     * Fills the remaining space of all buffers with scatter reads.
+     *
+     * @throws EOFException If the channel ends first
+     */
+    static void readFully(FileChannel channel, ByteBuffer... buffers)
+            throws IOException {
+        ByteBuffer last = buffers[buffers.length - 1];
+        while (last.hasRemaining()) {
+            if (channel.read(buffers) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Writes the file header.
+     */
+    static void writeHeader(FileChannel channel, int type, int minX, int maxX,
+            int minY, int maxY, int size, long emptyBits) throws IOException {
+        ByteBuffer header = allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(minX)
+                .putInt(maxX).putInt(minY).putInt(maxY).putInt(size)
+                .putLong(emptyBits).flip();
+        writeFully(channel, header);
+    }
+
+    /**
+     * Reads and checks the file header.
+     *
+     * @param type The expected element type
+     * @return The header, positioned at the minimum x bound
+     * @throws IOException If the header is not a valid header of that type
+     */
+    static ByteBuffer readHeader(FileChannel channel, int type)
+            throws IOException {
+        ByteBuffer header = allocate(HEADER_BYTES);
+        readFully(channel, header);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION
+                || header.getInt() != type) {
+            throw new IOException("Not a plane of the expected type");
+        }
+        return header;
+    }
+
+    /**
+     * Returns the len bits of a bitmap starting at bit from, in the low bits
+     * of a long.
+     */
+    static long window(long[] bits, int from, int len) {
+        int w = from >>> 6;
+        int shift = from & 63;
+        long value = bits[w] >>> shift;
+        if (shift != 0 && w + 1 < bits.length) {
+            value |= bits[w + 1] << (64 - shift);
+        }
+        return len == 64 ? value : value & ((1L << len) - 1);
+    }
+
+    /**
+     * Sets the bits of a bitmap from bit from on to the bits of value.
+     */
+    static void setWindow(long[] bits, int from, long value) {
+        int w = from >>> 6;
+        int shift = from & 63;
+        bits[w] |= value << shift;
+        if (shift != 0 && w + 1 < bits.length) {
+            bits[w + 1] |= value >>> (64 - shift);
+        }
+    }
+
+    /**
+     * Writes a primitive plane.
+     */
+    static void writePrimitive(PrimitiveCartesianPlane plane,
+            FileChannel channel) throws IOException {
+        writeHeader(channel, plane.typeCode(), plane.minimumX, plane.maximumX,
+                plane.minimumY, plane.maximumY, plane.size,
+                plane.emptyBits());
+        int width = plane.maximumX - plane.minimumX + 1;
+        int height = plane.height;
+        int tileBytes = TILE_SIZE * TILE_SIZE * plane.valueBytes();
+        int columnBytes = TILE_SIZE * plane.valueBytes();
+        ByteBuffer count = allocate(4);
+        ByteBuffer records = allocate(BATCH_TILES * TILE_RECORD_BYTES);
+        ByteBuffer data = allocate(BATCH_TILES * tileBytes);
+        int n = 0;
+        for (int i0 = 0; i0 < width && plane.size > 0; i0 += TILE_SIZE) {
+            int columns = Math.min(TILE_SIZE, width - i0);
+            for (int j0 = 0; j0 < height; j0 += TILE_SIZE) {
+                int rows = Math.min(TILE_SIZE, height - j0);
+                int record = n * TILE_RECORD_BYTES;
+                long any = 0;
+                for (int c = 0; c < TILE_SIZE; c++) {
+                    long bits = c < columns ? window(plane.occupied,
+                            (i0 + c) * height + j0, rows) : 0;
+                    records.putLong(record + 8 + 8 * c, bits);
+                    any |= bits;
+                }
+                if (any == 0) {
+                    continue;
+                }
+                records.putInt(record, i0 >>> TILE_SHIFT);
+                records.putInt(record + 4, j0 >>> TILE_SHIFT);
+                int at = n * tileBytes;
+                for (int c = 0; c < TILE_SIZE; c++) {
+                    if (c < columns) {
+                        plane.putValues(data, at + c * columnBytes,
+                                (i0 + c) * height + j0, rows);
+                    }
+                    // Zero the padding outside the bounds so files are
+                    // deterministic
+                    int from = at + c * columnBytes
+                            + (c < columns ? rows * plane.valueBytes() : 0);
+                    for (int b = from; b < at + (c + 1) * columnBytes; b++) {
+                        data.put(b, (byte) 0);
+                    }
+                }
+                if (++n == BATCH_TILES) {
+                    flushBatch(channel, count, records, data, n, tileBytes);
+                    n = 0;
+                }
+            }
+        }
+        if (n > 0) {
+            flushBatch(channel, count, records, data, n, tileBytes);
+        }
+        count.clear();
+        count.putInt(0, 0);
+        writeFully(channel, count);
+    }
+
+    /**
+     * Writes a batch of n tiles with one gather write.
+     */
+    private static void flushBatch(FileChannel channel, ByteBuffer count,
+            ByteBuffer records, ByteBuffer data, int n, int tileBytes)
+            throws IOException {
+        count.clear();
+        count.putInt(0, n);
+        records.clear().limit(n * TILE_RECORD_BYTES);
+        data.clear().limit(n * tileBytes);
+        writeFully(channel, count, records, data);
+    }
+
+    /**
+     * Reads the tiles of a primitive plane into plane, which must be empty
+     * and have the bounds and empty value of the header.
+     *
+     * @param expectedSize The number of elements given by the header
+     * @throws IOException If the tiles are invalid or the channel ends early
+     */
+    static void readPrimitive(PrimitiveCartesianPlane plane,
+            FileChannel channel, int expectedSize) throws IOException {
+        int width = plane.maximumX - plane.minimumX + 1;
+        int height = plane.height;
+        int tileBytes = TILE_SIZE * TILE_SIZE * plane.valueBytes();
+        int columnBytes = TILE_SIZE * plane.valueBytes();
+        ByteBuffer count = allocate(4);
+        ByteBuffer records = allocate(BATCH_TILES * TILE_RECORD_BYTES);
+        ByteBuffer data = allocate(BATCH_TILES * tileBytes);
+        while (true) {
+            count.clear();
+            readFully(channel, count);
+            int n = count.getInt(0);
+            if (n == 0) {
+                break;
+            }
+            if (n < 0 || n > BATCH_TILES) {
+                throw new IOException("Invalid tile batch");
+            }
+            records.clear().limit(n * TILE_RECORD_BYTES);
+            data.clear().limit(n * tileBytes);
+            readFully(channel, records, data);
+            for (int t = 0; t < n; t++) {
+                int record = t * TILE_RECORD_BYTES;
+                int i0 = records.getInt(record) << TILE_SHIFT;
+                int j0 = records.getInt(record + 4) << TILE_SHIFT;
+                if (i0 < 0 || i0 >= width || j0 < 0 || j0 >= height) {
+                    throw new IOException("Tile outside the bounds");
+                }
+                int columns = Math.min(TILE_SIZE, width - i0);
+                int rows = Math.min(TILE_SIZE, height - j0);
+                for (int c = 0; c < TILE_SIZE; c++) {
+                    long bits = records.getLong(record + 8 + 8 * c);
+                    if (bits == 0) {
+                        continue;
+                    }
+                    if (c >= columns || (rows < 64 && bits >>> rows != 0)) {
+                        throw new IOException("Cell outside the bounds");
+                    }
+                    int cell = (i0 + c) * height + j0;
+                    plane.getValues(data, t * tileBytes + c * columnBytes,
+                            cell, rows);
+                    setWindow(plane.occupied, cell, bits);
+                }
+            }
+        }
+        int size = 0;
+        for (long word : plane.occupied) {
+            size += Long.bitCount(word);
+        }
+        if (size != expectedSize) {
+            throw new IOException("Element count does not match the header");
+        }
+        plane.size = size;
+    }
+
+    /**
+     * Writes a reference plane, encoding its elements with codec.
+     */
+    static <T> void writeReference(CartesianPlane<T> plane,
+            FileChannel channel, ElementCodec<? super T> codec)
+            throws IOException {
+        int minX = plane.getMinimumX();
+        int minY = plane.getMinimumY();
+        writeHeader(channel, TYPE_REFERENCE, minX, plane.getMaximumX(), minY,
+                plane.getMaximumY(), plane.size(), 0L);
+        long width = (long) plane.getMaximumX() - minX + 1;
+        long height = (long) plane.getMaximumY() - minY + 1;
+        Object[] cells = new Object[TILE_SIZE * TILE_SIZE];
+        ByteBuffer buffer = allocate(2 * FLUSH_BYTES);
+        long[] occupancy = new long[1];
+        for (long i0 = 0; i0 < width && !plane.isEmpty(); i0 += TILE_SIZE) {
+            for (long j0 = 0; j0 < height; j0 += TILE_SIZE) {
+                occupancy[0] = 0;
+                int tileX = (int) (minX + i0);
+                int tileY = (int) (minY + j0);
+                plane.forEachInRect(tileX, (int) Math.min(minX + i0
+                        + TILE_MASK, plane.getMaximumX()), tileY,
+                        (int) Math.min(minY + j0 + TILE_MASK,
+                                plane.getMaximumY()), (x, y, element) -> {
+                            cells[((x - tileX) << TILE_SHIFT) | (y - tileY)] =
+                                    element;
+                            occupancy[0]++;
+                        });
+                if (occupancy[0] == 0) {
+                    continue;
+                }
+                while (true) {
+                    int start = buffer.position();
+                    try {
+                        putTile(buffer, cells, codec, (int) (i0 >>> TILE_SHIFT),
+                                (int) (j0 >>> TILE_SHIFT));
+                        break;
+                    } catch (BufferOverflowException e) {
+                        buffer.position(start);
+                        if (start > 0) {
+                            buffer.flip();
+                            writeFully(channel, buffer);
+                            buffer.clear();
+                        } else {
+                            buffer = allocate(buffer.capacity() * 2);
+                        }
+                    }
+                }
+                Arrays.fill(cells, null);
+                if (buffer.position() >= FLUSH_BYTES) {
+                    buffer.flip();
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        if (buffer.remaining() < 4) {
+            buffer.flip();
+            writeFully(channel, buffer);
+            buffer.clear();
+        }
+        buffer.putInt(-1).flip();
+        writeFully(channel, buffer);
+    }
+
+    /**
+     * Appends the record and encoded elements of one tile to the buffer.
+     */
+    private static <T> void putTile(ByteBuffer buffer, Object[] cells,
+            ElementCodec<? super T> codec, int tileI, int tileJ) {
+        buffer.putInt(tileI).putInt(tileJ);
+        for (int c = 0; c < TILE_SIZE; c++) {
+            long bits = 0;
+            for (int j = 0; j < TILE_SIZE; j++) {
+                if (cells[(c << TILE_SHIFT) | j] != null) {
+                    bits |= 1L << j;
+                }
+            }
+            buffer.putLong(bits);
+        }
+        int lengthAt = buffer.position();
+        buffer.putInt(0);
+        for (Object cell : cells) {
+            if (cell != null) {
+                codec.encode((T) cell, buffer);
+            }
+        }
+        buffer.putInt(lengthAt, buffer.position() - lengthAt - 4);
+    }
+
+    /**
+     * Reads a reference plane written by writeReference().
+     *
+     * @throws IOException If the file is invalid or ends early
+     */
+    static <T> CartesianPlane<T> readReference(FileChannel channel,
+            ElementCodec<? extends T> codec, PlaneFactory<T> factory)
+            throws IOException {
+        ByteBuffer header = readHeader(channel, TYPE_REFERENCE);
+        int minX = header.getInt();
+        int maxX = header.getInt();
+        int minY = header.getInt();
+        int maxY = header.getInt();
+        int expectedSize = header.getInt();
+        CartesianPlane<T> plane = factory.create(minX, maxX, minY, maxY);
+        long width = (long) maxX - minX + 1;
+        long height = (long) maxY - minY + 1;
+        ByteBuffer buffer = allocate(2 * FLUSH_BYTES);
+        buffer.flip();
+        while (true) {
+            buffer = fill(channel, buffer, 4);
+            int tileI = buffer.getInt();
+            if (tileI == -1) {
+                break;
+            }
+            buffer = fill(channel, buffer, TILE_RECORD_BYTES);
+            int tileJ = buffer.getInt();
+            long i0 = (long) tileI << TILE_SHIFT;
+            long j0 = (long) tileJ << TILE_SHIFT;
+            if (tileI < 0 || tileJ < 0 || i0 >= width || j0 >= height) {
+                throw new IOException("Tile outside the bounds");
+            }
+            long[] bits = new long[TILE_SIZE];
+            for (int c = 0; c < TILE_SIZE; c++) {
+                bits[c] = buffer.getLong();
+            }
+            int length = buffer.getInt();
+            if (length < 0) {
+                throw new IOException("Invalid tile length");
+            }
+            buffer = fill(channel, buffer, length);
+            int end = buffer.position() + length;
+            for (int c = 0; c < TILE_SIZE; c++) {
+                long word = bits[c];
+                while (word != 0) {
+                    int j = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (i0 + c >= width || j0 + j >= height) {
+                        throw new IOException("Cell outside the bounds");
+                    }
+                    plane.add((int) (minX + i0 + c), (int) (minY + j0 + j),
+                            codec.decode(buffer));
+                }
+            }
+            if (buffer.position() != end) {
+                throw new IOException("Tile length does not match");
+            }
+        }
+        // Leave the channel just after the plane, not after the read-ahead
+        channel.position(channel.position() - buffer.remaining());
+        if (plane.size() != expectedSize) {
+            throw new IOException("Element count does not match the header");
+        }
+        return plane;
+    }
+
+    /**
+     * Makes at least needed bytes available in a buffer in read mode,
+     * compacting, growing and refilling it from the channel as required.
+     *
+     * @return The buffer, which may be a new, larger one
+     * @throws EOFException If the channel ends first
+     */
+    private static ByteBuffer fill(FileChannel channel, ByteBuffer buffer,
+            int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        if (buffer.capacity() < needed) {
+            ByteBuffer larger = allocate(Math.max(needed,
+                    buffer.capacity() * 2));
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,162 @@
+package compa1;
+
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator over the occupied cells of a rectangle of a CartesianPlane.
+ *
+ * The rectangle is split in half along its longer side, so a parallel
+ * stream works on bands of x values first and on tiles once the bands are
+ * narrow. Both bulk traversal and tryAdvance() go through
+ * CartesianPlane.forEachInRect(), which lets each implementation skip its
+ * empty regions; tryAdvance() reads a band of columns at a time into a small
+ * buffer, so short-circuiting streams do not visit every cell.
+ *
+ * @param <T> The type of element held in the plane
+ */
+class PlaneSpliterator<T> implements Spliterator<Cell<T>> {
+    /** Rectangles with fewer cells than this are not split further */
+    static final long MIN_SPLIT_AREA = 1L << 12;
+    /** Number of elements tryAdvance() aims to buffer per band */
+    static final int BATCH_SIZE = 1024;
+
+    /** The plane being traversed */
+    private final CartesianPlane<T> plane;
+    /**
+     * The first x-coordinate not yet traversed, maxX + 1 once the rectangle
+     * is exhausted. A long so that it cannot wrap past Integer.MAX_VALUE.
+     */
+    private long minX;
+    /** The last x-coordinate of the rectangle */
+    private final int maxX;
+    /** The first y-coordinate of the rectangle */
+    private int minY;
+    /** The last y-coordinate of the rectangle */
+    private final int maxY;
+    /** Elements of the last band read by tryAdvance() */
+    private final ArrayList<Cell<T>> buffer = new ArrayList<>();
+    /** Index of the next element of buffer to hand out */
+    private int next;
+    /** Number of columns tryAdvance() reads as its next band */
+    private int bandWidth = 1;
+
+    /**
+     * Constructs a spliterator over the rectangle [minX, maxX] x [minY, maxY].
+     *
+     * @param plane The plane to traverse
+     * @param minX The minimum x-coordinate of the rectangle
+     * @param maxX The maximum x-coordinate of the rectangle
+     * @param minY The minimum y-coordinate of the rectangle
+     * @param maxY The maximum y-coordinate of the rectangle
+     */
+    PlaneSpliterator(CartesianPlane<T> plane, int minX, int maxX, int minY,
+            int maxY) {
+        this.plane = plane;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Reads bands of columns through forEachInRect() until one of them holds
+     * an element or the rectangle is exhausted. The band doubles after a
+     * band with few elements and halves after one with many, so empty
+     * regions are crossed in a few calls while the buffer stays near
+     * BATCH_SIZE elements.
+     *
+     * @return false if the rectangle holds no more elements
+     */
+    private boolean fill() {
+        this.buffer.clear();
+        this.next = 0;
+        while (this.buffer.isEmpty() && this.minX <= this.maxX) {
+            long toX = Math.min(this.maxX, this.minX + this.bandWidth - 1);
+            this.plane.forEachInRect((int) this.minX, (int) toX, this.minY,
+                    this.maxY, (x, y, element) ->
+                            this.buffer.add(new Cell<>(x, y, element)));
+            this.minX = toX + 1;
+            if (this.buffer.size() < BATCH_SIZE / 2) {
+                this.bandWidth = (int) Math.min(1 << 30, 2L * this.bandWidth);
+            } else if (this.buffer.size() > BATCH_SIZE) {
+                this.bandWidth = Math.max(1, this.bandWidth / 2);
+            }
+        }
+        return !this.buffer.isEmpty();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Cell<T>> action) {
+        if (this.next == this.buffer.size() && !fill()) {
+            return false;
+        }
+        action.accept(this.buffer.get(this.next++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Cell<T>> action) {
+        // Hand out what tryAdvance() buffered, then the rest in bulk
+        while (this.next < this.buffer.size()) {
+            action.accept(this.buffer.get(this.next++));
+        }
+        if (this.minX > this.maxX) {
+            return;
+        }
+        this.plane.forEachInRect((int) this.minX, this.maxX, this.minY,
+                this.maxY,
+                (x, y, element) -> action.accept(new Cell<>(x, y, element)));
+        this.minX = this.maxX + 1L;
+    }
+
+    @Override
+    public Spliterator<Cell<T>> trySplit() {
+        if (this.next < this.buffer.size()
+                || estimateArea() < MIN_SPLIT_AREA) {
+            return null;
+        }
+        long width = this.maxX - this.minX + 1;
+        long height = (long) this.maxY - this.minY + 1;
+        if (width >= height) {
+            int mid = (int) (this.minX + (width >> 1) - 1);
+            PlaneSpliterator<T> prefix = new PlaneSpliterator<>(this.plane,
+                    (int) this.minX, mid, this.minY, this.maxY);
+            this.minX = mid + 1L;
+            return prefix;
+        }
+        // A narrow band: split it into tiles along y instead
+        int mid = (int) (this.minY + (height >> 1) - 1);
+        PlaneSpliterator<T> prefix = new PlaneSpliterator<>(this.plane,
+                (int) this.minX, this.maxX, this.minY, mid);
+        this.minY = mid + 1;
+        return prefix;
+    }
+
+    /**
+     * @return The number of cells left in the rectangle, not counting the
+     *         buffered band
+     */
+    private long estimateArea() {
+        if (this.minX > this.maxX || this.minY > this.maxY) {
+            return 0;
+        }
+        return (this.maxX - this.minX + 1)
+                * ((long) this.maxY - this.minY + 1);
+    }
+
+    @Override
+    public long estimateSize() {
+        long total = ((long) this.plane.getMaximumX() - this.plane.getMinimumX() + 1)
+                * ((long) this.plane.getMaximumY() - this.plane.getMinimumY() + 1);
+        // Assume the elements are spread evenly over the plane
+        return (long) ((double) estimateArea() / total * this.plane.size()) + 1
+                + this.buffer.size() - this.next;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL | DISTINCT;
+    }
+}
@@ -0,0 +1,338 @@
+package compa1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Shared bookkeeping of the primitive cartesian planes (IntCartesianPlane,
+ * LongCartesianPlane and DoubleCartesianPlane).
+ *
+ * Cells are stored x-major in a single primitive array owned by the
+ * subclass, at index (x - minimumX) * height + (y - minimumY). Which cells
+ * hold a value is recorded in an occupancy bitmap with the same indexing, so
+ * every primitive value (including the empty value) can be stored. Empty
+ * cells always hold the plane's empty value, so reads never need the bitmap.
+ */
+public abstract class PrimitiveCartesianPlane {
+    /** The minimum bound for the x values of elements */
+    int minimumX;
+    /** The maximum bound for the x values of elements */
+    int maximumX;
+    /** The minimum bound for the y values of elements */
+    int minimumY;
+    /** The maximum bound for the y values of elements */
+    int maximumY;
+    /** Number of y values per x */
+    int height;
+    /** One bit per cell, set where the cell holds a value */
+    long[] occupied;
+    /** Total number of stored values */
+    int size;
+
+    /**
+     * Sets up the bounds and bitmap of a new plane. Subclasses allocate their
+     * storage with cellCount() afterwards.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max), or the bounds
+     *         hold more cells than a single array can
+     */
+    PrimitiveCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+        this.occupied = new long[bitmapWords(cellCount(minimumX, maximumX,
+                minimumY, maximumY))];
+        setBounds(minimumX, maximumX, minimumY, maximumY);
+    }
+
+    /**
+     * Returns the number of cells covered by the given bounds.
+     *
+     * @throws IllegalArgumentException if a single array cannot hold that
+     *         many cells
+     */
+    static int cellCount(int minX, int maxX, int minY, int maxY)
+            throws IllegalArgumentException {
+        long cells = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException();
+        }
+        return (int) cells;
+    }
+
+    /**
+     * Returns the number of longs needed for a bitmap over the given number
+     * of cells.
+     */
+    static int bitmapWords(int cells) {
+        return (cells + 63) >>> 6;
+    }
+
+    /**
+     * Sets the bounds of the grid without touching the cells.
+     */
+    void setBounds(int minX, int maxX, int minY, int maxY) {
+        this.minimumX = minX;
+        this.maximumX = maxX;
+        this.minimumY = minY;
+        this.maximumY = maxY;
+        this.height = maxY - minY + 1;
+    }
+
+    /**
+     * Returns the index of cell (x, y) in the storage and the bitmap.
+     *
+     * @param x The x-coordinate of a position inside the bounds
+     * @param y The y-coordinate of a position inside the bounds
+     * @return The index of the position
+     */
+    final int index(int x, int y) {
+        return (x - this.minimumX) * this.height + (y - this.minimumY);
+    }
+
+    /**
+     * Returns whether (x, y) lies inside the bounds of the grid.
+     *
+     * @param x The x-coordinate to check
+     * @param y The y-coordinate to check
+     * @return true if the position is inside the bounds
+     */
+    final boolean inBounds(int x, int y) {
+        return x >= this.minimumX && x <= this.maximumX
+                && y >= this.minimumY && y <= this.maximumY;
+    }
+
+    /**
+     * Marks the cell at index i as occupied.
+     *
+     * @param i The index of the cell
+     */
+    final void occupy(int i) {
+        long bit = 1L << i;
+        long word = this.occupied[i >>> 6];
+        if ((word & bit) == 0) {
+            this.occupied[i >>> 6] = word | bit;
+            this.size++;
+        }
+    }
+
+    /**
+     * Returns whether a value is stored at the indicated position.
+     *
+     * @param x The x-coordinate of the position
+     * @param y The y-coordinate of the position
+     * @return true if a value is stored at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean contains(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        int i = index(x, y);
+        return (this.occupied[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Removes the value at the indicated position.
+     *
+     * @param x The x-coordinate of the value to remove
+     * @param y The y-coordinate of the value to remove
+     * @return true if a value was successfully removed, false if no value
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        int i = index(x, y);
+        long bit = 1L << i;
+        if ((this.occupied[i >>> 6] & bit) == 0) {
+            return false;
+        }
+        this.occupied[i >>> 6] &= ~bit;
+        this.size--;
+        clearCell(i);
+        return true;
+    }
+
+    /**
+     * Removes all values stored in the grid. Only occupied cells are
+     * visited.
+     */
+    public void clear() {
+        for (int w = 0; w < this.occupied.length && this.size > 0; w++) {
+            long word = this.occupied[w];
+            while (word != 0) {
+                clearCell((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+                this.size--;
+            }
+            this.occupied[w] = 0;
+        }
+    }
+
+    /**
+     * Returns the number of values stored in the grid.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the grid holds no values.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Changes the size of the grid. Existing values should remain at the
+     * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     * causes a value to be lost, the grid should remain unmodified and an
+     * IllegalArgumentException thrown
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if a value
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException {
+        if (newMaximumX < newMinimumX || newMaximumY < newMinimumY) {
+            throw new IllegalArgumentException();
+        }
+        int cells = cellCount(newMinimumX, newMaximumX, newMinimumY,
+                newMaximumY);
+        long[] newOccupied = new long[bitmapWords(cells)];
+        int newHeight = newMaximumY - newMinimumY + 1;
+        for (int w = 0; w < this.occupied.length; w++) {
+            long word = this.occupied[w];
+            while (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int x = this.minimumX + i / this.height;
+                int y = this.minimumY + i % this.height;
+                if (x < newMinimumX || x > newMaximumX
+                        || y < newMinimumY || y > newMaximumY) {
+                    throw new IllegalArgumentException();
+                }
+                int j = (x - newMinimumX) * newHeight + (y - newMinimumY);
+                newOccupied[j >>> 6] |= 1L << j;
+            }
+        }
+
+        Object oldStorage = storage();
+        Object newStorage = allocate(cells);
+        // Empty cells hold the empty value in both arrays, so whole
+        // overlapping column ranges can be copied
+        int fromX = Math.max(this.minimumX, newMinimumX);
+        int toX = Math.min(this.maximumX, newMaximumX);
+        int fromY = Math.max(this.minimumY, newMinimumY);
+        int toY = Math.min(this.maximumY, newMaximumY);
+        for (int x = fromX; x <= toX && fromY <= toY; x++) {
+            System.arraycopy(oldStorage, index(x, fromY), newStorage,
+                    (x - newMinimumX) * newHeight + (fromY - newMinimumY),
+                    toY - fromY + 1);
+        }
+        this.occupied = newOccupied;
+        setBounds(newMinimumX, newMaximumX, newMinimumY, newMaximumY);
+    }
+
+    /**
+     * Writes the plane to a channel, starting at its position, in the tiled
+     * format described by PlaneFormat. Only 64x64 tiles holding a value are
+     * written, in batches moved with a single gather write. Read it back with
+     * the readFrom() method of the same class.
+     *
+     * @param channel The channel to write to
+     * @throws IOException If writing fails
+     */
+    public void writeTo(FileChannel channel) throws IOException {
+        PlaneFormat.writePrimitive(this, channel);
+    }
+
+    /**
+     * Returns the primitive array holding the cells.
+     *
+     * @return the subclass's storage array
+     */
+    abstract Object storage();
+
+    /**
+     * Replaces the storage with a new array of the given length whose cells
+     * all hold the empty value, and returns it.
+     *
+     * @param cells The length of the new array
+     * @return the new storage array
+     */
+    abstract Object allocate(int cells);
+
+    /**
+     * Writes the empty value into the cell at index i.
+     *
+     * @param i The index of the cell
+     */
+    abstract void clearCell(int i);
+
+    /**
+     * Returns the number of bytes of a value in the file format.
+     */
+    abstract int valueBytes();
+
+    /**
+     * Returns the element type code of the file format.
+     */
+    abstract int typeCode();
+
+    /**
+     * Returns the raw bits of the empty value, for the file header.
+     */
+    abstract long emptyBits();
+
+    /**
+     * Copies len cells from index from on into the buffer at byte offset at,
+     * little-endian.
+     */
+    abstract void putValues(ByteBuffer buffer, int at, int from, int len);
+
+    /**
+     * Copies len values from byte offset at of the buffer into the cells
+     * from index from on.
+     */
+    abstract void getValues(ByteBuffer buffer, int at, int from, int len);
+
+    /**
+     * Returns a little-endian view of a whole buffer starting at byte offset
+     * at, for putValues() and getValues().
+     */
+    static ByteBuffer slice(ByteBuffer buffer, int at) {
+        ByteBuffer view = buffer.duplicate().order(buffer.order());
+        view.clear().position(at);
+        return view;
+    }
+}
@@ -0,0 +1,444 @@
+package compa1;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Connected-region labelling and flood fill over any CartesianPlane. Cells
+ * are connected to their 4 direct neighbours. Neither operation recurses, so
+ * planes of any size can be processed without overflowing the stack.
+ *
+ * label() works in three phases over a union-find forest with one int per
+ * cell: every tile of TILE_SIZE x TILE_SIZE cells is labelled on its own in
+ * parallel, the tiles are then stitched together along their borders, and
+ * finally every cell is pointed at the root of its region. Roots are always
+ * the region's lowest cell index, so the regions are numbered in x-major
+ * scan order.
+ */
+public final class RegionLabeller {
+    /** Width and height of the tiles labelled by one task */
+    static final int TILE_SIZE = 256;
+
+    private RegionLabeller() {
+    }
+
+    /**
+     * The regions found by label(): a region id for every occupied cell and
+     * the number of cells in each region.
+     */
+    public static final class Regions {
+        /** The minimum x bound of the labelled plane */
+        private final int minimumX;
+        /** The minimum y bound of the labelled plane */
+        private final int minimumY;
+        /** The maximum x bound of the labelled plane */
+        private final int maximumX;
+        /** The maximum y bound of the labelled plane */
+        private final int maximumY;
+        /** Number of y values per x */
+        private final int height;
+        /** Region id of each cell, x-major, -1 for empty cells */
+        private final int[] labels;
+        /** Number of cells in each region */
+        private final int[] sizes;
+
+        Regions(int minimumX, int maximumX, int minimumY, int maximumY,
+                int[] labels, int[] sizes) {
+            this.minimumX = minimumX;
+            this.maximumX = maximumX;
+            this.minimumY = minimumY;
+            this.maximumY = maximumY;
+            this.height = maximumY - minimumY + 1;
+            this.labels = labels;
+            this.sizes = sizes;
+        }
+
+        /**
+         * Returns the region of the cell at the indicated position.
+         *
+         * @param x The x-coordinate of the cell
+         * @param y The y-coordinate of the cell
+         * @return The id of the cell's region, from 0 to regionCount() - 1,
+         *         or -1 if the cell was empty
+         * @throws IndexOutOfBoundsException If the x or y value is out of
+         *         the labelled plane's minimum/maximum bounds
+         */
+        public int getRegion(int x, int y) throws IndexOutOfBoundsException {
+            if (x < this.minimumX || x > this.maximumX
+                    || y < this.minimumY || y > this.maximumY) {
+                throw new IndexOutOfBoundsException();
+            }
+            return this.labels[(x - this.minimumX) * this.height
+                    + (y - this.minimumY)];
+        }
+
+        /**
+         * @return The number of regions found
+         */
+        public int regionCount() {
+            return this.sizes.length;
+        }
+
+        /**
+         * Returns the number of cells in a region.
+         *
+         * @param region The id of the region
+         * @return The size of the region
+         * @throws IndexOutOfBoundsException If there is no such region
+         */
+        public int regionSize(int region) throws IndexOutOfBoundsException {
+            return this.sizes[region];
+        }
+    }
+
+    /**
+     * Labels the regions of cells holding equal (by equals()) elements.
+     *
+     * @param plane The plane to label
+     * @param parallelism The number of threads to use
+     * @param <T> The type of element held in the plane
+     * @return The regions of the plane
+     * @throws IllegalArgumentException If parallelism is less than 1 or the
+     *         plane holds more cells than a single array can
+     */
+    public static <T> Regions labelEqual(CartesianPlane<T> plane,
+            int parallelism) throws IllegalArgumentException {
+        return label(plane, Object::equals, parallelism);
+    }
+
+    /**
+     * Labels the regions of occupied cells, whatever they hold.
+     *
+     * @param plane The plane to label
+     * @param parallelism The number of threads to use
+     * @param <T> The type of element held in the plane
+     * @return The regions of the plane
+     * @throws IllegalArgumentException If parallelism is less than 1 or the
+     *         plane holds more cells than a single array can
+     */
+    public static <T> Regions labelOccupied(CartesianPlane<T> plane,
+            int parallelism) throws IllegalArgumentException {
+        return label(plane, (a, b) -> true, parallelism);
+    }
+
+    /**
+     * Labels the regions of a plane. Two neighbouring occupied cells belong
+     * to the same region if connected returns true for their elements; empty
+     * cells belong to no region.
+     *
+     * @param plane The plane to label, which must not change meanwhile
+     * @param connected Whether two neighbouring elements are connected; must
+     *         be symmetric
+     * @param parallelism The number of threads to use
+     * @param <T> The type of element held in the plane
+     * @return The regions of the plane
+     * @throws IllegalArgumentException If parallelism is less than 1 or the
+     *         plane holds more cells than a single array can
+     */
+    public static <T> Regions label(CartesianPlane<T> plane,
+            BiPredicate<? super T, ? super T> connected, int parallelism)
+            throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException();
+        }
+        int minX = plane.getMinimumX();
+        int minY = plane.getMinimumY();
+        long width = (long) plane.getMaximumX() - minX + 1;
+        long height = (long) plane.getMaximumY() - minY + 1;
+        if (width * height > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException();
+        }
+        int[] parent = new int[(int) (width * height)];
+        Arrays.fill(parent, -1);
+        int tilesX = (int) ((width + TILE_SIZE - 1) / TILE_SIZE);
+        int tilesY = (int) ((height + TILE_SIZE - 1) / TILE_SIZE);
+
+        // Phase 1: each tile on its own. Tiles own disjoint cells, so their
+        // tasks never touch the same entries of parent.
+        RecursiveAction[] tiles = new RecursiveAction[tilesX * tilesY];
+        for (int tx = 0; tx < tilesX; tx++) {
+            for (int ty = 0; ty < tilesY; ty++) {
+                int fromI = tx * TILE_SIZE;
+                int fromJ = ty * TILE_SIZE;
+                int toI = (int) Math.min(width, fromI + TILE_SIZE);
+                int toJ = (int) Math.min(height, fromJ + TILE_SIZE);
+                tiles[tx * tilesY + ty] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        labelTile(plane, connected, parent, (int) height,
+                                fromI, toI, fromJ, toJ);
+                    }
+                };
+            }
+        }
+        run(tiles, parallelism);
+
+        // Phase 2: stitch neighbouring tiles together along their borders
+        for (int tx = 1; tx < tilesX; tx++) {
+            int i = tx * TILE_SIZE;
+            for (int j = 0; j < height; j++) {
+                stitch(plane, connected, parent, (int) height, i - 1, j, i, j);
+            }
+        }
+        for (int ty = 1; ty < tilesY; ty++) {
+            int j = ty * TILE_SIZE;
+            for (int i = 0; i < width; i++) {
+                stitch(plane, connected, parent, (int) height, i, j - 1, i, j);
+            }
+        }
+
+        // Phase 3: point every cell at its root. Concurrent path updates are
+        // harmless because every write stores an ancestor of the cell.
+        RecursiveAction[] flatten = new RecursiveAction[tilesX];
+        for (int tx = 0; tx < tilesX; tx++) {
+            int from = (int) (tx * TILE_SIZE * height);
+            int to = (int) Math.min(width * height,
+                    (tx + 1) * TILE_SIZE * height);
+            flatten[tx] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    for (int c = from; c < to; c++) {
+                        if (parent[c] >= 0) {
+                            parent[c] = find(parent, c);
+                        }
+                    }
+                }
+            };
+        }
+        run(flatten, parallelism);
+
+        // Number the roots in scan order. A root is its region's lowest
+        // index, so it is renumbered before any other cell of its region.
+        int count = 0;
+        int[] sizes = new int[16];
+        for (int c = 0; c < parent.length; c++) {
+            int root = parent[c];
+            if (root < 0) {
+                continue;
+            }
+            int id;
+            if (root == c) {
+                id = count++;
+                if (id == sizes.length) {
+                    sizes = Arrays.copyOf(sizes, sizes.length * 2);
+                }
+            } else {
+                id = parent[root];
+            }
+            parent[c] = id;
+            sizes[id]++;
+        }
+        return new Regions(minX, plane.getMaximumX(), minY,
+                plane.getMaximumY(), parent, Arrays.copyOf(sizes, count));
+    }
+
+    /**
+     * Runs the tasks with the given parallelism, on the calling thread when
+     * it is 1.
+     */
+    private static void run(RecursiveAction[] tasks, int parallelism) {
+        if (parallelism == 1) {
+            for (RecursiveAction task : tasks) {
+                task.invoke();
+            }
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Builds the union-find forest of one tile, covering the cell offsets
+     * [fromI, toI) x [fromJ, toJ) from the plane's minimum bounds.
+     */
+    private static <T> void labelTile(CartesianPlane<T> plane,
+            BiPredicate<? super T, ? super T> connected, int[] parent,
+            int height, int fromI, int toI, int fromJ, int toJ) {
+        int tileHeight = toJ - fromJ;
+        Object[] cells = new Object[(toI - fromI) * tileHeight];
+        int minX = plane.getMinimumX();
+        int minY = plane.getMinimumY();
+        plane.forEachInRect(minX + fromI, minX + toI - 1, minY + fromJ,
+                minY + toJ - 1, (x, y, element) ->
+                        cells[(x - minX - fromI) * tileHeight
+                                + (y - minY - fromJ)] = element);
+        for (int i = fromI; i < toI; i++) {
+            for (int j = fromJ; j < toJ; j++) {
+                int t = (i - fromI) * tileHeight + (j - fromJ);
+                T element = (T) cells[t];
+                if (element == null) {
+                    continue;
+                }
+                int c = i * height + j;
+                parent[c] = c;
+                if (i > fromI && cells[t - tileHeight] != null
+                        && connected.test((T) cells[t - tileHeight], element)) {
+                    union(parent, c - height, c);
+                }
+                if (j > fromJ && cells[t - 1] != null
+                        && connected.test((T) cells[t - 1], element)) {
+                    union(parent, c - 1, c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Joins the regions of cells (i0, j0) and (i1, j1), given as offsets from
+     * the plane's minimum bounds, if they are connected.
+     */
+    private static <T> void stitch(CartesianPlane<T> plane,
+            BiPredicate<? super T, ? super T> connected, int[] parent,
+            int height, int i0, int j0, int i1, int j1) {
+        int a = i0 * height + j0;
+        int b = i1 * height + j1;
+        if (parent[a] < 0 || parent[b] < 0) {
+            return;
+        }
+        int minX = plane.getMinimumX();
+        int minY = plane.getMinimumY();
+        if (connected.test(plane.get(minX + i0, minY + j0),
+                plane.get(minX + i1, minY + j1))) {
+            union(parent, a, b);
+        }
+    }
+
+    /**
+     * Returns the root of cell c, halving the path on the way.
+     */
+    private static int find(int[] parent, int c) {
+        while (parent[c] != c) {
+            parent[c] = parent[parent[c]];
+            c = parent[c];
+        }
+        return c;
+    }
+
+    /**
+     * Joins the trees of cells a and b, keeping the lower index as the root.
+     */
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    /**
+     * Replaces the element of every cell that is 4-connected to (x, y)
+     * through cells whose elements match predicate, including (x, y) itself.
+     * Works along columns with an explicit stack of seeds, so it never
+     * recurses, and each cell is visited once even if replacement matches
+     * predicate too.
+     *
+     * @param plane The plane to fill
+     * @param x The x-coordinate of the starting cell
+     * @param y The y-coordinate of the starting cell
+     * @param predicate Which elements (possibly null) belong to the area
+     * @param replacement The element to store, null to remove the area
+     * @param <T> The type of element held in the plane
+     * @return The number of cells replaced
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the plane's minimum/maximum bounds
+     * @throws IllegalArgumentException If the plane holds more cells than a
+     *         single bitmap can
+     */
+    public static <T> int floodFill(CartesianPlane<T> plane, int x, int y,
+            Predicate<? super T> predicate, T replacement)
+            throws IndexOutOfBoundsException, IllegalArgumentException {
+        int minX = plane.getMinimumX();
+        int maxX = plane.getMaximumX();
+        int minY = plane.getMinimumY();
+        int maxY = plane.getMaximumY();
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            throw new IndexOutOfBoundsException();
+        }
+        long height = (long) maxY - minY + 1;
+        long cells = ((long) maxX - minX + 1) * height;
+        if (cells > 64L * (Integer.MAX_VALUE - 8)) {
+            throw new IllegalArgumentException();
+        }
+        long[] visited = new long[(int) ((cells + 63) >>> 6)];
+        long[] stack = new long[16];
+        int top = 0;
+        stack[top++] = pack(x, y);
+        int filled = 0;
+        while (top > 0) {
+            long seed = stack[--top];
+            int sx = (int) (seed >> 32);
+            int sy = (int) seed;
+            long column = (sx - (long) minX) * height - minY;
+            if (isVisited(visited, column + sy)
+                    || !predicate.test(plane.get(sx, sy))) {
+                continue;
+            }
+            // Extend the seed to the whole matching span of its column
+            int from = sy;
+            while (from > minY && !isVisited(visited, column + from - 1)
+                    && predicate.test(plane.get(sx, from - 1))) {
+                from--;
+            }
+            int to = sy;
+            while (to < maxY && !isVisited(visited, column + to + 1)
+                    && predicate.test(plane.get(sx, to + 1))) {
+                to++;
+            }
+            for (long cy = from; cy <= to; cy++) {
+                long bit = column + cy;
+                visited[(int) (bit >>> 6)] |= 1L << bit;
+                plane.add(sx, (int) cy, replacement);
+                filled++;
+            }
+            // Seed every matching span of the neighbouring columns
+            for (int nx = sx - 1; nx <= sx + 1; nx += 2) {
+                if (nx < minX || nx > maxX) {
+                    continue;
+                }
+                long neighbour = (nx - (long) minX) * height - minY;
+                boolean inSpan = false;
+                for (long cy = from; cy <= to; cy++) {
+                    boolean matches = !isVisited(visited, neighbour + cy)
+                            && predicate.test(plane.get(nx, (int) cy));
+                    if (matches && !inSpan) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = pack(nx, (int) cy);
+                    }
+                    inSpan = matches;
+                }
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Packs a coordinate into a long, x in the high half.
+     */
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns whether the given bit of a bitmap is set.
+     */
+    private static boolean isVisited(long[] visited, long bit) {
+        return (visited[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+}
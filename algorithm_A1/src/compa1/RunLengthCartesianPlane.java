@@ -0,0 +1,482 @@
+package compa1;
+
+import java.util.Arrays;
+
+/**
+ * A 2D cartesian plane that stores each row (fixed y) as a sorted list of
+ * runs: maximal intervals of x values holding the same element reference.
+ * Each (x,y) coordinate can hold a single item of type <T>.
+ *
+ * Planes dominated by long horizontal stretches of one shared object (e.g.
+ * map tiles) then cost memory per run instead of per cell. get() binary
+ * searches the runs of a row; add() and remove() split the run they land in
+ * and merge it with equal neighbours. Elements are compared with ==, so only
+ * the same reference forms a run.
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public class RunLengthCartesianPlane<T> implements CartesianPlane<T> {
+    /** The minimum bound for the x values of elements */
+    private int minimumX;
+    /** The maximum bound for the x values of elements */
+    private int maximumX;
+    /** The minimum bound for the y values of elements */
+    private int minimumY;
+    /** The maximum bound for the y values of elements */
+    private int maximumY;
+    /** Rows indexed by y - minimumY, null while a row is empty */
+    Row[] rows;
+    /** Total number of elements */
+    private int size;
+    /** Scratch space for the runs replacing part of a row */
+    private final int[] pieceStarts = new int[3];
+    private final int[] pieceEnds = new int[3];
+    private final Object[] pieceValues = new Object[3];
+
+    /**
+     * The runs of one row, sorted by x. Runs never overlap and two adjacent
+     * runs never hold the same reference.
+     */
+    static final class Row {
+        /** First x value of each run */
+        int[] starts = new int[4];
+        /** Last x value of each run */
+        int[] ends = new int[4];
+        /** Element of each run */
+        Object[] values = new Object[4];
+        /** Number of runs */
+        int count;
+
+        /**
+         * Returns the index of the last run starting at or before x, or -1.
+         */
+        int floor(int x) {
+            int low = 0;
+            int high = this.count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (this.starts[mid] <= x) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        /**
+         * Replaces the runs [from, to] (empty when to is from - 1) with the
+         * first n runs of the given arrays.
+         */
+        void replace(int from, int to, int[] newStarts, int[] newEnds,
+                Object[] newValues, int n) {
+            int newCount = this.count - (to - from + 1) + n;
+            if (newCount > this.starts.length) {
+                int capacity = Math.max(newCount, this.starts.length * 2);
+                this.starts = Arrays.copyOf(this.starts, capacity);
+                this.ends = Arrays.copyOf(this.ends, capacity);
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+            int tail = this.count - to - 1;
+            System.arraycopy(this.starts, to + 1, this.starts, from + n, tail);
+            System.arraycopy(this.ends, to + 1, this.ends, from + n, tail);
+            System.arraycopy(this.values, to + 1, this.values, from + n, tail);
+            System.arraycopy(newStarts, 0, this.starts, from, n);
+            System.arraycopy(newEnds, 0, this.ends, from, n);
+            System.arraycopy(newValues, 0, this.values, from, n);
+            for (int i = newCount; i < this.count; i++) {
+                this.values[i] = null;
+            }
+            this.count = newCount;
+        }
+    }
+
+    /**
+     * Constructs a new RunLengthCartesianPlane object with given minimum and
+     * maximum bounds.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public RunLengthCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+        this.minimumX = minimumX;
+        this.maximumX = maximumX;
+        this.minimumY = minimumY;
+        this.maximumY = maximumY;
+        this.rows = new Row[maximumY - minimumY + 1];
+    }
+
+    /**
+     * Returns whether (x, y) lies inside the bounds of the grid.
+     */
+    private boolean inBounds(int x, int y) {
+        return x >= this.minimumX && x <= this.maximumX
+                && y >= this.minimumY && y <= this.maximumY;
+    }
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, T element) throws IllegalArgumentException {
+        if (!inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        setRange(y, x, x, element);
+    }
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T get(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        Row row = this.rows[y - this.minimumY];
+        if (row == null) {
+            return null;
+        }
+        int i = row.floor(x);
+        if (i < 0 || row.ends[i] < x) {
+            return null;
+        }
+        return (T) row.values[i];
+    }
+
+    /**
+     * Removes the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return setRange(y, x, x, null) != 0;
+    }
+
+    /**
+     * Adds the same element at every position of the rectangle
+     * [x0, x1] x [y0, y1], overriding any existing elements there. Each row
+     * gets a single new run.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param element The element to be added
+     * @throws IllegalArgumentException If the rectangle is empty or not
+     *         inside the grid's minimum/maximum bounds
+     */
+    public void fillRect(int x0, int x1, int y0, int y1, T element)
+            throws IllegalArgumentException {
+        if (x1 < x0 || y1 < y0 || x0 < this.minimumX || x1 > this.maximumX
+                || y0 < this.minimumY || y1 > this.maximumY) {
+            throw new IllegalArgumentException();
+        }
+        for (int y = y0; y <= y1; y++) {
+            setRange(y, x0, x1, element);
+        }
+    }
+
+    /**
+     * Removes every element in the rectangle [x0, x1] x [y0, y1], cutting
+     * whole runs per row.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @return The number of elements removed
+     * @throws IndexOutOfBoundsException If the rectangle is not inside the
+     *         grid's minimum/maximum bounds
+     */
+    public int removeRect(int x0, int x1, int y0, int y1)
+            throws IndexOutOfBoundsException {
+        if (x0 < this.minimumX || x1 > this.maximumX
+                || y0 < this.minimumY || y1 > this.maximumY) {
+            throw new IndexOutOfBoundsException();
+        }
+        int removed = 0;
+        for (int y = y0; y <= y1 && x0 <= x1; y++) {
+            removed -= setRange(y, x0, x1, null);
+        }
+        return removed;
+    }
+
+    /**
+     * Stores element (or nothing, if it is null) at every x in [a, b] of row
+     * y, splitting the runs cut by the range and merging the result with
+     * equal neighbours.
+     *
+     * @param y The y-coordinate of the row, inside the bounds
+     * @param a The first x value of the range, inside the bounds
+     * @param b The last x value of the range, inside the bounds
+     * @param element The element to store, or null to clear the range
+     * @return The change in the number of elements
+     */
+    private int setRange(int y, int a, int b, Object element) {
+        Row row = this.rows[y - this.minimumY];
+        if (row == null) {
+            if (element == null) {
+                return 0;
+            }
+            row = new Row();
+            this.rows[y - this.minimumY] = row;
+        }
+        // Runs lo..hi overlap [a, b]
+        int hi = row.floor(b);
+        int lo = hi;
+        while (lo >= 0 && row.ends[lo] >= a) {
+            lo--;
+        }
+        lo++;
+        if (lo == hi && element != null && row.values[lo] == element
+                && row.starts[lo] <= a && row.ends[lo] >= b) {
+            // Already stored
+            return 0;
+        }
+
+        long removed = 0;
+        for (int i = lo; i <= hi; i++) {
+            removed += (long) Math.min(row.ends[i], b)
+                    - Math.max(row.starts[i], a) + 1;
+        }
+        int n = 0;
+        if (lo <= hi && row.starts[lo] < a) {
+            n = addPiece(n, row.starts[lo], a - 1, row.values[lo]);
+        }
+        if (element != null) {
+            n = addPiece(n, a, b, element);
+        }
+        if (lo <= hi && row.ends[hi] > b) {
+            n = addPiece(n, b + 1, row.ends[hi], row.values[hi]);
+        }
+        // Absorb equal neighbours that touch the new pieces
+        if (n > 0 && lo > 0 && row.values[lo - 1] == this.pieceValues[0]
+                && row.ends[lo - 1] == this.pieceStarts[0] - 1) {
+            lo--;
+            this.pieceStarts[0] = row.starts[lo];
+        }
+        if (n > 0 && hi + 1 < row.count
+                && row.values[hi + 1] == this.pieceValues[n - 1]
+                && row.starts[hi + 1] == this.pieceEnds[n - 1] + 1) {
+            hi++;
+            this.pieceEnds[n - 1] = row.ends[hi];
+        }
+        row.replace(lo, hi, this.pieceStarts, this.pieceEnds,
+                this.pieceValues, n);
+        Arrays.fill(this.pieceValues, null);
+        if (row.count == 0) {
+            this.rows[y - this.minimumY] = null;
+        }
+
+        int change = (int) ((element == null ? 0 : (long) b - a + 1)
+                - removed);
+        this.size += change;
+        return change;
+    }
+
+    /**
+     * Appends the run [start, end] to the scratch pieces, merging it into
+     * the previous piece if that one touches it and holds the same element.
+     *
+     * @return The new number of pieces
+     */
+    private int addPiece(int n, int start, int end, Object value) {
+        if (n > 0 && this.pieceValues[n - 1] == value
+                && this.pieceEnds[n - 1] == start - 1) {
+            this.pieceEnds[n - 1] = end;
+            return n;
+        }
+        this.pieceStarts[n] = start;
+        this.pieceEnds[n] = end;
+        this.pieceValues[n] = value;
+        return n + 1;
+    }
+
+    /**
+     * Removes all elements stored in the grid.
+     */
+    public void clear() {
+        this.rows = new Row[this.rows.length];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of elements stored in the grid.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the grid holds no elements.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of runs stored in the grid, which drives its memory
+     * use.
+     *
+     * @return the number of runs
+     */
+    public int runCount() {
+        int runs = 0;
+        for (Row row : this.rows) {
+            if (row != null) {
+                runs += row.count;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.minimumX;
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.maximumX;
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.minimumY;
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.maximumY;
+    }
+
+    /**
+     * Visits every element whose position lies in the rectangle
+     * [x0, x1] x [y0, y1]. Empty rows and the gaps between runs are skipped.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param consumer The operation to perform on each element
+     */
+    public void forEachInRect(int x0, int x1, int y0, int y1,
+            CellConsumer<? super T> consumer) {
+        int fromX = Math.max(x0, this.minimumX);
+        int toX = Math.min(x1, this.maximumX);
+        int fromY = Math.max(y0, this.minimumY);
+        int toY = Math.min(y1, this.maximumY);
+        for (long y = fromY; y <= toY && fromX <= toX; y++) {
+            Row row = this.rows[(int) (y - this.minimumY)];
+            if (row == null) {
+                continue;
+            }
+            for (int i = Math.max(row.floor(fromX), 0);
+                    i < row.count && row.starts[i] <= toX; i++) {
+                T element = (T) row.values[i];
+                long to = Math.min(row.ends[i], toX);
+                for (long x = Math.max(row.starts[i], fromX); x <= to; x++) {
+                    consumer.accept((int) x, (int) y, element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes the size of the grid. Existing elements should remain at the
+     * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     * causes an element to be lost, the grid should remain unmodified and an
+     * IllegalArgumentException thrown
+     *
+     * Only row references are moved; runs are never copied.
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if an element
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException {
+        if (newMaximumX < newMinimumX || newMaximumY < newMinimumY) {
+            throw new IllegalArgumentException();
+        }
+        for (int i = 0; i < this.rows.length; i++) {
+            Row row = this.rows[i];
+            if (row == null) {
+                continue;
+            }
+            long y = (long) this.minimumY + i;
+            if (y < newMinimumY || y > newMaximumY
+                    || row.starts[0] < newMinimumX
+                    || row.ends[row.count - 1] > newMaximumX) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        Row[] newRows = new Row[newMaximumY - newMinimumY + 1];
+        for (int i = 0; i < this.rows.length; i++) {
+            if (this.rows[i] != null) {
+                newRows[this.minimumY + i - newMinimumY] = this.rows[i];
+            }
+        }
+        this.rows = newRows;
+        this.minimumX = newMinimumX;
+        this.maximumX = newMaximumX;
+        this.minimumY = newMinimumY;
+        this.maximumY = newMaximumY;
+    }
+}
@@ -0,0 +1,379 @@
+package compa1;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A 2D cartesian plane of doubles that is updated a whole generation at a
+ * time by a StencilKernel, e.g. for cellular automata or diffusion. Every
+ * (x,y) coordinate inside the bounds always holds a value.
+ *
+ * The cells live in two buffers that swap roles every generation: step()
+ * reads the current buffer and writes the other one. Each buffer is padded
+ * with a one-cell halo ring holding the halo value, so the kernel's
+ * neighbours can be read without any bounds checks. The grid is cut into
+ * fixed tiles whose ForkJoin tasks are allocated once and reinitialized each
+ * generation, so stepping produces no garbage. The pool running them is kept
+ * between calls; close() releases its threads.
+ */
+public class StencilCartesianPlane implements AutoCloseable {
+    /** Width and height of the tiles handed to one task */
+    static final int TILE_SIZE = 128;
+
+    /** The minimum bound for the x values of elements */
+    private final int minimumX;
+    /** The maximum bound for the x values of elements */
+    private final int maximumX;
+    /** The minimum bound for the y values of elements */
+    private final int minimumY;
+    /** The maximum bound for the y values of elements */
+    private final int maximumY;
+    /** Number of x values inside the bounds */
+    private final int width;
+    /** Number of y values inside the bounds */
+    private final int height;
+    /** Distance between horizontally adjacent cells: height plus the halo */
+    private final int stride;
+    /** Value read from neighbours outside the bounds */
+    private final double haloValue;
+    /** The buffer holding the current generation */
+    double[] current;
+    /** The buffer the next generation is written to */
+    private double[] next;
+    /** Number of generations computed so far */
+    private long generation;
+    /** One task per tile, reused for every generation */
+    private final TileTask[] tasks;
+    /** Task running all tile tasks inside the pool */
+    private final StepTask root;
+    /** Pool running the tile tasks, created for the requested parallelism */
+    private ForkJoinPool pool;
+    /** The kernel of the generation being computed */
+    private StencilKernel kernel;
+
+    /**
+     * Constructs a new StencilCartesianPlane object with given minimum and
+     * maximum bounds, whose cells and halo read as 0.0.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public StencilCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        this(minimumX, maximumX, minimumY, maximumY, 0.0);
+    }
+
+    /**
+     * Constructs a new StencilCartesianPlane object with given minimum and
+     * maximum bounds and halo value. Cells start out holding the halo value.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @param haloValue The value read from neighbours outside the bounds
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max), or the padded
+     *         bounds hold more cells than a single array can
+     */
+    public StencilCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY, double haloValue) throws IllegalArgumentException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+        long paddedWidth = (long) maximumX - minimumX + 3;
+        long paddedHeight = (long) maximumY - minimumY + 3;
+        if (paddedWidth * paddedHeight > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException();
+        }
+        this.minimumX = minimumX;
+        this.maximumX = maximumX;
+        this.minimumY = minimumY;
+        this.maximumY = maximumY;
+        this.width = (int) paddedWidth - 2;
+        this.height = (int) paddedHeight - 2;
+        this.stride = (int) paddedHeight;
+        this.haloValue = haloValue;
+        this.current = new double[(int) (paddedWidth * paddedHeight)];
+        this.next = new double[this.current.length];
+        Arrays.fill(this.current, haloValue);
+        Arrays.fill(this.next, haloValue);
+
+        int tilesX = (this.width + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesY = (this.height + TILE_SIZE - 1) / TILE_SIZE;
+        this.tasks = new TileTask[tilesX * tilesY];
+        for (int tx = 0; tx < tilesX; tx++) {
+            for (int ty = 0; ty < tilesY; ty++) {
+                this.tasks[tx * tilesY + ty] = new TileTask(tx * TILE_SIZE,
+                        Math.min(this.width, (tx + 1) * TILE_SIZE),
+                        ty * TILE_SIZE,
+                        Math.min(this.height, (ty + 1) * TILE_SIZE));
+            }
+        }
+        this.root = new StepTask();
+    }
+
+    /**
+     * Creates a stencil plane with the bounds of the given plane, holding
+     * the double value of each of its elements. Empty cells of the plane hold
+     * the halo value.
+     *
+     * @param plane The plane to copy
+     * @param haloValue The value read from neighbours outside the bounds
+     * @return a new stencil plane
+     * @throws IllegalArgumentException if the padded bounds hold more cells
+     *         than a single array can
+     */
+    public static StencilCartesianPlane of(
+            CartesianPlane<? extends Number> plane, double haloValue)
+            throws IllegalArgumentException {
+        StencilCartesianPlane stencil = new StencilCartesianPlane(
+                plane.getMinimumX(), plane.getMaximumX(), plane.getMinimumY(),
+                plane.getMaximumY(), haloValue);
+        plane.forEach((x, y, element) ->
+                stencil.add(x, y, element.doubleValue()));
+        return stencil;
+    }
+
+    /**
+     * Returns the index of cell (x, y) in the padded buffers.
+     */
+    private int index(int x, int y) {
+        return (x - this.minimumX + 1) * this.stride + (y - this.minimumY + 1);
+    }
+
+    /**
+     * Returns whether (x, y) lies inside the bounds of the grid.
+     */
+    private boolean inBounds(int x, int y) {
+        return x >= this.minimumX && x <= this.maximumX
+                && y >= this.minimumY && y <= this.maximumY;
+    }
+
+    /**
+     * Sets the value of a cell in the current generation.
+     *
+     * @param x The x-coordinate of the value's position
+     * @param y The y-coordinate of the value's position
+     * @param value The value to store at the indicated position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, double value)
+            throws IllegalArgumentException {
+        if (!inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        this.current[index(x, y)] = value;
+    }
+
+    /**
+     * Returns the value of a cell in the current generation.
+     *
+     * @param x The x-coordinate of the value to retrieve
+     * @param y The y-coordinate of the value to retrieve
+     * @return The value at this position
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public double get(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return this.current[index(x, y)];
+    }
+
+    /**
+     * Resets every cell to the halo value.
+     */
+    public void clear() {
+        Arrays.fill(this.current, this.haloValue);
+    }
+
+    /**
+     * @return The value read from neighbours outside the bounds
+     */
+    public double getHaloValue() {
+        return this.haloValue;
+    }
+
+    /**
+     * @return The number of generations computed so far
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.minimumX;
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.maximumX;
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.minimumY;
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.maximumY;
+    }
+
+    /**
+     * Computes the next generation: every cell is replaced by the kernel
+     * applied to its current neighbourhood.
+     *
+     * @param kernel The update rule
+     * @param parallelism The number of threads to use, 1 to run on the
+     *         calling thread
+     * @throws IllegalArgumentException If parallelism is less than 1
+     */
+    public void step(StencilKernel kernel, int parallelism)
+            throws IllegalArgumentException {
+        steps(kernel, 1, parallelism);
+    }
+
+    /**
+     * Computes the given number of generations with the same kernel.
+     *
+     * @param kernel The update rule
+     * @param generations The number of generations to compute
+     * @param parallelism The number of threads to use, 1 to run on the
+     *         calling thread
+     * @throws IllegalArgumentException If parallelism is less than 1 or
+     *         generations is negative
+     */
+    public void steps(StencilKernel kernel, int generations, int parallelism)
+            throws IllegalArgumentException {
+        if (parallelism < 1 || generations < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (parallelism > 1 && (this.pool == null
+                || this.pool.getParallelism() != parallelism)) {
+            if (this.pool != null) {
+                this.pool.shutdown();
+            }
+            this.pool = new ForkJoinPool(parallelism);
+        }
+        this.kernel = kernel;
+        try {
+            for (int g = 0; g < generations; g++) {
+                if (parallelism == 1) {
+                    for (TileTask task : this.tasks) {
+                        computeTile(task.fromX, task.toX, task.fromY,
+                                task.toY);
+                    }
+                } else {
+                    this.root.reinitialize();
+                    this.pool.invoke(this.root);
+                }
+                double[] swap = this.current;
+                this.current = this.next;
+                this.next = swap;
+                this.generation++;
+            }
+        } finally {
+            this.kernel = null;
+        }
+    }
+
+    /**
+     * Shuts down the pool used by parallel steps, releasing its threads. The
+     * plane stays usable, and a later parallel step creates a new pool.
+     */
+    @Override
+    public void close() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+
+    /**
+     * Writes the next generation of the cells in [fromX, toX) x
+     * [fromY, toY), given as offsets from the minimum bounds.
+     */
+    private void computeTile(int fromX, int toX, int fromY, int toY) {
+        StencilKernel k = this.kernel;
+        double[] src = this.current;
+        double[] dst = this.next;
+        int stride = this.stride;
+        for (int i = fromX; i < toX; i++) {
+            int c = (i + 1) * stride + fromY + 1;
+            int end = c + (toY - fromY);
+            for (; c < end; c++) {
+                int w = c - stride;
+                int e = c + stride;
+                dst[c] = k.apply(src[w + 1], src[c + 1], src[e + 1],
+                        src[w], src[c], src[e],
+                        src[w - 1], src[c - 1], src[e - 1]);
+            }
+        }
+    }
+
+    /**
+     * Computes one tile of a generation.
+     */
+    @SuppressWarnings("serial")
+    private final class TileTask extends RecursiveAction {
+        /** Offsets of the tile from the minimum bounds, maxima exclusive */
+        final int fromX, toX, fromY, toY;
+
+        TileTask(int fromX, int toX, int fromY, int toY) {
+            this.fromX = fromX;
+            this.toX = toX;
+            this.fromY = fromY;
+            this.toY = toY;
+        }
+
+        @Override
+        protected void compute() {
+            computeTile(this.fromX, this.toX, this.fromY, this.toY);
+        }
+    }
+
+    /**
+     * Runs every tile task of a generation inside the pool.
+     */
+    @SuppressWarnings("serial")
+    private final class StepTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (TileTask task : tasks) {
+                task.reinitialize();
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+}
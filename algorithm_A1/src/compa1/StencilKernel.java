@@ -0,0 +1,32 @@
+package compa1;
+
+/**
+ * The update rule of a StencilCartesianPlane: computes the next value of a
+ * cell from its current value and the values of its 8 neighbours. Positive
+ * x points east and positive y points north, so e.g. ne is the cell at
+ * (x + 1, y + 1). Neighbours outside the bounds read as the plane's halo
+ * value.
+ *
+ * Implementations are called concurrently from several threads and must not
+ * keep per-cell state.
+ */
+@FunctionalInterface
+public interface StencilKernel {
+
+    /**
+     * Returns the next value of a cell.
+     *
+     * @param nw The value at (x - 1, y + 1)
+     * @param n The value at (x, y + 1)
+     * @param ne The value at (x + 1, y + 1)
+     * @param w The value at (x - 1, y)
+     * @param c The value of the cell itself
+     * @param e The value at (x + 1, y)
+     * @param sw The value at (x - 1, y - 1)
+     * @param s The value at (x, y - 1)
+     * @param se The value at (x + 1, y - 1)
+     * @return the value of the cell in the next generation
+     */
+    double apply(double nw, double n, double ne, double w, double c, double e,
+            double sw, double s, double se);
+}
@@ -0,0 +1,314 @@
+package compa1;
+
+import java.util.Arrays;
+
+/**
+ * An IntCartesianPlane that answers sum and count queries over rectangles in
+ * O(log(width) * log(height)).
+ *
+ * Next to the cells it keeps two 2D Fenwick (binary indexed) trees, one over
+ * the stored values and one over the occupancy, so add() and remove() update
+ * O(log(width) * log(height)) tree nodes. Cells without a value contribute
+ * nothing to either aggregate, whatever the empty value is. resize()
+ * rebuilds the trees in O(width * height).
+ */
+public class SummingIntCartesianPlane extends IntCartesianPlane {
+    /** Fenwick tree over the stored values, (height + 1) nodes per x */
+    private long[] sums;
+    /** Fenwick tree over the occupancy, indexed like sums */
+    private int[] counts;
+    /** Number of x values inside the bounds */
+    private int width;
+
+    /**
+     * Constructs a new SummingIntCartesianPlane object with given minimum and
+     * maximum bounds, whose empty cells read as 0.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public SummingIntCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        this(minimumX, maximumX, minimumY, maximumY, 0);
+    }
+
+    /**
+     * Constructs a new SummingIntCartesianPlane object with given minimum and
+     * maximum bounds and empty value.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @param emptyValue The value read from cells that hold no value
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max), or the trees
+     *         would hold more nodes than a single array can
+     */
+    public SummingIntCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY, int emptyValue) throws IllegalArgumentException {
+        super(minimumX, maximumX, minimumY, maximumY, emptyValue);
+        rebuild();
+    }
+
+    /**
+     * Add a value at a fixed position, overriding any existing value there.
+     *
+     * @param x The x-coordinate of the value's position
+     * @param y The y-coordinate of the value's position
+     * @param value The value to be added at the indicated position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    @Override
+    public void add(int x, int y, int value) throws IllegalArgumentException {
+        if (!inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        int i = index(x, y);
+        boolean present = (this.occupied[i >>> 6] & (1L << i)) != 0;
+        long delta = present ? (long) value - this.values[i] : value;
+        super.add(x, y, value);
+        update(x, y, delta, present ? 0 : 1);
+    }
+
+    /**
+     * Removes the value at the indicated position.
+     *
+     * @param x The x-coordinate of the value to remove
+     * @param y The y-coordinate of the value to remove
+     * @return true if a value was successfully removed, false if no value
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    @Override
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        if (!contains(x, y)) {
+            return false;
+        }
+        int old = this.values[index(x, y)];
+        super.remove(x, y);
+        update(x, y, -(long) old, -1);
+        return true;
+    }
+
+    /**
+     * Removes all values stored in the grid and resets the trees.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(this.sums, 0L);
+        Arrays.fill(this.counts, 0);
+    }
+
+    /**
+     * Changes the size of the grid and rebuilds the trees. Existing values
+     * should remain at the same (x, y) coordinate If a resizing operation has
+     * invalid dimensions or causes a value to be lost, the grid should remain
+     * unmodified and an IllegalArgumentException thrown
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if a value
+     *         would be lost after this resizing operation
+     */
+    @Override
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException {
+        // Check the trees fit before super.resize() commits the new bounds
+        if (newMaximumX >= newMinimumX && newMaximumY >= newMinimumY) {
+            nodeCount(newMinimumX, newMaximumX, newMinimumY, newMaximumY);
+        }
+        super.resize(newMinimumX, newMaximumX, newMinimumY, newMaximumY);
+        rebuild();
+    }
+
+    /**
+     * Returns the sum of the values stored in the rectangle
+     * [x0, x1] x [y0, y1].
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @return The sum of the stored values, 0 for an empty rectangle
+     * @throws IndexOutOfBoundsException If the rectangle is not inside the
+     *         grid's minimum/maximum bounds
+     */
+    public long rectSum(int x0, int x1, int y0, int y1)
+            throws IndexOutOfBoundsException {
+        checkRect(x0, x1, y0, y1);
+        if (x1 < x0 || y1 < y0) {
+            return 0;
+        }
+        int i0 = x0 - this.minimumX, i1 = x1 - this.minimumX + 1;
+        int j0 = y0 - this.minimumY, j1 = y1 - this.minimumY + 1;
+        return prefixSum(i1, j1) - prefixSum(i0, j1) - prefixSum(i1, j0)
+                + prefixSum(i0, j0);
+    }
+
+    /**
+     * Returns the number of values stored in the rectangle
+     * [x0, x1] x [y0, y1].
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @return The number of stored values, 0 for an empty rectangle
+     * @throws IndexOutOfBoundsException If the rectangle is not inside the
+     *         grid's minimum/maximum bounds
+     */
+    public int rectCount(int x0, int x1, int y0, int y1)
+            throws IndexOutOfBoundsException {
+        checkRect(x0, x1, y0, y1);
+        if (x1 < x0 || y1 < y0) {
+            return 0;
+        }
+        int i0 = x0 - this.minimumX, i1 = x1 - this.minimumX + 1;
+        int j0 = y0 - this.minimumY, j1 = y1 - this.minimumY + 1;
+        return prefixCount(i1, j1) - prefixCount(i0, j1) - prefixCount(i1, j0)
+                + prefixCount(i0, j0);
+    }
+
+    /**
+     * Throws IndexOutOfBoundsException if the rectangle is not inside the
+     * grid's bounds.
+     */
+    private void checkRect(int x0, int x1, int y0, int y1) {
+        if (x0 < this.minimumX || x1 > this.maximumX
+                || y0 < this.minimumY || y1 > this.maximumY) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Adds deltas to every tree node covering cell (x, y).
+     */
+    private void update(int x, int y, long sumDelta, int countDelta) {
+        int stride = this.height + 1;
+        for (int i = x - this.minimumX + 1; i <= this.width; i += i & -i) {
+            int row = i * stride;
+            for (int j = y - this.minimumY + 1; j <= this.height;
+                    j += j & -j) {
+                this.sums[row + j] += sumDelta;
+                this.counts[row + j] += countDelta;
+            }
+        }
+    }
+
+    /**
+     * Returns the sum of the values in the first i x-values and j y-values.
+     */
+    private long prefixSum(int i, int j) {
+        int stride = this.height + 1;
+        long sum = 0;
+        for (; i > 0; i -= i & -i) {
+            int row = i * stride;
+            for (int k = j; k > 0; k -= k & -k) {
+                sum += this.sums[row + k];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of values in the first i x-values and j y-values.
+     */
+    private int prefixCount(int i, int j) {
+        int stride = this.height + 1;
+        int count = 0;
+        for (; i > 0; i -= i & -i) {
+            int row = i * stride;
+            for (int k = j; k > 0; k -= k & -k) {
+                count += this.counts[row + k];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of tree nodes needed for the given bounds.
+     *
+     * @throws IllegalArgumentException if a single array cannot hold that
+     *         many nodes
+     */
+    static int nodeCount(int minX, int maxX, int minY, int maxY)
+            throws IllegalArgumentException {
+        long nodes = ((long) maxX - minX + 2) * ((long) maxY - minY + 2);
+        if (nodes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException();
+        }
+        return (int) nodes;
+    }
+
+    /**
+     * Rebuilds both trees from the stored values in O(width * height): the
+     * cells are written into their own nodes and then pushed to their
+     * parents, first along y and then along x.
+     */
+    private void rebuild() {
+        int nodes = nodeCount(this.minimumX, this.maximumX, this.minimumY,
+                this.maximumY);
+        this.width = this.maximumX - this.minimumX + 1;
+        int stride = this.height + 1;
+        this.sums = new long[nodes];
+        this.counts = new int[nodes];
+        for (int w = 0; w < this.occupied.length; w++) {
+            long word = this.occupied[w];
+            while (word != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int node = (cell / this.height + 1) * stride
+                        + cell % this.height + 1;
+                this.sums[node] = this.values[cell];
+                this.counts[node] = 1;
+            }
+        }
+        for (int i = 1; i <= this.width; i++) {
+            int row = i * stride;
+            for (int j = 1; j <= this.height; j++) {
+                int parent = j + (j & -j);
+                if (parent <= this.height) {
+                    this.sums[row + parent] += this.sums[row + j];
+                    this.counts[row + parent] += this.counts[row + j];
+                }
+            }
+        }
+        for (int i = 1; i <= this.width; i++) {
+            int parent = i + (i & -i);
+            if (parent > this.width) {
+                continue;
+            }
+            for (int j = 1; j <= this.height; j++) {
+                this.sums[parent * stride + j] += this.sums[i * stride + j];
+                this.counts[parent * stride + j] += this.counts[i * stride + j];
+            }
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package compa1;
+
+/**
+ * A 2D cartesian plane that splits its bounds into fixed-size square tiles.
+ * Each (x,y) coordinate can hold a single item of type <T>.
+ *
+ * A tile is only allocated once its first element is added and is released
+ * again when its last element is removed, so memory grows with the number of
+ * occupied tiles rather than with the area of the bounds. Tiles are aligned to
+ * absolute coordinates (multiples of TILE_SIZE), which lets resize() move tile
+ * references around without copying any cells.
+ *
+ * snapshot() returns an immutable view in O(1) that shares the directory,
+ * columns and tiles with the plane. Every structure carries the version it
+ * was created in; a write that meets a structure from an older version copies
+ * it first, so only the touched tiles (and their columns and the directory)
+ * are duplicated after a snapshot.
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public class TiledCartesianPlane<T> implements CartesianPlane<T> {
+    /** Number of low coordinate bits used to index inside a tile */
+    static final int TILE_SHIFT = 6;
+    /** Width and height of a tile */
+    static final int TILE_SIZE = 1 << TILE_SHIFT;
+    /** Mask selecting the in-tile part of a coordinate */
+    static final int TILE_MASK = TILE_SIZE - 1;
+
+    /** The minimum bound for the x values of elements */
+    private int minimumX;
+    /** The maximum bound for the x values of elements */
+    private int maximumX;
+    /** The minimum bound for the y values of elements */
+    private int minimumY;
+    /** The maximum bound for the y values of elements */
+    private int maximumY;
+    /** Tile x-index of the first column of the directory */
+    private int firstTileX;
+    /** Tile y-index of the first row of the directory */
+    private int firstTileY;
+    /** Number of tile rows covered by the bounds */
+    private int tileRows;
+    /**
+     * Tile directory, indexed by [tileX - firstTileX][tileY - firstTileY].
+     * Columns and tiles are both allocated lazily.
+     */
+    Tile[][] tiles;
+    /** Version in which each directory column was allocated */
+    private int[] columnVersions;
+    /** Version in which the directory was allocated */
+    private int directoryVersion;
+    /**
+     * Current version, advanced by snapshot(). Structures from older
+     * versions may be shared with a snapshot and are copied before writing.
+     */
+    private int version;
+    /** Whether this plane is a snapshot, which rejects all changes */
+    private final boolean readOnly;
+    /** Total number of elements */
+    private int size;
+
+    /**
+     * A TILE_SIZE x TILE_SIZE block of cells together with the number of
+     * non-null cells it holds.
+     */
+    static final class Tile {
+        /** Cells of the tile, stored x-major like ArrayCartesianPlane */
+        final Object[] cells;
+        /** Number of non-null cells */
+        int count;
+        /** Version of the plane in which this tile was allocated */
+        final int version;
+
+        Tile(int version) {
+            this.cells = new Object[TILE_SIZE * TILE_SIZE];
+            this.version = version;
+        }
+
+        /**
+         * Creates a copy of a tile for the given version.
+         */
+        Tile(Tile source, int version) {
+            this.cells = source.cells.clone();
+            this.count = source.count;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Constructs a new TiledCartesianPlane object with given minimum and
+     * maximum bounds. No tiles are allocated until elements are added.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX A new minimum bound for the x values of
+     *         elements.
+     * @param maximumX A new maximum bound for the x values of
+     *         elements.
+     * @param minimumY A new minimum bound for the y values of
+     *         elements.
+     * @param maximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public TiledCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        if (minimumX >= maximumX || minimumY >= maximumY) {
+            throw new IllegalArgumentException();
+        }
+
+        this.minimumX = minimumX;
+        this.maximumX = maximumX;
+        this.minimumY = minimumY;
+        this.maximumY = maximumY;
+        this.firstTileX = minimumX >> TILE_SHIFT;
+        this.firstTileY = minimumY >> TILE_SHIFT;
+        this.tileRows = (maximumY >> TILE_SHIFT) - this.firstTileY + 1;
+        this.tiles = new Tile[(maximumX >> TILE_SHIFT) - this.firstTileX + 1][];
+        this.columnVersions = new int[this.tiles.length];
+        this.readOnly = false;
+    }
+
+    /**
+     * Constructs a read-only snapshot sharing all structures of source.
+     *
+     * @param source The plane to take the snapshot of
+     */
+    TiledCartesianPlane(TiledCartesianPlane<T> source) {
+        this.minimumX = source.minimumX;
+        this.maximumX = source.maximumX;
+        this.minimumY = source.minimumY;
+        this.maximumY = source.maximumY;
+        this.firstTileX = source.firstTileX;
+        this.firstTileY = source.firstTileY;
+        this.tileRows = source.tileRows;
+        this.tiles = source.tiles;
+        this.columnVersions = source.columnVersions;
+        this.size = source.size;
+        this.readOnly = true;
+    }
+
+    /**
+     * Returns an immutable view of the current contents of the grid in O(1).
+     * Later changes to this plane are not visible in the snapshot, and the
+     * snapshot's mutators throw UnsupportedOperationException. A snapshot
+     * may be read from any number of threads once it has been safely
+     * published, e.g. through a volatile field.
+     *
+     * @return A read-only plane with the current bounds and elements
+     */
+    public TiledCartesianPlane<T> snapshot() {
+        if (this.readOnly) {
+            return this;
+        }
+        // Everything allocated so far now belongs to the snapshot as well
+        this.version++;
+        return newSnapshot();
+    }
+
+    /**
+     * Returns a new read-only plane sharing all structures of this one, for
+     * snapshot(). Subclasses return their own type.
+     */
+    TiledCartesianPlane<T> newSnapshot() {
+        return new TiledCartesianPlane<>(this);
+    }
+
+    /**
+     * Throws UnsupportedOperationException if this plane is a snapshot.
+     */
+    void checkWritable() {
+        if (this.readOnly) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Returns directory column i for writing, copying the directory and the
+     * column first if they are shared with a snapshot.
+     *
+     * @param i The index of the column in the directory
+     * @param allocate Whether to allocate the column if it is missing
+     * @return The column, or null if it is missing and allocate is false
+     */
+    private Tile[] writableColumn(int i, boolean allocate) {
+        if (this.directoryVersion != this.version) {
+            this.tiles = this.tiles.clone();
+            this.columnVersions = this.columnVersions.clone();
+            this.directoryVersion = this.version;
+        }
+        Tile[] column = this.tiles[i];
+        if (column == null) {
+            if (!allocate) {
+                return null;
+            }
+            column = new Tile[this.tileRows];
+        } else if (this.columnVersions[i] == this.version) {
+            return column;
+        } else {
+            column = column.clone();
+        }
+        this.tiles[i] = column;
+        this.columnVersions[i] = this.version;
+        return column;
+    }
+
+    /**
+     * Returns the index of the cell (x, y) inside its tile.
+     *
+     * @param x The x-coordinate of the cell
+     * @param y The y-coordinate of the cell
+     * @return the offset of the cell in Tile.cells
+     */
+    static int cellIndex(int x, int y) {
+        return ((x & TILE_MASK) << TILE_SHIFT) | (y & TILE_MASK);
+    }
+
+    /**
+     * Returns the tile holding (x, y), or null if it has not been allocated.
+     *
+     * @param x The x-coordinate of a position inside the bounds
+     * @param y The y-coordinate of a position inside the bounds
+     * @return The tile covering the position, or null
+     */
+    private Tile tileAt(int x, int y) {
+        Tile[] column = this.tiles[(x >> TILE_SHIFT) - this.firstTileX];
+        if (column == null) {
+            return null;
+        }
+        return column[(y >> TILE_SHIFT) - this.firstTileY];
+    }
+
+    /**
+     * Returns whether (x, y) lies inside the bounds of the grid.
+     *
+     * @param x The x-coordinate to check
+     * @param y The y-coordinate to check
+     * @return true if the position is inside the bounds
+     */
+    private boolean inBounds(int x, int y) {
+        return x >= this.minimumX && x <= this.maximumX
+                && y >= this.minimumY && y <= this.maximumY;
+    }
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there. Allocates the covering tile if this is its first element.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     * @throws IllegalArgumentException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public void add(int x, int y, T element) throws IllegalArgumentException {
+        checkWritable();
+        if (!inBounds(x, y)) {
+            throw new IllegalArgumentException();
+        }
+        if (element == null) {
+            remove(x, y);
+            return;
+        }
+        int j = (y >> TILE_SHIFT) - this.firstTileY;
+        Tile[] column = writableColumn((x >> TILE_SHIFT) - this.firstTileX,
+                true);
+        Tile tile = column[j];
+        if (tile == null) {
+            tile = new Tile(this.version);
+            column[j] = tile;
+        } else if (tile.version != this.version) {
+            tile = new Tile(tile, this.version);
+            column[j] = tile;
+        }
+        int index = cellIndex(x, y);
+        if (tile.cells[index] == null) {
+            tile.count++;
+            this.size++;
+        }
+        tile.cells[index] = element;
+    }
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public T get(int x, int y) throws IndexOutOfBoundsException {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        Tile tile = tileAt(x, y);
+        if (tile == null) {
+            return null;
+        }
+        return (T) tile.cells[cellIndex(x, y)];
+    }
+
+    /**
+     * Removes the element at the indicated position. A tile whose last
+     * element is removed is released.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     * @throws IndexOutOfBoundsException If the x or y value is out of
+     *         the grid's minimum/maximum bounds
+     */
+    public boolean remove(int x, int y) throws IndexOutOfBoundsException {
+        checkWritable();
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException();
+        }
+        Tile tile = tileAt(x, y);
+        if (tile == null) {
+            return false;
+        }
+        int index = cellIndex(x, y);
+        if (tile.cells[index] == null) {
+            return false;
+        }
+        int j = (y >> TILE_SHIFT) - this.firstTileY;
+        Tile[] column = writableColumn((x >> TILE_SHIFT) - this.firstTileX,
+                false);
+        this.size--;
+        if (tile.count == 1) {
+            column[j] = null;
+            return true;
+        }
+        if (tile.version != this.version) {
+            tile = new Tile(tile, this.version);
+            column[j] = tile;
+        }
+        tile.cells[index] = null;
+        tile.count--;
+        return true;
+    }
+
+    /**
+     * Removes all elements stored in the grid by dropping every tile.
+     */
+    public void clear() {
+        checkWritable();
+        this.tiles = new Tile[this.tiles.length][];
+        this.columnVersions = new int[this.tiles.length];
+        this.directoryVersion = this.version;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of elements stored in the grid.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the grid holds no elements.
+     *
+     * @return true if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return The minimum bound for the x values of elements
+     */
+    public int getMinimumX() {
+        return this.minimumX;
+    }
+
+    /**
+     * @return The maximum bound for the x values of elements
+     */
+    public int getMaximumX() {
+        return this.maximumX;
+    }
+
+    /**
+     * @return The minimum bound for the y values of elements
+     */
+    public int getMinimumY() {
+        return this.minimumY;
+    }
+
+    /**
+     * @return The maximum bound for the y values of elements
+     */
+    public int getMaximumY() {
+        return this.maximumY;
+    }
+
+    /**
+     * Visits every element whose position lies in the rectangle
+     * [x0, x1] x [y0, y1]. Unallocated tiles are skipped without looking at
+     * their cells.
+     *
+     * @param x0 The minimum x-coordinate of the rectangle
+     * @param x1 The maximum x-coordinate of the rectangle
+     * @param y0 The minimum y-coordinate of the rectangle
+     * @param y1 The maximum y-coordinate of the rectangle
+     * @param consumer The operation to perform on each element
+     */
+    public void forEachInRect(int x0, int x1, int y0, int y1,
+            CellConsumer<? super T> consumer) {
+        int fromX = Math.max(x0, this.minimumX);
+        int toX = Math.min(x1, this.maximumX);
+        int fromY = Math.max(y0, this.minimumY);
+        int toY = Math.min(y1, this.maximumY);
+        if (fromX > toX || fromY > toY || this.size == 0) {
+            return;
+        }
+        for (int tx = fromX >> TILE_SHIFT; tx <= toX >> TILE_SHIFT; tx++) {
+            Tile[] column = this.tiles[tx - this.firstTileX];
+            if (column == null) {
+                continue;
+            }
+            int tileMinX = tx << TILE_SHIFT;
+            int cellFromX = Math.max(fromX, tileMinX) - tileMinX;
+            int cellToX = Math.min(toX, tileMinX + TILE_MASK) - tileMinX;
+            for (int ty = fromY >> TILE_SHIFT; ty <= toY >> TILE_SHIFT; ty++) {
+                Tile tile = column[ty - this.firstTileY];
+                if (tile == null) {
+                    continue;
+                }
+                int tileMinY = ty << TILE_SHIFT;
+                int cellFromY = Math.max(fromY, tileMinY) - tileMinY;
+                int cellToY = Math.min(toY, tileMinY + TILE_MASK) - tileMinY;
+                for (int i = cellFromX; i <= cellToX; i++) {
+                    for (int j = cellFromY; j <= cellToY; j++) {
+                        Object element = tile.cells[(i << TILE_SHIFT) | j];
+                        if (element != null) {
+                            consumer.accept(tileMinX + i, tileMinY + j,
+                                    (T) element);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes the size of the grid. Existing elements should remain at the
+     * same (x, y) coordinate If a resizing operation has invalid dimensions or
+     * causes an element to be lost, the grid should remain unmodified and an
+     * IllegalArgumentException thrown
+     *
+     * Only tile references are moved; cells are never copied.
+     *
+     * @param newMinimumX A new minimum bound for the x values of
+     *         elements.
+     * @param newMaximumX A new maximum bound for the x values of
+     *         elements.
+     * @param newMinimumY A new minimum bound for the y values of
+     *         elements.
+     * @param newMaximumY A new maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max) or if an element
+     *         would be lost after this resizing operation
+     */
+    public void resize(int newMinimumX, int newMaximumX, int newMinimumY,
+            int newMaximumY) throws IllegalArgumentException {
+        checkWritable();
+        if (newMaximumX < newMinimumX || newMaximumY < newMinimumY) {
+            throw new IllegalArgumentException();
+        }
+        // Check every tile that is not fully inside the new bounds first, so
+        // the grid stays unmodified when an element would be lost
+        for (int i = 0; i < this.tiles.length; i++) {
+            Tile[] column = this.tiles[i];
+            if (column == null) {
+                continue;
+            }
+            int tileMinX = (this.firstTileX + i) << TILE_SHIFT;
+            for (int j = 0; j < column.length; j++) {
+                if (column[j] != null && !tileFits(column[j], tileMinX,
+                        (this.firstTileY + j) << TILE_SHIFT, newMinimumX,
+                        newMaximumX, newMinimumY, newMaximumY)) {
+                    throw new IllegalArgumentException();
+                }
+            }
+        }
+
+        int newFirstTileX = newMinimumX >> TILE_SHIFT;
+        int newFirstTileY = newMinimumY >> TILE_SHIFT;
+        int newTileRows = (newMaximumY >> TILE_SHIFT) - newFirstTileY + 1;
+        Tile[][] newTiles =
+                new Tile[(newMaximumX >> TILE_SHIFT) - newFirstTileX + 1][];
+        int[] newColumnVersions = new int[newTiles.length];
+        for (int i = 0; i < this.tiles.length; i++) {
+            Tile[] column = this.tiles[i];
+            if (column == null) {
+                continue;
+            }
+            Tile[] newColumn = null;
+            for (int j = 0; j < column.length; j++) {
+                if (column[j] == null) {
+                    continue;
+                }
+                // Occupied tiles were checked above, so they fit the new
+                // directory
+                if (newColumn == null) {
+                    newColumn = new Tile[newTileRows];
+                    newTiles[this.firstTileX + i - newFirstTileX] = newColumn;
+                    newColumnVersions[this.firstTileX + i - newFirstTileX] =
+                            this.version;
+                }
+                newColumn[this.firstTileY + j - newFirstTileY] = column[j];
+            }
+        }
+
+        this.minimumX = newMinimumX;
+        this.maximumX = newMaximumX;
+        this.minimumY = newMinimumY;
+        this.maximumY = newMaximumY;
+        this.firstTileX = newFirstTileX;
+        this.firstTileY = newFirstTileY;
+        this.tileRows = newTileRows;
+        this.tiles = newTiles;
+        this.columnVersions = newColumnVersions;
+        this.directoryVersion = this.version;
+    }
+
+    /**
+     * Returns whether every element of a tile lies inside the given bounds.
+     *
+     * @param tile The tile to check
+     * @param tileMinX The x-coordinate of the tile's first column
+     * @param tileMinY The y-coordinate of the tile's first row
+     * @param minX The minimum x bound
+     * @param maxX The maximum x bound
+     * @param minY The minimum y bound
+     * @param maxY The maximum y bound
+     * @return true if no element of the tile is outside the bounds
+     */
+    private static boolean tileFits(Tile tile, int tileMinX, int tileMinY,
+            int minX, int maxX, int minY, int maxY) {
+        if (tileMinX >= minX && tileMinX + TILE_MASK <= maxX
+                && tileMinY >= minY && tileMinY + TILE_MASK <= maxY) {
+            return true;
+        }
+        for (int index = 0; index < tile.cells.length; index++) {
+            if (tile.cells[index] == null) {
+                continue;
+            }
+            int x = tileMinX + (index >> TILE_SHIFT);
+            int y = tileMinY + (index & TILE_MASK);
+            if (x < minX || x > maxX || y < minY || y > maxY) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
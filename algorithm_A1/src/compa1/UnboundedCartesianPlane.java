@@ -0,0 +1,177 @@
+package compa1;
+
+/**
+ * A TiledCartesianPlane without fixed bounds. Adding an element outside the
+ * current bounds grows them instead of throwing, and get() or remove()
+ * outside the bounds find nothing.
+ *
+ * The bounds grow in whole chunks, at least doubling on the side that grew,
+ * so a plane filled in any order resizes O(log n) times. Growing only
+ * re-indexes the tile directory; no element or tile is ever copied.
+ *
+ * @param <T> The type of element held in the data structure
+ */
+public class UnboundedCartesianPlane<T> extends TiledCartesianPlane<T> {
+    /** Smallest step in which the bounds grow, a multiple of TILE_SIZE */
+    static final int CHUNK_SIZE = 16 * TILE_SIZE;
+
+    /**
+     * Constructs a new, empty UnboundedCartesianPlane whose initial bounds
+     * cover one chunk on each side of the origin.
+     */
+    public UnboundedCartesianPlane() {
+        super(-CHUNK_SIZE, CHUNK_SIZE - 1, -CHUNK_SIZE, CHUNK_SIZE - 1);
+    }
+
+    /**
+     * Constructs a new, empty UnboundedCartesianPlane with given initial
+     * bounds.
+     *
+     * Note that these bounds are allowed to be negative.
+     *
+     * @param minimumX The initial minimum bound for the x values of
+     *         elements.
+     * @param maximumX The initial maximum bound for the x values of
+     *         elements.
+     * @param minimumY The initial minimum bound for the y values of
+     *         elements.
+     * @param maximumY The initial maximum bound for the y values of
+     *         elements.
+     * @throws IllegalArgumentException if the x minimum is greater
+     *         than the x maximum (and resp. with y min/max)
+     */
+    public UnboundedCartesianPlane(int minimumX, int maximumX, int minimumY,
+            int maximumY) throws IllegalArgumentException {
+        super(minimumX, maximumX, minimumY, maximumY);
+    }
+
+    /**
+     * Constructs a read-only snapshot sharing all structures of source.
+     *
+     * @param source The plane to take the snapshot of
+     */
+    private UnboundedCartesianPlane(UnboundedCartesianPlane<T> source) {
+        super(source);
+    }
+
+    /**
+     * Returns an immutable view of the current contents of the grid in O(1),
+     * as TiledCartesianPlane.snapshot() does. Like this plane, the snapshot
+     * finds nothing outside its bounds instead of throwing.
+     *
+     * @return A read-only plane with the current bounds and elements
+     */
+    @Override
+    public UnboundedCartesianPlane<T> snapshot() {
+        return (UnboundedCartesianPlane<T>) super.snapshot();
+    }
+
+    @Override
+    UnboundedCartesianPlane<T> newSnapshot() {
+        return new UnboundedCartesianPlane<>(this);
+    }
+
+    /**
+     * Returns whether (x, y) lies inside the current bounds of the grid.
+     */
+    private boolean covers(int x, int y) {
+        return x >= getMinimumX() && x <= getMaximumX()
+                && y >= getMinimumY() && y <= getMaximumY();
+    }
+
+    /**
+     * Add an element at a fixed position, overriding any existing element
+     * there. A position outside the current bounds grows them first.
+     *
+     * @param x The x-coordinate of the element's position
+     * @param y The y-coordinate of the element's position
+     * @param element The element to be added at the indicated
+     *         position
+     */
+    @Override
+    public void add(int x, int y, T element) {
+        if (!covers(x, y)) {
+            checkWritable();
+            if (element == null) {
+                return;
+            }
+            grow(x, y);
+        }
+        super.add(x, y, element);
+    }
+
+    /**
+     * Returns the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to retrieve
+     * @param y The y-coordinate of the element to retrieve
+     * @return The element at this position, or null is no elements exist
+     */
+    @Override
+    public T get(int x, int y) {
+        if (!covers(x, y)) {
+            return null;
+        }
+        return super.get(x, y);
+    }
+
+    /**
+     * Removes the element at the indicated position.
+     *
+     * @param x The x-coordinate of the element to remove
+     * @param y The y-coordinate of the element to remove
+     * @return true if an element was successfully removed, false if no element
+     *         exists at (x, y)
+     */
+    @Override
+    public boolean remove(int x, int y) {
+        if (!covers(x, y)) {
+            checkWritable();
+            return false;
+        }
+        return super.remove(x, y);
+    }
+
+    /**
+     * Grows the bounds so they cover (x, y).
+     *
+     * @param x The x-coordinate to cover
+     * @param y The y-coordinate to cover
+     */
+    private void grow(int x, int y) {
+        resize(growMin(getMinimumX(), getMaximumX(), x),
+                growMax(getMinimumX(), getMaximumX(), x),
+                growMin(getMinimumY(), getMaximumY(), y),
+                growMax(getMinimumY(), getMaximumY(), y));
+    }
+
+    /**
+     * Returns the new minimum of the range [min, max] after growing it to
+     * cover value: unchanged if value is not below it, otherwise extended by
+     * at least the range's length and CHUNK_SIZE and aligned to a chunk.
+     */
+    private static int growMin(int min, int max, int value) {
+        if (value >= min) {
+            return min;
+        }
+        long step = Math.max((long) max - min + 1, CHUNK_SIZE);
+        long grown = Math.min((long) value, min - step);
+        grown = Math.floorDiv(grown, CHUNK_SIZE) * CHUNK_SIZE;
+        return (int) Math.max(grown, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Returns the new maximum of the range [min, max] after growing it to
+     * cover value, mirroring growMin().
+     */
+    private static int growMax(int min, int max, int value) {
+        if (value <= max) {
+            return max;
+        }
+        long step = Math.max((long) max - min + 1, CHUNK_SIZE);
+        long grown = Math.max((long) value, max + step);
+        grown = Math.floorDiv(grown, CHUNK_SIZE) * CHUNK_SIZE
+                + CHUNK_SIZE - 1;
+        return (int) Math.min(grown, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,408 @@
+package compa1;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+import static org.junit.Assert.fail;
+
+/**
+ * Sample tests for ArrayCartesianPlane. Note that these tests are not
+ * comprehensive (the marking suite comprises of more tests) and that passing
+ * all the tests do NOT guarantee full marks.
+ *
+ * It is recommended to add more tests (especially for edge cases). This file
+ * should NOT be submitted with your assignment.
+ */
+public class CartesianPlaneTest {
+    private CartesianPlane<Integer> plane;
+
+    /**
+     * Creates the plane under test. Tests for other CartesianPlane
+     * implementations override this to run the same contract.
+     */
+    protected <E> CartesianPlane<E> createPlane(int minimumX, int maximumX,
+            int minimumY, int maximumY) {
+        return new ArrayCartesianPlane<>(minimumX, maximumX, minimumY, maximumY);
+    }
+
+    @Before
+    public void setup() {
+        plane = createPlane(0, 5, 0, 5);
+    }
+
+    @Test
+    public void testValidConstructor() {
+        for (int i = 0; i <= 5; i++) {
+            for (int j = 0; j <= 5; j++) {
+                plane.add(i, j, 1);
+            }
+        }
+
+        for (int i = 0; i <= 5; i++) {
+            for (int j = 0; j <= 5; j++) {
+                if (plane.get(i, j) != 1) {
+                    fail();
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        CartesianPlane<String> bad = createPlane(-2, 0, 5, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidGet() {
+        plane.get(-2, 7);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAdd() {
+        plane.add(-3, 7, 4);
+    }
+
+    @Test
+    public void testEdgeCoordAdd() {
+        plane.add(5, 5, 2);
+        assertEquals(Integer.valueOf(2), plane.get(5, 5));
+    }
+
+    @Test
+    public void testRemove() {
+        plane.add(1, 2, 5);
+        assertTrue(plane.remove(1, 2));
+    }
+
+    @Test
+    public void testRemoveNonElement() {
+        assertFalse(plane.remove(1, 2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRemove() {
+        plane.remove(-1, 8);
+    }
+
+    @Test
+    public void testClear() {
+        plane.clear();
+        for (int i = 0; i <= 5; i++) {
+            for (int j = 0; j <= 5; j++) {
+                if (plane.get(i, j) != null) {
+                    fail();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testValidResize() {
+        plane.add(0, 0, 1);
+        plane.add(1, 1, 1);
+        plane.add(2, 2, 1);
+        plane.add(3, 3, 1);
+        plane.add(4, 4, 1);
+        plane.add(5, 5, 1);
+        plane.resize(0, 6, 0, 6);
+        for (int i = 0; i <= 6; i++) {
+            for (int j = 0; j <= 6; j++) {
+                if (i == j && i != 6) {
+                    if (plane.get(i, j) != 1) {
+                        fail();
+                    }
+                } else {
+                    if (plane.get(i, j) != null) {
+                        fail();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testResizeMovedMinimum() {
+        plane.add(1, 2, 1);
+        plane.add(4, 5, 2);
+        plane.resize(-3, 4, 2, 9);
+        assertEquals(Integer.valueOf(1), plane.get(1, 2));
+        assertEquals(Integer.valueOf(2), plane.get(4, 5));
+        assertNull(plane.get(-3, 9));
+        plane.add(-3, 9, 3);
+        assertEquals(Integer.valueOf(3), plane.get(-3, 9));
+    }
+
+    @Test
+    public void testSize() {
+        assertTrue(plane.isEmpty());
+        plane.add(1, 1, 1);
+        plane.add(1, 1, 2);
+        plane.add(2, 3, 3);
+        assertEquals(2, plane.size());
+        plane.remove(1, 1);
+        plane.remove(1, 1);
+        assertEquals(1, plane.size());
+        plane.clear();
+        assertEquals(0, plane.size());
+        assertTrue(plane.isEmpty());
+    }
+
+    @Test
+    public void testResizeAfterRemovingEdgeElements() {
+        plane.add(0, 0, 1);
+        plane.add(5, 5, 2);
+        plane.add(2, 3, 3);
+        plane.remove(0, 0);
+        plane.remove(5, 5);
+        plane.resize(2, 2, 3, 3);
+        assertEquals(Integer.valueOf(3), plane.get(2, 3));
+        assertEquals(1, plane.size());
+    }
+
+    @Test
+    public void testResizeToLiveBoundsAfterChurn() {
+        for (int i = 0; i <= 5; i++) {
+            for (int j = 0; j <= 5; j++) {
+                plane.add(i, j, i * 6 + j);
+            }
+        }
+        for (int i = 0; i <= 5; i++) {
+            for (int j = 0; j <= 5; j++) {
+                if (i != 3 || (j != 1 && j != 4)) {
+                    plane.remove(i, j);
+                }
+            }
+        }
+        plane.resize(3, 3, 1, 4);
+        assertEquals(Integer.valueOf(19), plane.get(3, 1));
+        assertEquals(Integer.valueOf(22), plane.get(3, 4));
+        assertNull(plane.get(3, 2));
+        assertEquals(2, plane.size());
+    }
+
+    @Test
+    public void testResizeEmptyAnywhere() {
+        plane.add(4, 4, 1);
+        plane.remove(4, 4);
+        plane.resize(100, 200, -200, -100);
+        plane.add(150, -150, 1);
+        assertEquals(Integer.valueOf(1), plane.get(150, -150));
+    }
+
+    @Test
+    public void testClearThenReuse() {
+        plane.add(1, 4, 1);
+        plane.add(3, 2, 2);
+        plane.clear();
+        plane.add(5, 0, 3);
+        assertNull(plane.get(1, 4));
+        assertNull(plane.get(3, 2));
+        assertEquals(Integer.valueOf(3), plane.get(5, 0));
+        plane.resize(5, 5, 0, 0);
+        assertEquals(Integer.valueOf(3), plane.get(5, 0));
+    }
+
+    @Test
+    public void testForEachInRect() {
+        plane.add(0, 0, 1);
+        plane.add(2, 3, 2);
+        plane.add(4, 1, 3);
+        plane.add(5, 5, 4);
+        Set<String> visited = new HashSet<>();
+        plane.forEachInRect(1, 4, -10, 3,
+                (x, y, element) -> visited.add(x + "," + y + "=" + element));
+        Set<String> expected = new HashSet<>();
+        expected.add("2,3=2");
+        expected.add("4,1=3");
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void testParallelStream() {
+        CartesianPlane<Integer> big = createPlane(-100, 299, -50, 249);
+        long expectedSum = 0;
+        int expectedCount = 0;
+        for (int x = -100; x <= 299; x += 3) {
+            for (int y = -50; y <= 249; y += 7) {
+                big.add(x, y, x + y);
+                expectedSum += x + y;
+                expectedCount++;
+            }
+        }
+        Spliterator<Cell<Integer>> spliterator = big.spliterator();
+        assertNotNull(spliterator.trySplit());
+        assertEquals(expectedCount,
+                StreamSupport.stream(big.spliterator(), true).count());
+        assertEquals(expectedSum, StreamSupport.stream(big.spliterator(), true)
+                .mapToLong(cell -> cell.getElement()).sum());
+        assertTrue(StreamSupport.stream(big.spliterator(), true)
+                .allMatch(cell -> cell.getElement()
+                        == cell.getX() + cell.getY()));
+    }
+
+    @Test
+    public void testSpliteratorTryAdvance() {
+        plane.add(1, 5, 1);
+        plane.add(3, 0, 2);
+        Spliterator<Cell<Integer>> spliterator = plane.spliterator();
+        Set<Integer> seen = new HashSet<>();
+        assertTrue(spliterator.tryAdvance(cell -> seen.add(cell.getElement())));
+        spliterator.forEachRemaining(cell -> seen.add(cell.getElement()));
+        assertEquals(2, seen.size());
+        assertFalse(spliterator.tryAdvance(cell -> fail()));
+    }
+
+    @Test
+    public void testSpliteratorAtMaximumBounds() {
+        CartesianPlane<Integer> edge = createPlane(Integer.MAX_VALUE - 10,
+                Integer.MAX_VALUE, 0, 10);
+        edge.add(Integer.MAX_VALUE - 3, 4, 5);
+        edge.add(Integer.MAX_VALUE, 10, 5);
+        assertTrue(StreamSupport.stream(edge.spliterator(), false)
+                .allMatch(cell -> cell.getElement() == 5));
+        Spliterator<Cell<Integer>> spliterator = edge.spliterator();
+        int[] visits = new int[1];
+        assertTrue(spliterator.tryAdvance(cell -> visits[0]++));
+        assertTrue(spliterator.tryAdvance(cell -> visits[0]++));
+        assertFalse(spliterator.tryAdvance(cell -> visits[0]++));
+        spliterator.forEachRemaining(cell -> visits[0]++);
+        assertEquals(2, visits[0]);
+
+        // A spliterator exhausted by forEachRemaining() stays exhausted
+        spliterator = edge.spliterator();
+        spliterator.forEachRemaining(cell -> visits[0]++);
+        spliterator.forEachRemaining(cell -> visits[0]++);
+        assertFalse(spliterator.tryAdvance(cell -> visits[0]++));
+        assertEquals(4, visits[0]);
+    }
+
+    @Test
+    public void testAddAll() {
+        plane.add(1, 1, 9);
+        plane.addAll(new int[]{0, 1, 5, 3}, new int[]{0, 1, 5, 2},
+                new Integer[]{1, 2, 3, null});
+        assertEquals(Integer.valueOf(1), plane.get(0, 0));
+        assertEquals(Integer.valueOf(2), plane.get(1, 1));
+        assertEquals(Integer.valueOf(3), plane.get(5, 5));
+        assertNull(plane.get(3, 2));
+        assertEquals(3, plane.size());
+        plane.resize(0, 5, 0, 5);
+    }
+
+    @Test
+    public void testAddAllThenNullSameCell() {
+        plane.add(5, 5, 7);
+        plane.addAll(new int[]{0, 0}, new int[]{0, 0},
+                new Integer[]{1, null});
+        assertNull(plane.get(0, 0));
+        assertEquals(1, plane.size());
+        try {
+            plane.resize(0, 1, 0, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(Integer.valueOf(7), plane.get(5, 5));
+        }
+    }
+
+    @Test
+    public void testInvalidAddAllLeavesPlane() {
+        try {
+            plane.addAll(new int[]{0, 6}, new int[]{0, 0},
+                    new Integer[]{1, 2});
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNull(plane.get(0, 0));
+            assertTrue(plane.isEmpty());
+        }
+    }
+
+    @Test
+    public void testFillAndRemoveRect() {
+        plane.add(2, 2, 7);
+        plane.fillRect(1, 3, 0, 4, 1);
+        assertEquals(15, plane.size());
+        assertEquals(Integer.valueOf(1), plane.get(2, 2));
+        assertNull(plane.get(0, 0));
+        assertNull(plane.get(4, 4));
+        assertEquals(6, plane.removeRect(1, 2, 2, 4));
+        assertEquals(9, plane.size());
+        assertNull(plane.get(2, 3));
+        assertEquals(Integer.valueOf(1), plane.get(3, 4));
+        assertEquals(9, plane.removeRect(0, 5, 0, 5));
+        assertTrue(plane.isEmpty());
+        plane.resize(10, 20, 10, 20);
+    }
+
+    @Test
+    public void testRemoveRectTightensBounds() {
+        plane.fillRect(0, 5, 0, 5, 1);
+        plane.removeRect(0, 5, 0, 1);
+        plane.removeRect(3, 5, 0, 5);
+        plane.resize(0, 2, 2, 5);
+        assertEquals(12, plane.size());
+    }
+
+    @Test
+    public void testForEachMatchesGet() {
+        CartesianPlane<Integer> big = createPlane(-70, 70, -130, 130);
+        big.fillRect(-70, -60, -130, 130, 1);
+        big.removeRect(-65, -62, -100, 100);
+        big.add(0, 0, 2);
+        big.add(70, 130, 3);
+        big.remove(-70, -130);
+        big.resize(-80, 200, -200, 150);
+        big.add(200, -200, 4);
+        Set<String> visited = new HashSet<>();
+        big.forEach((x, y, element) -> {
+            assertEquals(big.get(x, y), element);
+            assertTrue(visited.add(x + "," + y));
+        });
+        assertEquals(big.size(), visited.size());
+        int count = 0;
+        for (int x = -80; x <= 200; x++) {
+            for (int y = -200; y <= 150; y++) {
+                if (big.get(x, y) != null) {
+                    count++;
+                }
+            }
+        }
+        assertEquals(count, visited.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFillRect() {
+        plane.fillRect(0, 6, 0, 5, 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRemoveRect() {
+        plane.removeRect(-1, 5, 0, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResizeArgsX() {
+        plane.resize(6, 2, 1, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResizeArgsY() {
+        plane.resize(1, 3, 7, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResizeArgsBoth() {
+        plane.resize(7, 1, 7, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResizeExistingElement() {
+        plane.add(3, 3, 3);
+        plane.resize(2, 4, 0, 2);
+    }
+}
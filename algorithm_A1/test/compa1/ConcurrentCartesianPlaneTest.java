@@ -0,0 +1,139 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the CartesianPlane contract against ConcurrentCartesianPlane, plus
+ * tests for its atomic operations under contention.
+ */
+public class ConcurrentCartesianPlaneTest extends CartesianPlaneTest {
+
+    @Override
+    protected <E> CartesianPlane<E> createPlane(int minimumX, int maximumX,
+            int minimumY, int maximumY) {
+        return new ConcurrentCartesianPlane<>(minimumX, maximumX, minimumY,
+                maximumY);
+    }
+
+    private static void runThreads(int count, Runnable task)
+            throws InterruptedException {
+        Thread[] threads = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            threads[i] = new Thread(task);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Test
+    public void testCompareAndSet() {
+        ConcurrentCartesianPlane<String> plane =
+                new ConcurrentCartesianPlane<>(0, 5, 0, 5);
+        String a = "a";
+        assertTrue(plane.compareAndSet(1, 1, null, a));
+        assertFalse(plane.compareAndSet(1, 1, null, "b"));
+        assertFalse(plane.compareAndSet(1, 1, new String("a"), "b"));
+        assertTrue(plane.compareAndSet(1, 1, a, null));
+        assertTrue(plane.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentCounters() throws InterruptedException {
+        ConcurrentCartesianPlane<Integer> plane =
+                new ConcurrentCartesianPlane<>(0, 3, 0, 3);
+        runThreads(4, () -> {
+            for (int i = 0; i < 10000; i++) {
+                int x = i & 3;
+                int y = (i >> 2) & 3;
+                while (true) {
+                    Integer current = plane.get(x, y);
+                    Integer next = current == null ? 1 : current + 1;
+                    if (plane.compareAndSet(x, y, current, next)) {
+                        break;
+                    }
+                }
+            }
+        });
+        int total = 0;
+        for (int x = 0; x <= 3; x++) {
+            for (int y = 0; y <= 3; y++) {
+                total += plane.get(x, y);
+            }
+        }
+        assertEquals(40000, total);
+        assertEquals(16, plane.size());
+    }
+
+    @Test
+    public void testComputeIfAbsentStoresOnce() throws InterruptedException {
+        ConcurrentCartesianPlane<Object> plane =
+                new ConcurrentCartesianPlane<>(0, 9, 0, 9);
+        Object[] seen = new Object[4];
+        AtomicInteger next = new AtomicInteger();
+        runThreads(4, () -> {
+            int me = next.getAndIncrement();
+            seen[me] = plane.computeIfAbsent(2, 3, (x, y) -> new Object());
+        });
+        for (Object value : seen) {
+            assertSame(plane.get(2, 3), value);
+        }
+        assertEquals(1, plane.size());
+    }
+
+    @Test
+    public void testComputeIfAbsentWhileShrinking()
+            throws InterruptedException {
+        ConcurrentCartesianPlane<Object> plane =
+                new ConcurrentCartesianPlane<>(0, 99, 0, 99);
+        AtomicInteger failures = new AtomicInteger();
+        Thread resizer = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                plane.remove(50, 50);
+                try {
+                    plane.resize(0, 9, 0, 9);
+                } catch (IllegalArgumentException e) {
+                    // (50, 50) was filled again in between
+                }
+                plane.resize(0, 99, 0, 99);
+            }
+        });
+        resizer.start();
+        runThreads(3, () -> {
+            for (int i = 0; i < 2000; i++) {
+                try {
+                    plane.computeIfAbsent(50, 50, (x, y) -> new Object());
+                } catch (IllegalArgumentException e) {
+                    // The plane was shrunk, as documented
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            }
+        });
+        resizer.join();
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void testResizeWhileWriting() throws InterruptedException {
+        ConcurrentCartesianPlane<Integer> plane =
+                new ConcurrentCartesianPlane<>(0, 99, 0, 99);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 100000; i++) {
+                plane.add(i % 100, (i / 100) % 100, i);
+            }
+        });
+        writer.start();
+        for (int i = 1; i <= 50; i++) {
+            plane.resize(-i, 99 + i, -i, 99 + i);
+        }
+        writer.join();
+        assertEquals(10000, plane.size());
+        assertEquals(Integer.valueOf(99999), plane.get(99, 99));
+    }
+}
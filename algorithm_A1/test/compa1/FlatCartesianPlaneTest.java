@@ -0,0 +1,62 @@
+package compa1;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the CartesianPlane contract against FlatCartesianPlane in its
+ * row-major layout, plus tests for the Morton layout.
+ */
+public class FlatCartesianPlaneTest extends CartesianPlaneTest {
+
+    @Override
+    protected <E> CartesianPlane<E> createPlane(int minimumX, int maximumX,
+            int minimumY, int maximumY) {
+        return new FlatCartesianPlane<>(minimumX, maximumX, minimumY, maximumY);
+    }
+
+    @Test
+    public void testSpreadCompact() {
+        assertEquals(0x5555, FlatCartesianPlane.spread(0xFF));
+        for (int v = 0; v < 1 << 16; v += 37) {
+            assertEquals(v, FlatCartesianPlane.compact(FlatCartesianPlane.spread(v)));
+        }
+    }
+
+    @Test
+    public void testMortonLayout() {
+        FlatCartesianPlane<Integer> morton = new FlatCartesianPlane<>(
+                -3, 9, 2, 6, FlatCartesianPlane.Layout.MORTON);
+        for (int x = -3; x <= 9; x++) {
+            for (int y = 2; y <= 6; y++) {
+                morton.add(x, y, x * 100 + y);
+            }
+        }
+        assertEquals(13 * 5, morton.size());
+        for (int x = -3; x <= 9; x++) {
+            for (int y = 2; y <= 6; y++) {
+                assertEquals(Integer.valueOf(x * 100 + y), morton.get(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testMortonResize() {
+        FlatCartesianPlane<Integer> morton = new FlatCartesianPlane<>(
+                0, 5, 0, 5, FlatCartesianPlane.Layout.MORTON);
+        morton.add(1, 4, 1);
+        morton.add(5, 0, 2);
+        morton.resize(-20, 7, -1, 30);
+        assertEquals(Integer.valueOf(1), morton.get(1, 4));
+        assertEquals(Integer.valueOf(2), morton.get(5, 0));
+        assertNull(morton.get(4, 1));
+        try {
+            morton.resize(2, 7, -1, 30);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(Integer.valueOf(1), morton.get(1, 4));
+            assertEquals(Integer.valueOf(2), morton.get(-20 + 25, 0));
+        }
+    }
+}
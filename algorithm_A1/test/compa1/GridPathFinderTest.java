@@ -0,0 +1,148 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for GridPathFinder, checking path lengths against a breadth-first
+ * search.
+ */
+public class GridPathFinderTest {
+
+    /**
+     * Returns the number of steps of a shortest path found by breadth-first
+     * search, or -1.
+     */
+    private static int referenceDistance(CartesianPlane<Boolean> plane,
+            int sx, int sy, int tx, int ty) {
+        int minX = plane.getMinimumX(), minY = plane.getMinimumY();
+        int width = plane.getMaximumX() - minX + 1;
+        int height = plane.getMaximumY() - minY + 1;
+        if (plane.get(sx, sy) != null || plane.get(tx, ty) != null) {
+            return -1;
+        }
+        int[][] distance = new int[width][height];
+        for (int[] column : distance) {
+            Arrays.fill(column, -1);
+        }
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        distance[sx - minX][sy - minY] = 0;
+        queue.add(new int[]{sx - minX, sy - minY});
+        while (!queue.isEmpty()) {
+            int[] cell = queue.poll();
+            int[][] neighbours = {{cell[0] - 1, cell[1]},
+                    {cell[0] + 1, cell[1]}, {cell[0], cell[1] - 1},
+                    {cell[0], cell[1] + 1}};
+            for (int[] n : neighbours) {
+                if (n[0] >= 0 && n[0] < width && n[1] >= 0 && n[1] < height
+                        && distance[n[0]][n[1]] < 0
+                        && plane.get(minX + n[0], minY + n[1]) == null) {
+                    distance[n[0]][n[1]] = distance[cell[0]][cell[1]] + 1;
+                    queue.add(n);
+                }
+            }
+        }
+        return distance[tx - minX][ty - minY];
+    }
+
+    /**
+     * Checks that the finder's last path is a connected walk through free
+     * cells between the given ends.
+     */
+    private static void checkPath(GridPathFinder<Boolean> finder,
+            CartesianPlane<Boolean> plane, int sx, int sy, int tx, int ty) {
+        int length = finder.getPathLength();
+        assertEquals(sx, finder.getPathX(0));
+        assertEquals(sy, finder.getPathY(0));
+        assertEquals(tx, finder.getPathX(length - 1));
+        assertEquals(ty, finder.getPathY(length - 1));
+        for (int i = 0; i < length; i++) {
+            assertNull(plane.get(finder.getPathX(i), finder.getPathY(i)));
+            if (i > 0) {
+                assertEquals(1, Math.abs(finder.getPathX(i)
+                        - finder.getPathX(i - 1)) + Math.abs(finder.getPathY(i)
+                        - finder.getPathY(i - 1)));
+            }
+        }
+    }
+
+    @Test
+    public void testRandomMazesMatchBreadthFirstSearch() {
+        Random random = new Random(19);
+        CartesianPlane<Boolean> plane = new ArrayCartesianPlane<>(
+                -30, 29, -10, 49);
+        for (int x = -30; x <= 29; x++) {
+            for (int y = -10; y <= 49; y++) {
+                if (random.nextInt(10) < 3) {
+                    plane.add(x, y, true);
+                }
+            }
+        }
+        GridPathFinder<Boolean> finder = new GridPathFinder<>(plane);
+        int found = 0;
+        for (int q = 0; q < 300; q++) {
+            int sx = random.nextInt(60) - 30, sy = random.nextInt(60) - 10;
+            int tx = random.nextInt(60) - 30, ty = random.nextInt(60) - 10;
+            int expected = referenceDistance(plane, sx, sy, tx, ty);
+            int aStar = finder.findPath(sx, sy, tx, ty);
+            assertEquals(expected, aStar);
+            if (aStar >= 0) {
+                found++;
+                assertEquals(aStar + 1, finder.getPathLength());
+                checkPath(finder, plane, sx, sy, tx, ty);
+            } else {
+                assertEquals(0, finder.getPathLength());
+            }
+            assertEquals(expected, finder.findPathDijkstra(sx, sy, tx, ty));
+        }
+        assertTrue(found > 50);
+    }
+
+    @Test
+    public void testAStarExpandsFewerCells() {
+        CartesianPlane<Boolean> plane = new HashCartesianPlane<>(
+                0, 199, 0, 199);
+        GridPathFinder<Boolean> finder = new GridPathFinder<>(plane);
+        assertEquals(199, finder.findPath(0, 100, 199, 100));
+        int aStar = finder.getExpansions();
+        assertEquals(199, finder.findPathDijkstra(0, 100, 199, 100));
+        assertTrue(aStar * 10 < finder.getExpansions());
+    }
+
+    @Test
+    public void testWallAndPredicate() {
+        CartesianPlane<Integer> plane = new ArrayCartesianPlane<>(
+                0, 9, 0, 9);
+        for (int y = 0; y < 9; y++) {
+            plane.add(5, y, 1);
+        }
+        plane.add(5, 9, 2);
+        GridPathFinder<Integer> walls = new GridPathFinder<>(plane);
+        assertEquals(-1, walls.findPath(0, 0, 9, 0));
+        GridPathFinder<Integer> doors = new GridPathFinder<>(plane,
+                element -> element != null && element == 1);
+        assertEquals(27, doors.findPath(0, 0, 9, 0));
+        assertEquals(-1, doors.findPath(5, 0, 9, 0));
+    }
+
+    @Test
+    public void testResizedPlane() {
+        CartesianPlane<Boolean> plane = new ArrayCartesianPlane<>(0, 4, 0, 4);
+        GridPathFinder<Boolean> finder = new GridPathFinder<>(plane);
+        assertEquals(8, finder.findPath(0, 0, 4, 4));
+        plane.resize(-5, 4, 0, 4);
+        assertEquals(13, finder.findPath(-5, 0, 4, 4));
+        assertEquals(-5, finder.getPathX(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidEnd() {
+        CartesianPlane<Boolean> plane = new ArrayCartesianPlane<>(0, 4, 0, 4);
+        new GridPathFinder<>(plane).findPath(0, 0, 5, 0);
+    }
+}
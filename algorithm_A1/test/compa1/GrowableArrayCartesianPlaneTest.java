@@ -0,0 +1,63 @@
+package compa1;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the CartesianPlane contract against ArrayCartesianPlane in growth
+ * mode, plus tests for slack reuse when the bounds widen.
+ */
+public class GrowableArrayCartesianPlaneTest extends CartesianPlaneTest {
+
+    @Override
+    protected <E> CartesianPlane<E> createPlane(int minimumX, int maximumX,
+            int minimumY, int maximumY) {
+        return new ArrayCartesianPlane<>(minimumX, maximumX, minimumY,
+                maximumY, true);
+    }
+
+    @Test
+    public void testColumnByColumnGrowthReallocatesLogarithmically() {
+        ArrayCartesianPlane<Integer> array = new ArrayCartesianPlane<>(
+                0, 1, 0, 1, true);
+        Object[][] backing = array.plane;
+        int reallocations = 0;
+        for (int max = 2; max <= 4096; max++) {
+            array.resize(0, max, 0, 1);
+            array.add(max, max % 2, max);
+            if (array.plane != backing) {
+                backing = array.plane;
+                reallocations++;
+            }
+        }
+        assertTrue(reallocations <= 13);
+        for (int x = 2; x <= 4096; x++) {
+            assertEquals(Integer.valueOf(x), array.get(x, x % 2));
+        }
+    }
+
+    @Test
+    public void testGrowthTowardsNegative() {
+        ArrayCartesianPlane<Integer> array = new ArrayCartesianPlane<>(
+                0, 1, 0, 1, true);
+        array.add(0, 0, 7);
+        for (int min = -1; min >= -100; min--) {
+            array.resize(min, 1, min, 1);
+            array.add(min, min, min);
+        }
+        assertEquals(Integer.valueOf(7), array.get(0, 0));
+        for (int min = -1; min >= -100; min--) {
+            assertEquals(Integer.valueOf(min), array.get(min, min));
+        }
+        assertNull(array.get(-100, 1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSlackIsOutOfBounds() {
+        ArrayCartesianPlane<Integer> array = new ArrayCartesianPlane<>(
+                0, 1, 0, 1, true);
+        array.resize(0, 2, 0, 1);
+        array.get(3, 0);
+    }
+}
@@ -0,0 +1,87 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the CartesianPlane contract against HashCartesianPlane, plus tests for
+ * collisions, removal and bounds-only resizing.
+ */
+public class HashCartesianPlaneTest extends CartesianPlaneTest {
+
+    @Override
+    protected <E> CartesianPlane<E> createPlane(int minimumX, int maximumX,
+            int minimumY, int maximumY) {
+        return new HashCartesianPlane<>(minimumX, maximumX, minimumY, maximumY);
+    }
+
+    @Test
+    public void testSparseShortCircuitStream() {
+        // Visiting each of the 4 * 10^10 cells would never finish
+        HashCartesianPlane<Integer> sparse = new HashCartesianPlane<>(
+                -100000, 100000, -100000, 100000);
+        sparse.add(-3, 99999, 1);
+        sparse.add(100000, -100000, 2);
+        assertTrue(StreamSupport.stream(sparse.spliterator(), false)
+                .anyMatch(cell -> cell.getElement() == 2));
+        assertTrue(StreamSupport.stream(sparse.spliterator(), false)
+                .allMatch(cell -> cell.getElement() > 0));
+        assertEquals(Integer.valueOf(1), StreamSupport.stream(
+                sparse.spliterator(), false).findFirst().get().getElement());
+    }
+
+    @Test
+    public void testRandomAgainstMap() {
+        HashCartesianPlane<Integer> hash = new HashCartesianPlane<>(
+                -50, 50, -50, 50);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int n = 0; n < 20000; n++) {
+            int x = random.nextInt(101) - 50;
+            int y = random.nextInt(101) - 50;
+            long key = ((long) x << 32) | (y & 0xFFFFFFFFL);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, hash.remove(x, y));
+            } else {
+                hash.add(x, y, n);
+                expected.put(key, n);
+            }
+        }
+        for (int x = -50; x <= 50; x++) {
+            for (int y = -50; y <= 50; y++) {
+                assertEquals(expected.get(((long) x << 32) | (y & 0xFFFFFFFFL)),
+                        hash.get(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testNegativeCoordinatesDistinct() {
+        HashCartesianPlane<Integer> hash = new HashCartesianPlane<>(
+                -5, 5, -5, 5);
+        hash.add(-1, 0, 1);
+        hash.add(0, -1, 2);
+        hash.add(-1, -1, 3);
+        assertEquals(Integer.valueOf(1), hash.get(-1, 0));
+        assertEquals(Integer.valueOf(2), hash.get(0, -1));
+        assertEquals(Integer.valueOf(3), hash.get(-1, -1));
+        assertNull(hash.get(0, 0));
+    }
+
+    @Test
+    public void testResizeKeepsElements() {
+        HashCartesianPlane<Integer> hash = new HashCartesianPlane<>(
+                0, 5, 0, 5);
+        hash.add(2, 3, 1);
+        hash.resize(-1000000, 1000000, 2, 3);
+        hash.add(-1000000, 2, 2);
+        assertEquals(Integer.valueOf(1), hash.get(2, 3));
+        assertEquals(Integer.valueOf(2), hash.get(-1000000, 2));
+    }
+}
@@ -0,0 +1,110 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the CartesianPlane contract against IndexedCartesianPlane and checks
+ * its spatial queries against brute force.
+ */
+public class IndexedCartesianPlaneTest extends CartesianPlaneTest {
+
+    @Override
+    protected <E> CartesianPlane<E> createPlane(int minimumX, int maximumX,
+            int minimumY, int maximumY) {
+        return new IndexedCartesianPlane<>(minimumX, maximumX, minimumY,
+                maximumY);
+    }
+
+    private static long distance(int x, int y, Cell<?> cell) {
+        long dx = cell.getX() - x;
+        long dy = cell.getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static IndexedCartesianPlane<Integer> randomPlane(Random random,
+            List<Cell<Integer>> all) {
+        IndexedCartesianPlane<Integer> plane = new IndexedCartesianPlane<>(
+                -1000, 1000, -1000, 1000);
+        for (int n = 0; n < 500; n++) {
+            int x = random.nextInt(2001) - 1000;
+            int y = random.nextInt(2001) - 1000;
+            if (plane.get(x, y) == null) {
+                plane.add(x, y, n);
+                all.add(new Cell<>(x, y, n));
+            }
+        }
+        return plane;
+    }
+
+    @Test
+    public void testNearestMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Cell<Integer>> all = new ArrayList<>();
+        IndexedCartesianPlane<Integer> plane = randomPlane(random, all);
+        for (int q = 0; q < 200; q++) {
+            int x = random.nextInt(2401) - 1200;
+            int y = random.nextInt(2401) - 1200;
+            int k = 1 + random.nextInt(20);
+            List<Cell<Integer>> found = plane.nearest(x, y, k);
+            List<Cell<Integer>> expected = new ArrayList<>(all);
+            expected.sort((a, b) -> Long.compare(distance(x, y, a),
+                    distance(x, y, b)));
+            assertEquals(k, found.size());
+            for (int i = 0; i < k; i++) {
+                assertEquals(distance(x, y, expected.get(i)),
+                        distance(x, y, found.get(i)));
+                assertEquals(plane.get(found.get(i).getX(), found.get(i).getY()),
+                        found.get(i).getElement());
+            }
+        }
+    }
+
+    @Test
+    public void testNearestMoreThanSize() {
+        IndexedCartesianPlane<Integer> plane = new IndexedCartesianPlane<>(
+                0, 100, 0, 100);
+        plane.add(3, 4, 1);
+        plane.add(90, 90, 2);
+        List<Cell<Integer>> found = plane.nearest(0, 0, 5);
+        assertEquals(2, found.size());
+        assertEquals(Integer.valueOf(1), found.get(0).getElement());
+        assertEquals(Integer.valueOf(2), found.get(1).getElement());
+        plane.clear();
+        assertTrue(plane.nearest(0, 0, 5).isEmpty());
+    }
+
+    @Test
+    public void testWithinRadiusMatchesBruteForce() {
+        Random random = new Random(11);
+        List<Cell<Integer>> all = new ArrayList<>();
+        IndexedCartesianPlane<Integer> plane = randomPlane(random, all);
+        for (int n = 0; n < 100; n++) {
+            Cell<Integer> gone = all.remove(random.nextInt(all.size()));
+            assertTrue(plane.remove(gone.getX(), gone.getY()));
+        }
+        for (int q = 0; q < 100; q++) {
+            int x = random.nextInt(2001) - 1000;
+            int y = random.nextInt(2001) - 1000;
+            int r = random.nextInt(300);
+            Set<Integer> expected = new HashSet<>();
+            for (Cell<Integer> cell : all) {
+                if (distance(x, y, cell) <= (long) r * r) {
+                    expected.add(cell.getElement());
+                }
+            }
+            Set<Integer> found = new HashSet<>();
+            for (Cell<Integer> cell : plane.withinRadius(x, y, r)) {
+                found.add(cell.getElement());
+            }
+            assertEquals(expected, found);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package compa1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for MappedIntCartesianPlane, each working on its own temporary file.
+ */
+public class MappedIntCartesianPlaneTest {
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("plane", ".bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName()
+                + ".resize"));
+    }
+
+    @Test
+    public void testAddGetRemove() throws IOException {
+        try (MappedIntCartesianPlane plane = new MappedIntCartesianPlane(file,
+                -2, 3, -1, 4, 0)) {
+            plane.add(-2, -1, 7);
+            plane.add(3, 4, -7);
+            assertEquals(7, plane.get(-2, -1));
+            assertEquals(-7, plane.get(3, 4));
+            assertEquals(0, plane.get(0, 0));
+            assertFalse(plane.contains(0, 0));
+            assertEquals(2, plane.size());
+            assertTrue(plane.remove(-2, -1));
+            assertFalse(plane.remove(-2, -1));
+            assertEquals(1, plane.size());
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        try (MappedIntCartesianPlane plane = new MappedIntCartesianPlane(file,
+                -5, 5, -5, 5, -1)) {
+            plane.add(-5, 5, 11);
+            plane.add(0, 0, -1);
+        }
+        try (MappedIntCartesianPlane plane =
+                new MappedIntCartesianPlane(file)) {
+            assertEquals(-5, plane.getMinimumX());
+            assertEquals(5, plane.getMaximumY());
+            assertEquals(-1, plane.getEmptyValue());
+            assertEquals(2, plane.size());
+            assertEquals(11, plane.get(-5, 5));
+            assertTrue(plane.contains(0, 0));
+            assertEquals(-1, plane.get(0, 0));
+            assertEquals(-1, plane.get(1, 1));
+            assertFalse(plane.contains(1, 1));
+        }
+    }
+
+    @Test
+    public void testResizeKeepsCoordinates() throws IOException {
+        try (MappedIntCartesianPlane plane = new MappedIntCartesianPlane(file,
+                0, 9, 0, 9, 0)) {
+            plane.add(2, 3, 23);
+            plane.add(9, 9, 99);
+            plane.resize(-20, 20, 1, 30);
+            assertEquals(23, plane.get(2, 3));
+            assertEquals(99, plane.get(9, 9));
+            assertEquals(0, plane.get(-20, 30));
+            assertEquals(2, plane.size());
+            plane.add(-20, 30, 5);
+        }
+        try (MappedIntCartesianPlane plane =
+                new MappedIntCartesianPlane(file)) {
+            assertEquals(-20, plane.getMinimumX());
+            assertEquals(5, plane.get(-20, 30));
+            assertEquals(23, plane.get(2, 3));
+            assertEquals(3, plane.size());
+        }
+    }
+
+    @Test
+    public void testInvalidResizeLeavesPlane() throws IOException {
+        try (MappedIntCartesianPlane plane = new MappedIntCartesianPlane(file,
+                0, 9, 0, 9, 0)) {
+            plane.add(5, 5, 1);
+            try {
+                plane.resize(0, 4, 0, 9);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // The value at (5, 5) would be lost
+            }
+            assertEquals(9, plane.getMaximumX());
+            assertEquals(1, plane.get(5, 5));
+        }
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        try (MappedIntCartesianPlane plane = new MappedIntCartesianPlane(file,
+                0, 99, 0, 99, 42)) {
+            plane.add(0, 0, 1);
+            plane.add(99, 99, 2);
+            plane.clear();
+            assertTrue(plane.isEmpty());
+            assertEquals(42, plane.get(99, 99));
+            assertFalse(plane.contains(0, 0));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenInvalidFile() throws IOException {
+        Files.write(file, new byte[100]);
+        new MappedIntCartesianPlane(file).close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAdd() throws IOException {
+        try (MappedIntCartesianPlane plane = new MappedIntCartesianPlane(file,
+                0, 5, 0, 5, 0)) {
+            plane.add(6, 0, 1);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidGet() throws IOException {
+        try (MappedIntCartesianPlane plane = new MappedIntCartesianPlane(file,
+                0, 5, 0, 5, 0)) {
+            plane.get(0, -1);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package compa1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for writeTo() and readFrom() of the primitive and reference planes,
+ * each working on its own temporary file.
+ */
+public class PlaneFormatTest {
+    private Path file;
+
+    /** Encodes strings as a length and UTF-8 bytes */
+    private static final ElementCodec<String> STRINGS =
+            new ElementCodec<String>() {
+                @Override
+                public void encode(String element, ByteBuffer buffer) {
+                    byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+                    buffer.putInt(bytes.length).put(bytes);
+                }
+
+                @Override
+                public String decode(ByteBuffer buffer) {
+                    byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+            };
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("plane", ".bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    @Test
+    public void testIntRoundTrip() throws IOException {
+        // Odd bounds that do not line up with the tiles, and enough tiles
+        // for several batches
+        IntCartesianPlane plane = new IntCartesianPlane(-350, 349, -37, 562,
+                -1);
+        Random random = new Random(20);
+        for (int k = 0; k < 5000; k++) {
+            plane.add(random.nextInt(700) - 350, random.nextInt(600) - 37,
+                    random.nextInt());
+        }
+        plane.add(349, 562, -1);
+        plane.add(-350, -37, 0);
+        try (FileChannel channel = open()) {
+            plane.writeTo(channel);
+            channel.position(0);
+            IntCartesianPlane copy = IntCartesianPlane.readFrom(channel);
+            assertEquals(channel.size(), channel.position());
+            assertEquals(-350, copy.minimumX);
+            assertEquals(562, copy.maximumY);
+            assertEquals(-1, copy.getEmptyValue());
+            assertEquals(plane.size(), copy.size());
+            for (int x = -350; x <= 349; x++) {
+                for (int y = -37; y <= 562; y++) {
+                    assertEquals(plane.contains(x, y), copy.contains(x, y));
+                    assertEquals(plane.get(x, y), copy.get(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLongAndDoubleRoundTrip() throws IOException {
+        LongCartesianPlane longs = new LongCartesianPlane(-3, 70, 5, 9, 7L);
+        longs.add(-3, 5, Long.MIN_VALUE);
+        longs.add(70, 9, 7L);
+        DoubleCartesianPlane doubles = new DoubleCartesianPlane(0, 64, -64, 0,
+                Double.NaN);
+        doubles.add(64, -64, -0.0);
+        doubles.add(0, 0, Double.NaN);
+        try (FileChannel channel = open()) {
+            longs.writeTo(channel);
+            doubles.writeTo(channel);
+            channel.position(0);
+            LongCartesianPlane longCopy = LongCartesianPlane.readFrom(channel);
+            DoubleCartesianPlane doubleCopy =
+                    DoubleCartesianPlane.readFrom(channel);
+            assertEquals(2, longCopy.size());
+            assertEquals(Long.MIN_VALUE, longCopy.get(-3, 5));
+            assertTrue(longCopy.contains(70, 9));
+            assertEquals(7L, longCopy.get(0, 7));
+            assertFalse(longCopy.contains(0, 7));
+            assertEquals(2, doubleCopy.size());
+            assertEquals(Double.doubleToRawLongBits(-0.0),
+                    Double.doubleToRawLongBits(doubleCopy.get(64, -64)));
+            assertTrue(doubleCopy.contains(0, 0));
+            assertTrue(Double.isNaN(doubleCopy.get(10, -10)));
+            assertTrue(Double.isNaN(doubleCopy.getEmptyValue()));
+        }
+    }
+
+    @Test
+    public void testEmptyPlane() throws IOException {
+        IntCartesianPlane plane = new IntCartesianPlane(0, 9, 0, 9, 3);
+        try (FileChannel channel = open()) {
+            plane.writeTo(channel);
+            channel.position(0);
+            IntCartesianPlane copy = IntCartesianPlane.readFrom(channel);
+            assertTrue(copy.isEmpty());
+            assertEquals(3, copy.get(9, 9));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongType() throws IOException {
+        try (FileChannel channel = open()) {
+            new IntCartesianPlane(0, 9, 0, 9).writeTo(channel);
+            channel.position(0);
+            LongCartesianPlane.readFrom(channel);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        IntCartesianPlane plane = new IntCartesianPlane(0, 99, 0, 99);
+        plane.add(50, 50, 1);
+        try (FileChannel channel = open()) {
+            plane.writeTo(channel);
+            channel.truncate(channel.size() - 10);
+            channel.position(0);
+            IntCartesianPlane.readFrom(channel);
+        }
+    }
+
+    @Test
+    public void testReferenceRoundTrip() throws IOException {
+        CartesianPlane<String> plane = new HashCartesianPlane<>(-100, 99,
+                -20, 179);
+        Random random = new Random(21);
+        for (int k = 0; k < 3000; k++) {
+            int x = random.nextInt(200) - 100, y = random.nextInt(200) - 20;
+            plane.add(x, y, x + "," + y);
+        }
+        // An element larger than the whole write buffer
+        StringBuilder large = new StringBuilder();
+        for (int k = 0; k < 3_000_000; k++) {
+            large.append((char) ('a' + k % 26));
+        }
+        plane.add(99, 179, large.toString());
+        try (FileChannel channel = open()) {
+            plane.writeTo(channel, STRINGS);
+            channel.position(0);
+            CartesianPlane<String> copy = CartesianPlane.readFrom(channel,
+                    STRINGS, TiledCartesianPlane::new);
+            assertTrue(copy instanceof TiledCartesianPlane);
+            assertEquals(channel.size(), channel.position());
+            assertEquals(-100, copy.getMinimumX());
+            assertEquals(179, copy.getMaximumY());
+            assertEquals(plane.size(), copy.size());
+            for (int x = -100; x <= 99; x++) {
+                for (int y = -20; y <= 179; y++) {
+                    assertEquals(plane.get(x, y), copy.get(x, y));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReferenceReadAsPrimitive() throws IOException {
+        CartesianPlane<String> plane = new ArrayCartesianPlane<>(0, 9, 0, 9);
+        plane.add(1, 1, "a");
+        try (FileChannel channel = open()) {
+            plane.writeTo(channel, STRINGS);
+            channel.position(0);
+            IntCartesianPlane.readFrom(channel);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package compa1;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for IntCartesianPlane, LongCartesianPlane and DoubleCartesianPlane.
+ */
+public class PrimitiveCartesianPlaneTest {
+
+    @Test
+    public void testIntAddGetRemove() {
+        IntCartesianPlane plane = new IntCartesianPlane(-2, 3, -1, 4);
+        plane.add(-2, -1, 7);
+        plane.add(3, 4, -7);
+        assertEquals(7, plane.get(-2, -1));
+        assertEquals(-7, plane.get(3, 4));
+        assertEquals(0, plane.get(0, 0));
+        assertFalse(plane.contains(0, 0));
+        assertEquals(2, plane.size());
+        assertTrue(plane.remove(-2, -1));
+        assertFalse(plane.remove(-2, -1));
+        assertEquals(0, plane.get(-2, -1));
+        assertEquals(1, plane.size());
+    }
+
+    @Test
+    public void testEmptyValueIsStorable() {
+        IntCartesianPlane plane = new IntCartesianPlane(0, 5, 0, 5, -1);
+        assertEquals(-1, plane.get(2, 2));
+        plane.add(2, 2, -1);
+        assertTrue(plane.contains(2, 2));
+        assertEquals(-1, plane.get(2, 2));
+        plane.add(1, 1, 5);
+        assertTrue(plane.remove(1, 1));
+        assertEquals(-1, plane.get(1, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAdd() {
+        new LongCartesianPlane(0, 5, 0, 5).add(6, 0, 1L);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidGet() {
+        new DoubleCartesianPlane(0, 5, 0, 5).get(0, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        new IntCartesianPlane(5, 0, 0, 5);
+    }
+
+    @Test
+    public void testClear() {
+        LongCartesianPlane plane = new LongCartesianPlane(0, 99, 0, 99, 42L);
+        plane.add(0, 0, Long.MAX_VALUE);
+        plane.add(99, 99, 1L);
+        plane.add(50, 3, 2L);
+        plane.clear();
+        assertTrue(plane.isEmpty());
+        for (int x = 0; x <= 99; x++) {
+            for (int y = 0; y <= 99; y++) {
+                assertEquals(42L, plane.get(x, y));
+                assertFalse(plane.contains(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testResize() {
+        DoubleCartesianPlane plane = new DoubleCartesianPlane(0, 5, 0, 5,
+                Double.NaN);
+        plane.add(1, 2, 1.5);
+        plane.add(5, 5, -2.5);
+        plane.resize(-10, 5, 2, 20);
+        assertEquals(1.5, plane.get(1, 2), 0.0);
+        assertEquals(-2.5, plane.get(5, 5), 0.0);
+        assertTrue(Double.isNaN(plane.get(-10, 20)));
+        assertEquals(2, plane.size());
+        plane.add(-10, 20, 3.0);
+        assertEquals(3.0, plane.get(-10, 20), 0.0);
+    }
+
+    @Test
+    public void testInvalidResizeLeavesPlane() {
+        IntCartesianPlane plane = new IntCartesianPlane(0, 5, 0, 5);
+        plane.add(3, 3, 3);
+        try {
+            plane.resize(0, 2, 0, 5);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(3, plane.get(3, 3));
+            assertEquals(1, plane.size());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for RegionLabeller, checking labels against a breadth-first search.
+ */
+public class RegionLabellerTest {
+
+    /**
+     * Labels the plane's regions of equal elements with a breadth-first
+     * search, numbering them in x-major scan order like RegionLabeller.
+     */
+    private static int[][] referenceLabels(CartesianPlane<Integer> plane) {
+        int minX = plane.getMinimumX(), minY = plane.getMinimumY();
+        int width = plane.getMaximumX() - minX + 1;
+        int height = plane.getMaximumY() - minY + 1;
+        int[][] labels = new int[width][height];
+        for (int[] column : labels) {
+            Arrays.fill(column, -1);
+        }
+        int next = 0;
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                Integer element = plane.get(minX + i, minY + j);
+                if (element == null || labels[i][j] >= 0) {
+                    continue;
+                }
+                int id = next++;
+                ArrayDeque<int[]> queue = new ArrayDeque<>();
+                labels[i][j] = id;
+                queue.add(new int[]{i, j});
+                while (!queue.isEmpty()) {
+                    int[] cell = queue.poll();
+                    int[][] neighbours = {{cell[0] - 1, cell[1]},
+                            {cell[0] + 1, cell[1]}, {cell[0], cell[1] - 1},
+                            {cell[0], cell[1] + 1}};
+                    for (int[] n : neighbours) {
+                        if (n[0] < 0 || n[0] >= width || n[1] < 0
+                                || n[1] >= height || labels[n[0]][n[1]] >= 0
+                                || !element.equals(plane.get(minX + n[0],
+                                        minY + n[1]))) {
+                            continue;
+                        }
+                        labels[n[0]][n[1]] = id;
+                        queue.add(n);
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+
+    private static void checkAgainstReference(CartesianPlane<Integer> plane,
+            int parallelism) {
+        RegionLabeller.Regions regions = RegionLabeller.labelEqual(plane,
+                parallelism);
+        int[][] expected = referenceLabels(plane);
+        int minX = plane.getMinimumX(), minY = plane.getMinimumY();
+        int[] sizes = new int[regions.regionCount()];
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                int region = regions.getRegion(minX + i, minY + j);
+                assertEquals(expected[i][j], region);
+                if (region >= 0) {
+                    sizes[region]++;
+                }
+            }
+        }
+        for (int r = 0; r < sizes.length; r++) {
+            assertEquals(sizes[r], regions.regionSize(r));
+        }
+    }
+
+    @Test
+    public void testRandomPlaneAcrossTiles() {
+        Random random = new Random(18);
+        CartesianPlane<Integer> plane = new ArrayCartesianPlane<>(
+                -300, 299, -20, 280);
+        for (int x = -300; x <= 299; x++) {
+            for (int y = -20; y <= 280; y++) {
+                if (random.nextInt(10) < 7) {
+                    plane.add(x, y, random.nextInt(2));
+                }
+            }
+        }
+        checkAgainstReference(plane, 1);
+        checkAgainstReference(plane, 3);
+    }
+
+    @Test
+    public void testSpiralSpanningTiles() {
+        CartesianPlane<Integer> plane = new HashCartesianPlane<>(
+                0, 599, 0, 599);
+        // Concentric square rings joined by one gap per ring: one region
+        // that winds through many tile borders
+        for (int ring = 0; ring < 300; ring += 2) {
+            int lo = ring, hi = 599 - ring;
+            for (int k = lo; k <= hi; k++) {
+                plane.add(k, lo, 1);
+                plane.add(k, hi, 1);
+                plane.add(lo, k, 1);
+                plane.add(hi, k, 1);
+            }
+            if (ring + 1 < 300) {
+                plane.add(ring + 1, 300, 1);
+            }
+        }
+        RegionLabeller.Regions regions = RegionLabeller.labelOccupied(plane,
+                2);
+        assertEquals(1, regions.regionCount());
+        assertEquals(plane.size(), regions.regionSize(0));
+        assertEquals(-1, regions.getRegion(1, 2));
+    }
+
+    @Test
+    public void testFloodFillLargeAreaWithoutRecursion() {
+        CartesianPlane<Integer> plane = new ArrayCartesianPlane<>(
+                0, 999, 0, 999);
+        plane.fillRect(0, 999, 0, 999, 0);
+        for (int y = 0; y < 999; y++) {
+            plane.add(500, y, 1);
+        }
+        int filled = RegionLabeller.floodFill(plane, 0, 0,
+                element -> element == 0, 0);
+        assertEquals(999 * 1000 + 1, filled);
+        assertEquals(Integer.valueOf(1), plane.get(500, 0));
+    }
+
+    @Test
+    public void testFloodFillRemovesArea() {
+        CartesianPlane<Integer> plane = new ArrayCartesianPlane<>(
+                -5, 5, -5, 5);
+        plane.fillRect(-2, 2, -2, 2, 7);
+        plane.add(4, 4, 7);
+        int filled = RegionLabeller.floodFill(plane, 0, 0,
+                element -> element != null, null);
+        assertEquals(25, filled);
+        assertEquals(1, plane.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidFloodFill() {
+        RegionLabeller.floodFill(new ArrayCartesianPlane<Integer>(0, 5, 0, 5),
+                6, 0, element -> true, 1);
+    }
+}
@@ -0,0 +1,110 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the CartesianPlane contract against RunLengthCartesianPlane, plus
+ * tests for splitting and merging runs.
+ */
+public class RunLengthCartesianPlaneTest extends CartesianPlaneTest {
+
+    @Override
+    protected <E> CartesianPlane<E> createPlane(int minimumX, int maximumX,
+            int minimumY, int maximumY) {
+        return new RunLengthCartesianPlane<>(minimumX, maximumX, minimumY,
+                maximumY);
+    }
+
+    @Test
+    public void testRunsSplitAndMerge() {
+        RunLengthCartesianPlane<String> map = new RunLengthCartesianPlane<>(
+                0, 99, 0, 9);
+        String water = "WATER";
+        String land = "LAND";
+        map.fillRect(0, 99, 0, 9, water);
+        assertEquals(10, map.runCount());
+        map.add(50, 5, land);
+        assertEquals(12, map.runCount());
+        assertSame(water, map.get(49, 5));
+        assertSame(land, map.get(50, 5));
+        assertSame(water, map.get(51, 5));
+        map.add(50, 5, water);
+        assertEquals(10, map.runCount());
+        map.remove(0, 0);
+        map.remove(99, 0);
+        map.remove(40, 0);
+        assertEquals(11, map.runCount());
+        assertEquals(997, map.size());
+        map.add(40, 0, water);
+        assertEquals(10, map.runCount());
+    }
+
+    @Test
+    public void testEqualButDistinctElementsDoNotMerge() {
+        RunLengthCartesianPlane<String> map = new RunLengthCartesianPlane<>(
+                0, 9, 0, 9);
+        map.add(0, 0, new String("a"));
+        map.add(1, 0, new String("a"));
+        assertEquals(2, map.runCount());
+    }
+
+    @Test
+    public void testRandomOperationsMatchMap() {
+        Random random = new Random(17);
+        Integer[] palette = {1, 2, 3};
+        RunLengthCartesianPlane<Integer> plane = new RunLengthCartesianPlane<>(
+                -20, 20, -3, 3);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int x = random.nextInt(41) - 20;
+            int y = random.nextInt(7) - 3;
+            int op = random.nextInt(10);
+            if (op < 6) {
+                Integer value = palette[random.nextInt(3)];
+                plane.add(x, y, value);
+                expected.put(((long) x << 32) | (y & 0xFFFFFFFFL), value);
+            } else if (op < 9) {
+                assertEquals(expected.remove(((long) x << 32)
+                        | (y & 0xFFFFFFFFL)) != null, plane.remove(x, y));
+            } else {
+                int x1 = Math.min(20, x + random.nextInt(8));
+                Integer value = random.nextBoolean()
+                        ? palette[random.nextInt(3)] : null;
+                if (value == null) {
+                    plane.removeRect(x, x1, y, y);
+                } else {
+                    plane.fillRect(x, x1, y, y, value);
+                }
+                for (int k = x; k <= x1; k++) {
+                    long key = ((long) k << 32) | (y & 0xFFFFFFFFL);
+                    if (value == null) {
+                        expected.remove(key);
+                    } else {
+                        expected.put(key, value);
+                    }
+                }
+            }
+            assertEquals(expected.size(), plane.size());
+        }
+        int runs = 0;
+        for (int y = -3; y <= 3; y++) {
+            Integer previous = null;
+            for (int x = -20; x <= 20; x++) {
+                Integer value = plane.get(x, y);
+                assertEquals(expected.get(((long) x << 32)
+                        | (y & 0xFFFFFFFFL)), value);
+                if (value != null && value != previous) {
+                    runs++;
+                }
+                previous = value;
+            }
+        }
+        assertEquals(runs, plane.runCount());
+    }
+}
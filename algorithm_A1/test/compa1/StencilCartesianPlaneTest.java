@@ -0,0 +1,125 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for StencilCartesianPlane.
+ */
+public class StencilCartesianPlaneTest {
+    /** Conway's Game of Life on cells holding 0.0 or 1.0 */
+    private static final StencilKernel LIFE =
+            (nw, n, ne, w, c, e, sw, s, se) -> {
+                double alive = nw + n + ne + w + e + sw + s + se;
+                return alive == 3 || (alive == 2 && c == 1) ? 1 : 0;
+            };
+
+    /** Averages a cell with its four direct neighbours */
+    private static final StencilKernel DIFFUSION =
+            (nw, n, ne, w, c, e, sw, s, se) -> 0.2 * (n + w + c + e + s);
+
+    @Test
+    public void testBlinkerOscillates() {
+        StencilCartesianPlane life = new StencilCartesianPlane(-2, 2, -2, 2);
+        life.add(-1, 0, 1);
+        life.add(0, 0, 1);
+        life.add(1, 0, 1);
+        life.step(LIFE, 1);
+        assertEquals(1.0, life.get(0, -1), 0);
+        assertEquals(1.0, life.get(0, 0), 0);
+        assertEquals(1.0, life.get(0, 1), 0);
+        assertEquals(0.0, life.get(-1, 0), 0);
+        life.step(LIFE, 2);
+        assertEquals(1.0, life.get(-1, 0), 0);
+        assertEquals(0.0, life.get(0, 1), 0);
+        assertEquals(2, life.getGeneration());
+    }
+
+    @Test
+    public void testHaloValue() {
+        StencilCartesianPlane plane = new StencilCartesianPlane(0, 1, 0, 1,
+                5.0);
+        assertEquals(5.0, plane.get(1, 1), 0);
+        plane.step((nw, n, ne, w, c, e, sw, s, se) -> nw + se, 1);
+        assertEquals(10.0, plane.get(0, 0), 0);
+    }
+
+    @Test
+    public void testParallelMatchesReference() {
+        int minX = -150, maxX = 170, minY = -20, maxY = 290;
+        StencilCartesianPlane serial = new StencilCartesianPlane(minX, maxX,
+                minY, maxY, 1.0);
+        StencilCartesianPlane parallel = new StencilCartesianPlane(minX, maxX,
+                minY, maxY, 1.0);
+        double[][] reference = new double[maxX - minX + 3][maxY - minY + 3];
+        for (double[] column : reference) {
+            Arrays.fill(column, 1.0);
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                double value = ((x * 31 + y * 17) & 15) / 4.0;
+                serial.add(x, y, value);
+                parallel.add(x, y, value);
+                reference[x - minX + 1][y - minY + 1] = value;
+            }
+        }
+        for (int g = 0; g < 5; g++) {
+            double[][] next = new double[reference.length][];
+            for (int i = 0; i < reference.length; i++) {
+                next[i] = reference[i].clone();
+            }
+            for (int i = 1; i < reference.length - 1; i++) {
+                for (int j = 1; j < reference[i].length - 1; j++) {
+                    next[i][j] = DIFFUSION.apply(reference[i - 1][j + 1],
+                            reference[i][j + 1], reference[i + 1][j + 1],
+                            reference[i - 1][j], reference[i][j],
+                            reference[i + 1][j], reference[i - 1][j - 1],
+                            reference[i][j - 1], reference[i + 1][j - 1]);
+                }
+            }
+            reference = next;
+        }
+        serial.steps(DIFFUSION, 5, 1);
+        parallel.steps(DIFFUSION, 2, 4);
+        parallel.close();
+        // A closed plane creates a new pool for the next parallel step
+        parallel.steps(DIFFUSION, 1, 4);
+        parallel.steps(DIFFUSION, 2, 3);
+        parallel.close();
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                double expected = reference[x - minX + 1][y - minY + 1];
+                assertEquals(expected, serial.get(x, y), 0);
+                assertEquals(expected, parallel.get(x, y), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testOfCopiesElements() {
+        CartesianPlane<Integer> source = new ArrayCartesianPlane<>(0, 9, 0, 9);
+        source.add(3, 4, 7);
+        StencilCartesianPlane plane = StencilCartesianPlane.of(source, -1.0);
+        assertEquals(7.0, plane.get(3, 4), 0);
+        assertEquals(-1.0, plane.get(0, 0), 0);
+        assertEquals(9, plane.getMaximumY());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidGet() {
+        new StencilCartesianPlane(0, 5, 0, 5).get(6, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAdd() {
+        new StencilCartesianPlane(0, 5, 0, 5).add(0, -1, 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new StencilCartesianPlane(0, 5, 0, 5).step(LIFE, 0);
+    }
+}
@@ -0,0 +1,109 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for SummingIntCartesianPlane, checking the rectangle aggregates
+ * against brute-force loops.
+ */
+public class SummingIntCartesianPlaneTest {
+
+    /**
+     * Checks rectSum() and rectCount() of random rectangles against loops
+     * over get() and contains().
+     */
+    private static void checkRandomRects(SummingIntCartesianPlane plane,
+            Random random) {
+        int minX = plane.minimumX, maxX = plane.maximumX;
+        int minY = plane.minimumY, maxY = plane.maximumY;
+        for (int q = 0; q < 50; q++) {
+            int x0 = minX + random.nextInt(maxX - minX + 1);
+            int x1 = x0 + random.nextInt(maxX - x0 + 1);
+            int y0 = minY + random.nextInt(maxY - minY + 1);
+            int y1 = y0 + random.nextInt(maxY - y0 + 1);
+            long sum = 0;
+            int count = 0;
+            for (int x = x0; x <= x1; x++) {
+                for (int y = y0; y <= y1; y++) {
+                    if (plane.contains(x, y)) {
+                        sum += plane.get(x, y);
+                        count++;
+                    }
+                }
+            }
+            assertEquals(sum, plane.rectSum(x0, x1, y0, y1));
+            assertEquals(count, plane.rectCount(x0, x1, y0, y1));
+        }
+    }
+
+    @Test
+    public void testAggregatesMatchBruteForce() {
+        Random random = new Random(15);
+        SummingIntCartesianPlane plane = new SummingIntCartesianPlane(
+                -17, 40, -3, 60, 7);
+        for (int i = 0; i < 2000; i++) {
+            int x = -17 + random.nextInt(58);
+            int y = -3 + random.nextInt(64);
+            if (random.nextInt(4) == 0) {
+                plane.remove(x, y);
+            } else {
+                plane.add(x, y, random.nextInt(2001) - 1000);
+            }
+        }
+        checkRandomRects(plane, random);
+        plane.resize(-40, 40, -3, 90);
+        checkRandomRects(plane, random);
+        plane.add(-40, 90, Integer.MAX_VALUE);
+        plane.add(-39, 90, Integer.MAX_VALUE);
+        assertEquals(2L * Integer.MAX_VALUE, plane.rectSum(-40, -39, 90, 90));
+        checkRandomRects(plane, random);
+    }
+
+    @Test
+    public void testResizeTooLargeLeavesPlaneUnchanged() {
+        SummingIntCartesianPlane plane = new SummingIntCartesianPlane(
+                0, 9, 0, 9);
+        plane.add(4, 5, 6);
+        try {
+            plane.resize(0, 65535, 0, 65535);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // The trees would not fit in an array
+        }
+        assertEquals(9, plane.maximumX);
+        assertEquals(6, plane.get(4, 5));
+        assertEquals(6, plane.rectSum(0, 9, 0, 9));
+    }
+
+    @Test
+    public void testEmptyValueIsNotCounted() {
+        SummingIntCartesianPlane plane = new SummingIntCartesianPlane(
+                0, 9, 0, 9, 100);
+        assertEquals(0, plane.rectSum(0, 9, 0, 9));
+        plane.add(3, 3, 100);
+        plane.add(3, 3, 5);
+        assertEquals(5, plane.rectSum(0, 9, 0, 9));
+        assertEquals(1, plane.rectCount(0, 9, 0, 9));
+        plane.clear();
+        assertEquals(0, plane.rectCount(0, 9, 0, 9));
+        assertEquals(0, plane.rectSum(0, 9, 0, 9));
+    }
+
+    @Test
+    public void testEmptyRect() {
+        SummingIntCartesianPlane plane = new SummingIntCartesianPlane(
+                0, 9, 0, 9);
+        plane.add(5, 5, 1);
+        assertEquals(0, plane.rectSum(6, 5, 0, 9));
+        assertEquals(0, plane.rectCount(0, 9, 5, 4));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRect() {
+        new SummingIntCartesianPlane(0, 9, 0, 9).rectSum(0, 10, 0, 9);
+    }
+}
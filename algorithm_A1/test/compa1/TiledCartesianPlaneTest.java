@@ -0,0 +1,156 @@
+package compa1;
+
+import org.junit.Test;
+
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the CartesianPlane contract against TiledCartesianPlane, plus tests
+ * for tile boundaries, huge sparse bounds and snapshots.
+ */
+public class TiledCartesianPlaneTest extends CartesianPlaneTest {
+
+    @Override
+    protected <E> CartesianPlane<E> createPlane(int minimumX, int maximumX,
+            int minimumY, int maximumY) {
+        return new TiledCartesianPlane<>(minimumX, maximumX, minimumY, maximumY);
+    }
+
+    @Test
+    public void testHugeSparseBounds() {
+        TiledCartesianPlane<Integer> huge = new TiledCartesianPlane<>(
+                -100000, 100000, -100000, 100000);
+        huge.add(-100000, -100000, 1);
+        huge.add(100000, 100000, 2);
+        huge.add(0, 0, 3);
+        assertEquals(Integer.valueOf(1), huge.get(-100000, -100000));
+        assertEquals(Integer.valueOf(2), huge.get(100000, 100000));
+        assertEquals(Integer.valueOf(3), huge.get(0, 0));
+        assertNull(huge.get(-1, -1));
+    }
+
+    @Test
+    public void testSparseShortCircuitStream() {
+        // Visiting each of the 4 * 10^10 cells would never finish
+        TiledCartesianPlane<Integer> sparse = new TiledCartesianPlane<>(
+                -100000, 100000, -100000, 100000);
+        sparse.add(-3, 99999, 1);
+        sparse.add(100000, -100000, 2);
+        assertTrue(StreamSupport.stream(sparse.spliterator(), false)
+                .anyMatch(cell -> cell.getElement() == 2));
+        assertTrue(StreamSupport.stream(sparse.spliterator(), false)
+                .allMatch(cell -> cell.getElement() > 0));
+        assertEquals(Integer.valueOf(1), StreamSupport.stream(
+                sparse.spliterator(), false).findFirst().get().getElement());
+    }
+
+    @Test
+    public void testTileReleasedOnRemove() {
+        TiledCartesianPlane<Integer> tiled = new TiledCartesianPlane<>(
+                -200, 200, -200, 200);
+        tiled.add(-65, 70, 1);
+        tiled.add(-64, 70, 2);
+        assertTrue(tiled.remove(-65, 70));
+        assertEquals(Integer.valueOf(2), tiled.get(-64, 70));
+        assertTrue(tiled.remove(-64, 70));
+        for (TiledCartesianPlane.Tile[] column : tiled.tiles) {
+            if (column == null) {
+                continue;
+            }
+            for (TiledCartesianPlane.Tile tile : column) {
+                assertNull(tile);
+            }
+        }
+    }
+
+    @Test
+    public void testResizeAcrossTiles() {
+        TiledCartesianPlane<Integer> tiled = new TiledCartesianPlane<>(
+                -10, 10, -10, 10);
+        tiled.add(-10, 3, 1);
+        tiled.add(10, -7, 2);
+        tiled.resize(-500, 300, -129, 64);
+        assertEquals(Integer.valueOf(1), tiled.get(-10, 3));
+        assertEquals(Integer.valueOf(2), tiled.get(10, -7));
+        tiled.add(-500, 64, 3);
+        tiled.remove(-500, 64);
+        tiled.resize(-10, 10, -7, 3);
+        assertEquals(Integer.valueOf(1), tiled.get(-10, 3));
+        assertEquals(Integer.valueOf(2), tiled.get(10, -7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResizeLosesElementInsideTile() {
+        TiledCartesianPlane<Integer> tiled = new TiledCartesianPlane<>(
+                0, 63, 0, 63);
+        tiled.add(40, 40, 1);
+        tiled.resize(0, 39, 0, 63);
+    }
+
+    @Test
+    public void testSnapshotIsIsolated() {
+        TiledCartesianPlane<Integer> tiled = new TiledCartesianPlane<>(
+                -200, 200, -200, 200);
+        tiled.add(1, 1, 1);
+        tiled.add(100, -100, 2);
+        TiledCartesianPlane<Integer> snapshot = tiled.snapshot();
+        tiled.add(1, 1, 10);
+        tiled.add(2, 2, 20);
+        tiled.remove(100, -100);
+        tiled.add(-150, 150, 30);
+        assertEquals(Integer.valueOf(1), snapshot.get(1, 1));
+        assertNull(snapshot.get(2, 2));
+        assertEquals(Integer.valueOf(2), snapshot.get(100, -100));
+        assertNull(snapshot.get(-150, 150));
+        assertEquals(2, snapshot.size());
+        assertEquals(Integer.valueOf(10), tiled.get(1, 1));
+        assertNull(tiled.get(100, -100));
+        assertEquals(3, tiled.size());
+    }
+
+    @Test
+    public void testSnapshotSharesUntouchedTiles() {
+        TiledCartesianPlane<Integer> tiled = new TiledCartesianPlane<>(
+                0, 255, 0, 255);
+        tiled.add(0, 0, 1);
+        tiled.add(200, 200, 2);
+        TiledCartesianPlane<Integer> snapshot = tiled.snapshot();
+        tiled.add(1, 1, 3);
+        assertSame(snapshot.tiles[3][3], tiled.tiles[3][3]);
+        assertNotSame(snapshot.tiles[0][0], tiled.tiles[0][0]);
+        assertNull(snapshot.get(1, 1));
+    }
+
+    @Test
+    public void testSnapshotSurvivesClearAndResize() {
+        TiledCartesianPlane<Integer> tiled = new TiledCartesianPlane<>(
+                0, 100, 0, 100);
+        tiled.add(5, 5, 1);
+        TiledCartesianPlane<Integer> first = tiled.snapshot();
+        tiled.resize(-300, 300, -300, 300);
+        tiled.add(5, 5, 2);
+        TiledCartesianPlane<Integer> second = tiled.snapshot();
+        tiled.clear();
+        assertEquals(Integer.valueOf(1), first.get(5, 5));
+        assertEquals(100, first.getMaximumX());
+        assertEquals(Integer.valueOf(2), second.get(5, 5));
+        assertEquals(-300, second.getMinimumX());
+        assertTrue(tiled.isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotRejectsAdd() {
+        TiledCartesianPlane<Integer> tiled = new TiledCartesianPlane<>(
+                0, 10, 0, 10);
+        tiled.snapshot().add(1, 1, 1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotRejectsResize() {
+        TiledCartesianPlane<Integer> tiled = new TiledCartesianPlane<>(
+                0, 10, 0, 10);
+        tiled.snapshot().resize(0, 20, 0, 20);
+    }
+}
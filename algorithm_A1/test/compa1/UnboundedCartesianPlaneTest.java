@@ -0,0 +1,106 @@
+package compa1;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for UnboundedCartesianPlane.
+ */
+public class UnboundedCartesianPlaneTest {
+
+    @Test
+    public void testAddOutsideGrows() {
+        UnboundedCartesianPlane<Integer> plane =
+                new UnboundedCartesianPlane<>(0, 10, 0, 10);
+        plane.add(5, 5, 1);
+        plane.add(-5000, 20000, 2);
+        plane.add(100000, -3, 3);
+        assertEquals(Integer.valueOf(1), plane.get(5, 5));
+        assertEquals(Integer.valueOf(2), plane.get(-5000, 20000));
+        assertEquals(Integer.valueOf(3), plane.get(100000, -3));
+        assertEquals(3, plane.size());
+        assertTrue(plane.getMinimumX() <= -5000);
+        assertTrue(plane.getMaximumY() >= 20000);
+    }
+
+    @Test
+    public void testOutsideReadsAreEmpty() {
+        UnboundedCartesianPlane<Integer> plane =
+                new UnboundedCartesianPlane<>();
+        assertNull(plane.get(Integer.MAX_VALUE, Integer.MIN_VALUE));
+        assertFalse(plane.remove(Integer.MIN_VALUE, 0));
+        plane.add(1 << 20, 0, null);
+        assertTrue(plane.getMaximumX() < 1 << 20);
+    }
+
+    @Test
+    public void testGrowthIsGeometric() {
+        UnboundedCartesianPlane<Integer> plane =
+                new UnboundedCartesianPlane<>(0, 1, 0, 1);
+        TiledCartesianPlane.Tile[][] directory = plane.tiles;
+        int resizes = 0;
+        for (int x = 0; x < 200000; x++) {
+            plane.add(x, 0, x);
+            if (plane.tiles != directory) {
+                directory = plane.tiles;
+                resizes++;
+            }
+        }
+        assertTrue(resizes <= 10);
+        assertEquals(Integer.valueOf(123456), plane.get(123456, 0));
+    }
+
+    @Test
+    public void testTilesAreNotCopied() {
+        UnboundedCartesianPlane<Integer> plane =
+                new UnboundedCartesianPlane<>(0, 63, 0, 63);
+        plane.add(1, 1, 1);
+        TiledCartesianPlane.Tile tile = plane.tiles[0][0];
+        plane.add(-100000, 100000, 2);
+        boolean found = false;
+        for (TiledCartesianPlane.Tile[] column : plane.tiles) {
+            for (int j = 0; column != null && j < column.length; j++) {
+                found |= column[j] == tile;
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testRemoveAfterGrowth() {
+        UnboundedCartesianPlane<Integer> plane =
+                new UnboundedCartesianPlane<>();
+        plane.add(-3000000, 7, 1);
+        assertTrue(plane.remove(-3000000, 7));
+        assertNull(plane.get(-3000000, 7));
+        assertTrue(plane.isEmpty());
+    }
+
+    @Test
+    public void testSnapshotOutsideReadsAreEmpty() {
+        UnboundedCartesianPlane<Integer> plane =
+                new UnboundedCartesianPlane<>(0, 10, 0, 10);
+        plane.add(5, 5, 1);
+        UnboundedCartesianPlane<Integer> snapshot = plane.snapshot();
+        plane.add(-5000, 20000, 2);
+        assertEquals(Integer.valueOf(1), snapshot.get(5, 5));
+        assertNull(snapshot.get(-5000, 20000));
+        assertNull(snapshot.get(Integer.MAX_VALUE, Integer.MIN_VALUE));
+        assertEquals(1, snapshot.size());
+        assertSame(snapshot, snapshot.snapshot());
+        try {
+            snapshot.remove(-5000, 20000);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // Snapshots reject changes even outside their bounds
+        }
+        try {
+            snapshot.add(-5000, 20000, 3);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // As above
+        }
+        assertEquals(Integer.valueOf(2), plane.get(-5000, 20000));
+    }
+}
@@ -2,6 +2,8 @@ import java.util.Arrays;
 import java.util.Collections;
 
 public class HybridSort {
+    /** Ranges shorter than this are sorted by insertion sort */
+    static final int INSERTION_CUTOFF = 100;
 
     static <T extends Comparable> void insertionSort(T[] input, int low, int high) {
         for (int i = low+1; i < high+1; i++) {
@@ -16,7 +18,8 @@ public class HybridSort {
     }
 
     static <T extends Comparable> void hybridSort(T[] input,  boolean reversed) {
-            hybridHelper(input, 0, input.length-1, false);
+            if (input.length < 2) return;
+            hybridHelper(input, 0, input.length-1, reversed);
     }
 
     static <T extends Comparable> void hybridHelper(T[] input, int low, int high, boolean reversed) {
@@ -25,13 +28,13 @@ public class HybridSort {
         right = high;
         T pivot = input[(low+high) / 2];
 
-        if (high - low + 1 < 100) {
-            insertionSort(input, low, high);
+        if (high - low + 1 < INSERTION_CUTOFF) {
+            SortingAlgorithms.insertionSort(input, low, high, reversed);
         } else {
             while(left <= right) {
 
-                while (input[left].compareTo(pivot) < 0) left++;
-                while (input[right].compareTo(pivot) > 0) right--;
+                while (SortingAlgorithms.compare(input[left], pivot, reversed) < 0) left++;
+                while (SortingAlgorithms.compare(input[right], pivot, reversed) > 0) right--;
                 if (left <= right) {
                     T temp;
                     temp = input[left];
@@ -46,7 +49,427 @@ public class HybridSort {
         }
 
     }
+    /**
+     * Sorts the given array with quick sort, finishing ranges shorter than
+     * INSERTION_CUTOFF with insertion sort, without boxing. This modifies
+     * the array in-place.
+     *
+     * @param input An array of int values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void hybridSort(int[] input, boolean reversed) {
+        hybridHelper(input, 0, input.length - 1);
+        if (reversed) SortingAlgorithms.reverse(input, 0, input.length - 1);
+    }
+
+    static void hybridHelper(int[] input, int low, int high) {
+        while (high - low + 1 >= INSERTION_CUTOFF) {
+            int left = low, right = high;
+            int pivot = input[(low + high) >>> 1];
+            while (left <= right) {
+                while (input[left] < pivot) left++;
+                while (input[right] > pivot) right--;
+                if (left <= right) {
+                    int temp = input[left];
+                    input[left] = input[right];
+                    input[right] = temp;
+                    left++;
+                    right--;
+                }
+            }
+            // Recurse into the smaller side and loop on the larger one
+            if (right - low < high - left) {
+                hybridHelper(input, low, right);
+                low = left;
+            } else {
+                hybridHelper(input, left, high);
+                high = right;
+            }
+        }
+        SortingAlgorithms.insertionSort(input, low, high);
+    }
+
+    /**
+     * Sorts the given array with quick sort, finishing ranges shorter than
+     * INSERTION_CUTOFF with insertion sort, without boxing. This modifies
+     * the array in-place.
+     *
+     * @param input An array of long values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void hybridSort(long[] input, boolean reversed) {
+        hybridHelper(input, 0, input.length - 1);
+        if (reversed) SortingAlgorithms.reverse(input, 0, input.length - 1);
+    }
+
+    static void hybridHelper(long[] input, int low, int high) {
+        while (high - low + 1 >= INSERTION_CUTOFF) {
+            int left = low, right = high;
+            long pivot = input[(low + high) >>> 1];
+            while (left <= right) {
+                while (input[left] < pivot) left++;
+                while (input[right] > pivot) right--;
+                if (left <= right) {
+                    long temp = input[left];
+                    input[left] = input[right];
+                    input[right] = temp;
+                    left++;
+                    right--;
+                }
+            }
+            // Recurse into the smaller side and loop on the larger one
+            if (right - low < high - left) {
+                hybridHelper(input, low, right);
+                low = left;
+            } else {
+                hybridHelper(input, left, high);
+                high = right;
+            }
+        }
+        SortingAlgorithms.insertionSort(input, low, high);
+    }
+
+    /**
+     * Sorts the given array with quick sort, finishing ranges shorter than
+     * INSERTION_CUTOFF with insertion sort, without boxing. This modifies
+     * the array in-place.
+     *
+     * Values are ordered as by Double.compare(), like the double overloads
+     * of SortingAlgorithms.
+     *
+     * @param input An array of double values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void hybridSort(double[] input, boolean reversed) {
+        hybridHelper(input, 0, input.length - 1);
+        if (reversed) SortingAlgorithms.reverse(input, 0, input.length - 1);
+    }
+
+    static void hybridHelper(double[] input, int low, int high) {
+        while (high - low + 1 >= INSERTION_CUTOFF) {
+            int left = low, right = high;
+            double pivot = input[(low + high) >>> 1];
+            while (left <= right) {
+                while (Double.compare(input[left], pivot) < 0) left++;
+                while (Double.compare(input[right], pivot) > 0) right--;
+                if (left <= right) {
+                    double temp = input[left];
+                    input[left] = input[right];
+                    input[right] = temp;
+                    left++;
+                    right--;
+                }
+            }
+            // Recurse into the smaller side and loop on the larger one
+            if (right - low < high - left) {
+                hybridHelper(input, low, right);
+                low = left;
+            } else {
+                hybridHelper(input, left, high);
+                high = right;
+            }
+        }
+        SortingAlgorithms.insertionSort(input, low, high);
+    }
+
+    /**
+     * Sorts the given array with the quick sort based hybridSort(), or, if
+     * adaptive is true, with an adaptive natural merge sort that runs in
+     * close to linear time on partially sorted input.
+     *
+     * The adaptive mode splits the input into runs that are already in
+     * order or strictly against it (reversing the latter in place), and
+     * extends runs shorter than MIN_RUN with binary insertion sort. It then
+     * merges neighbouring runs in the order of the "powersort" policy of
+     * Munro and Wild: the boundary between two runs gets a depth from where
+     * their midpoints fall in the array, and the runs on either side of a
+     * deep boundary are merged before those of a shallower one, which keeps
+     * the merges balanced. A merge leaves the parts of both runs that are
+     * already in place untouched, copies only the shorter run to scratch,
+     * and once one run has supplied GALLOP_AFTER elements in a row, moves
+     * the rest of its stretch at once after a binary search. It is stable,
+     * and allocates a scratch array of at most half the input.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param adaptive Whether to use the adaptive mode
+     * @requires input != null
+     */
+    static <T extends Comparable> void hybridSort(T[] input, boolean reversed, boolean adaptive) {
+        if (!adaptive) {
+            hybridSort(input, reversed);
+            return;
+        }
+        if (input.length < 2) return;
+        new NaturalMergeSort<>(input, reversed).sort();
+    }
+
+    /** Runs shorter than this are extended by binary insertion sort */
+    static final int MIN_RUN = 32;
+    /** Elements taken in a row from one run before a merge skips ahead */
+    static final int GALLOP_AFTER = 8;
+
+    /**
+     * Returns the length of the run starting at input[low] and ending at
+     * input[high] at the latest. A strictly descending run is reversed in
+     * place; descending runs must be strict so reversing keeps the sort
+     * stable.
+     */
+    static <T extends Comparable> int countRun(T[] input, int low, int high, boolean reversed) {
+        int i = low + 1;
+        if (i > high) return 1;
+        if (SortingAlgorithms.compare(input[i], input[low], reversed) < 0) {
+            while (i < high && SortingAlgorithms.compare(input[i + 1], input[i], reversed) < 0) i++;
+            reverse(input, low, i);
+        } else {
+            while (i < high && SortingAlgorithms.compare(input[i + 1], input[i], reversed) >= 0) i++;
+        }
+        return i - low + 1;
+    }
+
+    /**
+     * Reverses input[low..high] in place.
+     */
+    static <T> void reverse(T[] input, int low, int high) {
+        while (low < high) {
+            T tmp = input[low];
+            input[low++] = input[high];
+            input[high--] = tmp;
+        }
+    }
+
+    /**
+     * Sorts input[low..high], whose first sorted elements are already in
+     * order, by inserting each remaining element at the position found by
+     * binary search, after any equal elements.
+     */
+    static <T extends Comparable> void binaryInsertionSort(T[] input, int low, int high, int sorted,
+                                                           boolean reversed) {
+        for (int i = low + Math.max(sorted, 1); i <= high; i++) {
+            T item = input[i];
+            int left = SortingAlgorithms.search(input, low, i - 1, item, true, reversed);
+            System.arraycopy(input, left, input, left + 1, i - left);
+            input[left] = item;
+        }
+    }
+
+    /**
+     * Returns the depth of the boundary between the neighbouring runs
+     * [s1, e1) and [e1, e2) of an array of length n: the first level at
+     * which halving [0, n) again and again separates the midpoints of the
+     * two runs. Boundaries near the middle of the array are shallow, and
+     * the depth is at most 31.
+     */
+    static int boundaryDepth(int s1, int e1, int e2, int n) {
+        // Twice the midpoints, scaled by 2^depth, compared in units of 2n
+        long a = (long) s1 + e1, b = (long) e1 + e2, unit = 2L * n;
+        int depth = 0;
+        do {
+            a <<= 1;
+            b <<= 1;
+            depth++;
+        } while (a / unit == b / unit);
+        return depth;
+    }
+
+    /**
+     * The state of one adaptive sort: a stack of pending runs, each with the
+     * depth of the boundary after it, and the scratch array for merges.
+     */
+    private static final class NaturalMergeSort<T extends Comparable> {
+        private final T[] a;
+        private final boolean reversed;
+        /** Scratch space for the shorter run of a merge, grown on demand */
+        private T[] tmp;
+        /** Start of each pending run; each ends where the next one starts */
+        private int[] starts = new int[16];
+        /** Depth of the boundary after each pending run */
+        private int[] depths = new int[16];
+        private int pending;
+
+        NaturalMergeSort(T[] a, boolean reversed) {
+            this.a = a;
+            this.reversed = reversed;
+        }
+
+        private int compare(T x, T y) {
+            return SortingAlgorithms.compare(x, y, reversed);
+        }
+
+        /**
+         * Returns the end (exclusive) of the run starting at low, first
+         * extending it to MIN_RUN elements if it is shorter.
+         */
+        private int runEnd(int low) {
+            int n = a.length;
+            int length = countRun(a, low, n - 1, reversed);
+            if (length < MIN_RUN) {
+                int extended = Math.min(MIN_RUN, n - low);
+                binaryInsertionSort(a, low, low + extended - 1, length, reversed);
+                length = extended;
+            }
+            return low + length;
+        }
+
+        void sort() {
+            int n = a.length;
+            int start = 0, end = runEnd(0);
+            while (end < n) {
+                int nextEnd = runEnd(end);
+                int depth = boundaryDepth(start, end, nextEnd, n);
+                // Pending runs left of a deeper boundary are merged first
+                while (pending > 0 && depths[pending - 1] > depth) {
+                    int left = starts[--pending];
+                    merge(left, start, end);
+                    start = left;
+                }
+                push(start, depth);
+                start = end;
+                end = nextEnd;
+            }
+            while (pending > 0) {
+                int left = starts[--pending];
+                merge(left, start, n);
+                start = left;
+            }
+        }
+
+        /**
+         * Pushes the run starting at start, followed by a boundary of the
+         * given depth, onto the pending stack.
+         */
+        private void push(int start, int depth) {
+            if (pending == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * pending);
+                depths = Arrays.copyOf(depths, 2 * pending);
+            }
+            starts[pending] = start;
+            depths[pending] = depth;
+            pending++;
+        }
+
+        /**
+         * Returns a scratch array of at least the given length, which is at
+         * most half the input.
+         */
+        private T[] scratch(int length) {
+            if (tmp == null || tmp.length < length) {
+                int size = tmp == null ? MIN_RUN : 2 * tmp.length;
+                size = Math.max(length, Math.min(size, a.length >>> 1));
+                tmp = (T[]) new Comparable[size];
+            }
+            return tmp;
+        }
+
+        /**
+         * Merges the sorted neighbouring runs a[lo..mid-1] and a[mid..hi-1].
+         */
+        private void merge(int lo, int mid, int hi) {
+            if (compare(a[mid - 1], a[mid]) <= 0) return;
+            // Left elements not after the first right element, and right
+            // elements not before the last left element, are in place
+            lo = SortingAlgorithms.search(a, lo, mid - 1, a[mid], true, reversed);
+            hi = SortingAlgorithms.search(a, mid, hi - 1, a[mid - 1], false, reversed);
+            if (mid - lo <= hi - mid) {
+                mergeForward(lo, mid, hi);
+            } else {
+                mergeBackward(lo, mid, hi);
+            }
+        }
+
+        /**
+         * Merges from the front, with the left run copied out to scratch.
+         * On ties the left element goes first, which keeps the sort stable.
+         */
+        private void mergeForward(int lo, int mid, int hi) {
+            int len = mid - lo;
+            T[] left = scratch(len);
+            System.arraycopy(a, lo, left, 0, len);
+            int i = 0, j = mid, k = lo;
+            int leftWins = 0, rightWins = 0;
+            while (i < len && j < hi) {
+                if (compare(a[j], left[i]) < 0) {
+                    a[k++] = a[j++];
+                    leftWins = 0;
+                    if (++rightWins == GALLOP_AFTER) {
+                        // Move every right element before left[i] at once
+                        int stop = SortingAlgorithms.search(a, j, hi - 1, left[i], false, reversed);
+                        System.arraycopy(a, j, a, k, stop - j);
+                        k += stop - j;
+                        j = stop;
+                        rightWins = 0;
+                    }
+                } else {
+                    a[k++] = left[i++];
+                    rightWins = 0;
+                    if (++leftWins == GALLOP_AFTER && i < len) {
+                        // Move every left element not after a[j] at once
+                        int stop = SortingAlgorithms.search(left, i, len - 1, a[j], true, reversed);
+                        System.arraycopy(left, i, a, k, stop - i);
+                        k += stop - i;
+                        i = stop;
+                        leftWins = 0;
+                    }
+                }
+            }
+            // Whatever remains of the right run is already in place
+            System.arraycopy(left, i, a, k, len - i);
+        }
+
+        /**
+         * Merges from the back, with the right run copied out to scratch.
+         * On ties the right element goes last, which keeps the sort stable.
+         */
+        private void mergeBackward(int lo, int mid, int hi) {
+            int len = hi - mid;
+            T[] right = scratch(len);
+            System.arraycopy(a, mid, right, 0, len);
+            int i = mid - 1, j = len - 1, k = hi - 1;
+            int leftWins = 0, rightWins = 0;
+            while (i >= lo && j >= 0) {
+                if (compare(right[j], a[i]) < 0) {
+                    a[k--] = a[i--];
+                    rightWins = 0;
+                    if (++leftWins == GALLOP_AFTER && i >= lo) {
+                        // Move every left element after right[j] at once
+                        int from = SortingAlgorithms.search(a, lo, i, right[j], true, reversed);
+                        int count = i - from + 1;
+                        System.arraycopy(a, from, a, k - count + 1, count);
+                        k -= count;
+                        i = from - 1;
+                        leftWins = 0;
+                    }
+                } else {
+                    a[k--] = right[j--];
+                    leftWins = 0;
+                    if (++rightWins == GALLOP_AFTER && j >= 0) {
+                        // Move every right element not before a[i] at once
+                        int from = SortingAlgorithms.search(right, 0, j, a[i], false, reversed);
+                        int count = j - from + 1;
+                        System.arraycopy(right, from, a, k - count + 1, count);
+                        k -= count;
+                        j = from - 1;
+                        rightWins = 0;
+                    }
+                }
+            }
+            // Whatever remains of the left run is already in place
+            System.arraycopy(right, 0, a, lo, j + 1);
+        }
+    }
+
     static void sortTest(int n, String order) {
+        sortTest(n, order, false);
+    }
+
+    static void sortTest(int n, String order, boolean adaptive) {
         //initialize array
         Integer[] input = new Integer[n];
         for(int i =0; i < n; ++i) {
@@ -63,11 +486,21 @@ public class HybridSort {
             case "descending":
                 Arrays.sort(input, Collections.reverseOrder());
                 break;
+            case "partial":
+                // ascending, with 1% of the values moved to random places
+                Arrays.sort(input);
+                for (int i = 0; i < n / 100; ++i) {
+                    int a = (int) (Math.random() * n), b = (int) (Math.random() * n);
+                    Integer temp = input[a];
+                    input[a] = input[b];
+                    input[b] = temp;
+                }
+                break;
         }
         // calculate elapsed time
         long startTime, endTime, duration;
         startTime = System.nanoTime();
-        hybridSort(input, false);
+        hybridSort(input, false, adaptive);
         endTime = System.nanoTime();
         duration = (endTime - startTime);
         System.out.println((float) duration/1000000);
@@ -82,8 +515,46 @@ public class HybridSort {
 
     }
 
+    /**
+     * Times hybridSort() of n random int values in the given order, like
+     * sortTest(), and reports any pair left out of order.
+     */
+    static void primitiveSortTest(int n, String order) {
+        //initialize array
+        int[] input = new int[n];
+        for(int i =0; i < n; ++i) {
+            input[i] = (int) Math.floor(Math.random()*100000);
+        }
+
+        switch (order) {
+            case "unsorted":
+                break;
+            case "ascending":
+                Arrays.sort(input);
+                break;
+            case "descending":
+                Arrays.sort(input);
+                SortingAlgorithms.reverse(input, 0, n - 1);
+                break;
+        }
+        // calculate elapsed time
+        long startTime, endTime, duration;
+        startTime = System.nanoTime();
+        hybridSort(input, false);
+        endTime = System.nanoTime();
+        duration = (endTime - startTime);
+        System.out.println((float) duration/1000000);
+
+        // check order
+        for (int i = 0; i < input.length - 1; ++i) {
+            if (input[i] > input[i+1]) {
+                System.out.println(input[i] + "   " + input[i+1]);
+            }
+        }
+    }
+
     public static void main(String[] args) {
-        for(String order : new String[]{"ascending","unsorted", "descending"}) {
+        for(String order : new String[]{"ascending","unsorted", "descending", "partial"}) {
             System.out.println(order);
             sortTest(5, order);
             sortTest(10, order);
@@ -94,6 +565,28 @@ public class HybridSort {
             sortTest(10000, order);
             System.out.println("------------");
         }
+        for(String order : new String[]{"ascending","unsorted", "descending", "partial"}) {
+            System.out.println("adaptive   " + order);
+            sortTest(5, order, true);
+            sortTest(10, order, true);
+            sortTest(50, order, true);
+            sortTest(100, order, true);
+            sortTest(500, order, true);
+            sortTest(1000, order, true);
+            sortTest(10000, order, true);
+            System.out.println("------------");
+        }
+        for(String order : new String[]{"ascending","unsorted", "descending"}) {
+            System.out.println("int[]   " + order);
+            primitiveSortTest(5, order);
+            primitiveSortTest(10, order);
+            primitiveSortTest(50, order);
+            primitiveSortTest(100, order);
+            primitiveSortTest(500, order);
+            primitiveSortTest(1000, order);
+            primitiveSortTest(10000, order);
+            System.out.println("------------");
+        }
     }
 
 }
@@ -1,8 +1,16 @@
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class SortingAlgorithms {
     static SortingAlgorithms sortingAlgorithms = new SortingAlgorithms();
+    /** Ranges up to this length are sorted by insertion sort in merge sorts */
+    static final int INSERTION_RUN = 32;
+    /** Ranges up to this length are merge sorted on the current thread */
+    static final int SEQUENTIAL_CUTOFF = 1 << 13;
+    /** Merges of at least this many elements are split across threads */
+    static final int PARALLEL_MERGE_CUTOFF = 1 << 16;
     /**
      * Sorts the given array using the selection sort algorithm.
      * This should modify the array in-place.
@@ -179,6 +187,237 @@ public class SortingAlgorithms {
     }
 
 
+    /**
+     * Sorts the given array using merge sort on the common ForkJoinPool.
+     * This modifies the array in-place, and is stable.
+     *
+     * Ranges of up to SEQUENTIAL_CUTOFF elements are sorted on one thread,
+     * and merges of at least PARALLEL_MERGE_CUTOFF elements are themselves
+     * split across threads at a binary-searched point. The only allocation
+     * is one scratch copy of the input: each level merges from one array
+     * into the other, so no run is ever copied out before a merge.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static <T extends Comparable> void parallelMergeSort(T[] input, boolean reversed) {
+        if (input.length < 2) return;
+        T[] scratch = Arrays.copyOf(input, input.length);
+        ForkJoinPool.commonPool().invoke(
+                new SortTask<>(input, scratch, 0, input.length - 1, reversed));
+    }
+
+    /**
+     * Sorts the given array using an iterative, bottom-up merge sort.
+     * This modifies the array in-place, and is stable.
+     *
+     * Runs of INSERTION_RUN elements are first sorted by insertion sort, then
+     * merged pairwise in passes of doubling width, each pass merging from
+     * one of the input and a single auxiliary array into the other. Pairs of
+     * runs that are already in order are copied instead of merged, and the
+     * sort stops as soon as every pair is in order, so presorted input takes
+     * O(n) time.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static <T extends Comparable> void bottomUpMergeSort(T[] input, boolean reversed) {
+        int n = input.length;
+        for (int l = 0; l < n; l += INSERTION_RUN) {
+            insertionSort(input, l, Math.min(l + INSERTION_RUN, n) - 1, reversed);
+        }
+        if (inOrder(input, INSERTION_RUN, reversed)) return;
+
+        T[] src = input;
+        T[] dst = (T[]) new Comparable[n];
+        for (int width = INSERTION_RUN; width < n; width *= 2) {
+            for (int l = 0; l < n; l += 2 * width) {
+                int m = Math.min(l + width, n) - 1;
+                int r = Math.min(l + 2 * width, n) - 1;
+                if (m == r || compare(src[m], src[m + 1], reversed) <= 0) {
+                    System.arraycopy(src, l, dst, l, r - l + 1);
+                } else {
+                    mergeRuns(src, l, m, m + 1, r, dst, l, reversed);
+                }
+            }
+            T[] swap = src;
+            src = dst;
+            dst = swap;
+            if (inOrder(src, 2 * width, reversed)) break;
+        }
+        if (src != input) System.arraycopy(src, 0, input, 0, n);
+    }
+
+    /**
+     * Returns whether the sorted runs of the given width in input are in
+     * order across every boundary, i.e. whether the whole array is sorted.
+     */
+    private static <T extends Comparable> boolean inOrder(T[] input, int width, boolean reversed) {
+        for (int m = width; m < input.length; m += width) {
+            if (compare(input[m - 1], input[m], reversed) > 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a negative number, zero or a positive number as a comes before,
+     * ties with or comes after b in the requested order.
+     */
+    static <T extends Comparable> int compare(T a, T b, boolean reversed) {
+        return reversed ? b.compareTo(a) : a.compareTo(b);
+    }
+
+    /**
+     * Sorts input[low..high] in place by insertion sort.
+     */
+    static <T extends Comparable> void insertionSort(T[] input, int low, int high, boolean reversed) {
+        for (int i = low + 1; i <= high; i++) {
+            T item = input[i];
+            int j = i;
+            while (j > low && compare(input[j - 1], item, reversed) > 0) {
+                input[j] = input[j - 1];
+                j--;
+            }
+            input[j] = item;
+        }
+    }
+
+    /**
+     * Merges the sorted runs src[l1..r1] and src[l2..r2] into dst starting
+     * at index k, taking from the first run on ties so the merge is stable.
+     * Allocates nothing; src and dst must be different arrays.
+     */
+    static <T extends Comparable> void mergeRuns(T[] src, int l1, int r1, int l2, int r2,
+                                                 T[] dst, int k, boolean reversed) {
+        while (l1 <= r1 && l2 <= r2) {
+            if (compare(src[l1], src[l2], reversed) <= 0) {
+                dst[k++] = src[l1++];
+            } else {
+                dst[k++] = src[l2++];
+            }
+        }
+        System.arraycopy(src, l1, dst, k, r1 - l1 + 1);
+        System.arraycopy(src, l2, dst, k + r1 - l1 + 1, r2 - l2 + 1);
+    }
+
+    /**
+     * Returns the first index in the sorted run src[low..high] whose element
+     * comes after key, or, if inclusive is false, does not come before key.
+     * Returns high + 1 if there is none.
+     */
+    static <T extends Comparable> int search(T[] src, int low, int high, T key,
+                                             boolean inclusive, boolean reversed) {
+        high++;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int c = compare(src[mid], key, reversed);
+            if (c < 0 || (inclusive && c == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts dst[l..r], which holds the same elements as other[l..r], using
+     * other[l..r] as scratch space: the halves are sorted into other and
+     * merged back into dst. Both arrays start as copies of each other, so a
+     * range reaching the insertion cutoff always holds the original data in
+     * whichever array it is sorted in.
+     */
+    @SuppressWarnings("serial")
+    private static final class SortTask<T extends Comparable> extends RecursiveAction {
+        private final T[] dst, other;
+        private final int l, r;
+        private final boolean reversed;
+
+        SortTask(T[] dst, T[] other, int l, int r, boolean reversed) {
+            this.dst = dst;
+            this.other = other;
+            this.l = l;
+            this.r = r;
+            this.reversed = reversed;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l + 1 <= SEQUENTIAL_CUTOFF) {
+                sortInto(dst, other, l, r, reversed);
+                return;
+            }
+            int m = (l + r) >>> 1;
+            invokeAll(new SortTask<>(other, dst, l, m, reversed),
+                    new SortTask<>(other, dst, m + 1, r, reversed));
+            new MergeTask<>(other, l, m, m + 1, r, dst, l, reversed).compute();
+        }
+
+        /**
+         * The sequential version of compute().
+         */
+        static <T extends Comparable> void sortInto(T[] dst, T[] other, int l, int r, boolean reversed) {
+            if (r - l + 1 <= INSERTION_RUN) {
+                insertionSort(dst, l, r, reversed);
+                return;
+            }
+            int m = (l + r) >>> 1;
+            sortInto(other, dst, l, m, reversed);
+            sortInto(other, dst, m + 1, r, reversed);
+            mergeRuns(other, l, m, m + 1, r, dst, l, reversed);
+        }
+    }
+
+    /**
+     * Merges src[l1..r1] and src[l2..r2] into dst from index k. Large merges
+     * take the middle element of the longer run, find where it splits the
+     * shorter run by binary search, and merge both sides in parallel.
+     */
+    @SuppressWarnings("serial")
+    private static final class MergeTask<T extends Comparable> extends RecursiveAction {
+        private final T[] src, dst;
+        private final int l1, r1, l2, r2, k;
+        private final boolean reversed;
+
+        MergeTask(T[] src, int l1, int r1, int l2, int r2, T[] dst, int k, boolean reversed) {
+            this.src = src;
+            this.l1 = l1;
+            this.r1 = r1;
+            this.l2 = l2;
+            this.r2 = r2;
+            this.dst = dst;
+            this.k = k;
+            this.reversed = reversed;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = r1 - l1 + 1, n2 = r2 - l2 + 1;
+            if (n1 + n2 < PARALLEL_MERGE_CUTOFF || n1 == 0 || n2 == 0) {
+                mergeRuns(src, l1, r1, l2, r2, dst, k, reversed);
+                return;
+            }
+            int m1, m2;
+            if (n1 >= n2) {
+                // Elements of the second run tying with the split element
+                // must stay after it
+                m1 = (l1 + r1) >>> 1;
+                m2 = search(src, l2, r2, src[m1], false, reversed);
+            } else {
+                // Elements of the first run tying with the split element
+                // must stay before it
+                m2 = (l2 + r2) >>> 1;
+                m1 = search(src, l1, r1, src[m2], true, reversed);
+            }
+            invokeAll(new MergeTask<>(src, l1, m1 - 1, l2, m2 - 1, dst, k, reversed),
+                    new MergeTask<>(src, m1, r1, m2, r2, dst, k + (m1 - l1) + (m2 - l2), reversed));
+        }
+    }
+
     /**
      * Sorts the given array using the quick sort algorithm.
      * This should modify the array in-place.
@@ -294,6 +533,478 @@ public class SortingAlgorithms {
 ////        }
 //    }
 
+    /**
+     * Sorts the given array using the selection sort algorithm, without
+     * boxing. This modifies the array in-place.
+     *
+     * @param input An array of int values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void selectionSort(int[] input, boolean reversed) {
+        int length = input.length;
+        for (int i = 0; i < length - 1; ++i) {
+            int m = i;
+            for (int j = i + 1; j < length; ++j) {
+                if (input[j] < input[m]) m = j;
+            }
+
+            if (i != m) {
+                int tmp = input[i];
+                input[i] = input[m];
+                input[m] = tmp;
+            }
+        }
+        if (reversed) reverse(input, 0, length - 1);
+    }
+
+    /**
+     * Sorts the given array using the insertion sort algorithm, without
+     * boxing. This modifies the array in-place.
+     *
+     * @param input An array of int values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void insertionSort(int[] input, boolean reversed) {
+        insertionSort(input, 0, input.length - 1);
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    /**
+     * Sorts input[low..high] ascending by insertion, shifting larger values
+     * up instead of swapping.
+     */
+    static void insertionSort(int[] input, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int item = input[i];
+            int j = i;
+            while (j > low && input[j - 1] > item) {
+                input[j] = input[j - 1];
+                j--;
+            }
+            input[j] = item;
+        }
+    }
+
+    /**
+     * Sorts the given array using the merge sort algorithm, without boxing.
+     * This modifies the array in-place, using one scratch array of the same
+     * length for all merges.
+     *
+     * @param input An array of int values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void mergeSort(int[] input, boolean reversed) {
+        if (input.length > 1) {
+            sort(input, new int[input.length], 0, input.length - 1);
+        }
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    static void sort(int[] input, int[] scratch, int l, int r) {
+        if (l < r) {
+            int m = (l + r) >>> 1;
+            sort(input, scratch, l, m);
+            sort(input, scratch, m + 1, r);
+            merge(input, scratch, l, m, r);
+        }
+    }
+
+    /**
+     * Merges the sorted runs input[l..m] and input[m+1..r], copying only the
+     * left run out to scratch.
+     */
+    private static void merge(int[] input, int[] scratch, int l, int m, int r) {
+        int leftSize = m - l + 1;
+        System.arraycopy(input, l, scratch, l, leftSize);
+        int i = l, j = m + 1, k = l;
+        while (i <= m && j <= r) {
+            if (scratch[i] <= input[j]) {
+                input[k++] = scratch[i++];
+            } else {
+                input[k++] = input[j++];
+            }
+        }
+        // Whatever remains of the right run is already in place
+        System.arraycopy(scratch, i, input, k, m - i + 1);
+    }
+
+    /**
+     * Sorts the given array using the quick sort algorithm, without boxing,
+     * with the value at the middle of each range as the pivot. This modifies
+     * the array in-place.
+     *
+     * @param input An array of int values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void quickSort(int[] input, boolean reversed) {
+        quickSortHelper(input, 0, input.length - 1);
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    /**
+     * Sorts input[low..high] ascending. Recurses into the smaller partition
+     * and loops on the larger one, so the stack depth stays O(log n).
+     */
+    static void quickSortHelper(int[] input, int low, int high) {
+        while (low < high) {
+            int left = low, right = high;
+            int pivot = input[(low + high) >>> 1];
+            while (left <= right) {
+                while (input[left] < pivot) left++;
+                while (input[right] > pivot) right--;
+                if (left <= right) {
+                    int temp = input[left];
+                    input[left] = input[right];
+                    input[right] = temp;
+                    left++; right--;
+                }
+            }
+            if (right - low < high - left) {
+                if (low < right) quickSortHelper(input, low, right);
+                low = left;
+            } else {
+                if (left < high) quickSortHelper(input, left, high);
+                high = right;
+            }
+        }
+    }
+
+    /**
+     * Reverses input[low..high] in place, turning an ascending range into a
+     * descending one.
+     */
+    static void reverse(int[] input, int low, int high) {
+        while (low < high) {
+            int tmp = input[low];
+            input[low++] = input[high];
+            input[high--] = tmp;
+        }
+    }
+
+    /**
+     * Sorts the given array using the selection sort algorithm, without
+     * boxing. This modifies the array in-place.
+     *
+     * @param input An array of long values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void selectionSort(long[] input, boolean reversed) {
+        int length = input.length;
+        for (int i = 0; i < length - 1; ++i) {
+            int m = i;
+            for (int j = i + 1; j < length; ++j) {
+                if (input[j] < input[m]) m = j;
+            }
+
+            if (i != m) {
+                long tmp = input[i];
+                input[i] = input[m];
+                input[m] = tmp;
+            }
+        }
+        if (reversed) reverse(input, 0, length - 1);
+    }
+
+    /**
+     * Sorts the given array using the insertion sort algorithm, without
+     * boxing. This modifies the array in-place.
+     *
+     * @param input An array of long values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void insertionSort(long[] input, boolean reversed) {
+        insertionSort(input, 0, input.length - 1);
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    /**
+     * Sorts input[low..high] ascending by insertion, shifting larger values
+     * up instead of swapping.
+     */
+    static void insertionSort(long[] input, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long item = input[i];
+            int j = i;
+            while (j > low && input[j - 1] > item) {
+                input[j] = input[j - 1];
+                j--;
+            }
+            input[j] = item;
+        }
+    }
+
+    /**
+     * Sorts the given array using the merge sort algorithm, without boxing.
+     * This modifies the array in-place, using one scratch array of the same
+     * length for all merges.
+     *
+     * @param input An array of long values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void mergeSort(long[] input, boolean reversed) {
+        if (input.length > 1) {
+            sort(input, new long[input.length], 0, input.length - 1);
+        }
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    static void sort(long[] input, long[] scratch, int l, int r) {
+        if (l < r) {
+            int m = (l + r) >>> 1;
+            sort(input, scratch, l, m);
+            sort(input, scratch, m + 1, r);
+            merge(input, scratch, l, m, r);
+        }
+    }
+
+    /**
+     * Merges the sorted runs input[l..m] and input[m+1..r], copying only the
+     * left run out to scratch.
+     */
+    private static void merge(long[] input, long[] scratch, int l, int m, int r) {
+        int leftSize = m - l + 1;
+        System.arraycopy(input, l, scratch, l, leftSize);
+        int i = l, j = m + 1, k = l;
+        while (i <= m && j <= r) {
+            if (scratch[i] <= input[j]) {
+                input[k++] = scratch[i++];
+            } else {
+                input[k++] = input[j++];
+            }
+        }
+        // Whatever remains of the right run is already in place
+        System.arraycopy(scratch, i, input, k, m - i + 1);
+    }
+
+    /**
+     * Sorts the given array using the quick sort algorithm, without boxing,
+     * with the value at the middle of each range as the pivot. This modifies
+     * the array in-place.
+     *
+     * @param input An array of long values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void quickSort(long[] input, boolean reversed) {
+        quickSortHelper(input, 0, input.length - 1);
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    /**
+     * Sorts input[low..high] ascending. Recurses into the smaller partition
+     * and loops on the larger one, so the stack depth stays O(log n).
+     */
+    static void quickSortHelper(long[] input, int low, int high) {
+        while (low < high) {
+            int left = low, right = high;
+            long pivot = input[(low + high) >>> 1];
+            while (left <= right) {
+                while (input[left] < pivot) left++;
+                while (input[right] > pivot) right--;
+                if (left <= right) {
+                    long temp = input[left];
+                    input[left] = input[right];
+                    input[right] = temp;
+                    left++; right--;
+                }
+            }
+            if (right - low < high - left) {
+                if (low < right) quickSortHelper(input, low, right);
+                low = left;
+            } else {
+                if (left < high) quickSortHelper(input, left, high);
+                high = right;
+            }
+        }
+    }
+
+    /**
+     * Reverses input[low..high] in place, turning an ascending range into a
+     * descending one.
+     */
+    static void reverse(long[] input, int low, int high) {
+        while (low < high) {
+            long tmp = input[low];
+            input[low++] = input[high];
+            input[high--] = tmp;
+        }
+    }
+
+    /**
+     * Sorts the given array using the selection sort algorithm, without
+     * boxing. This modifies the array in-place.
+     *
+     * Values are ordered as by Double.compare(), so -0.0 sorts before 0.0
+     * and NaN after every other value; the other double overloads below
+     * use the same order.
+     *
+     * @param input An array of double values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void selectionSort(double[] input, boolean reversed) {
+        int length = input.length;
+        for (int i = 0; i < length - 1; ++i) {
+            int m = i;
+            for (int j = i + 1; j < length; ++j) {
+                if (Double.compare(input[j], input[m]) < 0) m = j;
+            }
+
+            if (i != m) {
+                double tmp = input[i];
+                input[i] = input[m];
+                input[m] = tmp;
+            }
+        }
+        if (reversed) reverse(input, 0, length - 1);
+    }
+
+    /**
+     * Sorts the given array using the insertion sort algorithm, without
+     * boxing. This modifies the array in-place.
+     *
+     * @param input An array of double values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void insertionSort(double[] input, boolean reversed) {
+        insertionSort(input, 0, input.length - 1);
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    /**
+     * Sorts input[low..high] ascending by insertion, shifting larger values
+     * up instead of swapping.
+     */
+    static void insertionSort(double[] input, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double item = input[i];
+            int j = i;
+            while (j > low && Double.compare(input[j - 1], item) > 0) {
+                input[j] = input[j - 1];
+                j--;
+            }
+            input[j] = item;
+        }
+    }
+
+    /**
+     * Sorts the given array using the merge sort algorithm, without boxing.
+     * This modifies the array in-place, using one scratch array of the same
+     * length for all merges.
+     *
+     * @param input An array of double values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void mergeSort(double[] input, boolean reversed) {
+        if (input.length > 1) {
+            sort(input, new double[input.length], 0, input.length - 1);
+        }
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    static void sort(double[] input, double[] scratch, int l, int r) {
+        if (l < r) {
+            int m = (l + r) >>> 1;
+            sort(input, scratch, l, m);
+            sort(input, scratch, m + 1, r);
+            merge(input, scratch, l, m, r);
+        }
+    }
+
+    /**
+     * Merges the sorted runs input[l..m] and input[m+1..r], copying only the
+     * left run out to scratch.
+     */
+    private static void merge(double[] input, double[] scratch, int l, int m, int r) {
+        int leftSize = m - l + 1;
+        System.arraycopy(input, l, scratch, l, leftSize);
+        int i = l, j = m + 1, k = l;
+        while (i <= m && j <= r) {
+            if (Double.compare(scratch[i], input[j]) <= 0) {
+                input[k++] = scratch[i++];
+            } else {
+                input[k++] = input[j++];
+            }
+        }
+        // Whatever remains of the right run is already in place
+        System.arraycopy(scratch, i, input, k, m - i + 1);
+    }
+
+    /**
+     * Sorts the given array using the quick sort algorithm, without boxing,
+     * with the value at the middle of each range as the pivot. This modifies
+     * the array in-place.
+     *
+     * @param input An array of double values.
+     * @param reversed If false, the array is sorted ascending.
+     *                 Otherwise, it is sorted descending.
+     * @requires input != null
+     */
+    static void quickSort(double[] input, boolean reversed) {
+        quickSortHelper(input, 0, input.length - 1);
+        if (reversed) reverse(input, 0, input.length - 1);
+    }
+
+    /**
+     * Sorts input[low..high] ascending. Recurses into the smaller partition
+     * and loops on the larger one, so the stack depth stays O(log n).
+     */
+    static void quickSortHelper(double[] input, int low, int high) {
+        while (low < high) {
+            int left = low, right = high;
+            double pivot = input[(low + high) >>> 1];
+            while (left <= right) {
+                while (Double.compare(input[left], pivot) < 0) left++;
+                while (Double.compare(input[right], pivot) > 0) right--;
+                if (left <= right) {
+                    double temp = input[left];
+                    input[left] = input[right];
+                    input[right] = temp;
+                    left++; right--;
+                }
+            }
+            if (right - low < high - left) {
+                if (low < right) quickSortHelper(input, low, right);
+                low = left;
+            } else {
+                if (left < high) quickSortHelper(input, left, high);
+                high = right;
+            }
+        }
+    }
+
+    /**
+     * Reverses input[low..high] in place, turning an ascending range into a
+     * descending one.
+     */
+    static void reverse(double[] input, int low, int high) {
+        while (low < high) {
+            double tmp = input[low];
+            input[low++] = input[high];
+            input[high--] = tmp;
+        }
+    }
+
    static void sortTest(int n, String method, String order) {
         Integer[] input = new Integer[n];
         for(int i =0; i < n; ++i) {
@@ -340,6 +1051,22 @@ public class SortingAlgorithms {
                 System.out.println((float) duration/1000000);
                 break;
 
+            case "parallelMerge":
+                startTime = System.nanoTime();
+                parallelMergeSort(input, false);
+                endTime = System.nanoTime();
+                duration = (endTime - startTime);
+                System.out.println((float) duration/1000000);
+                break;
+
+            case "bottomUpMerge":
+                startTime = System.nanoTime();
+                bottomUpMergeSort(input, false);
+                endTime = System.nanoTime();
+                duration = (endTime - startTime);
+                System.out.println((float) duration/1000000);
+                break;
+
             case "quick":
                 startTime = System.nanoTime();
                 quickSort(input, false);
@@ -354,8 +1081,60 @@ public class SortingAlgorithms {
     }
 
 
+    /**
+     * Times one of the int[] overloads on n random values in the given
+     * order, like sortTest(), and reports any pair left out of order.
+     */
+    static void primitiveSortTest(int n, String method, String order) {
+        int[] input = new int[n];
+        for (int i = 0; i < n; ++i) {
+            input[i] = (int) Math.floor(Math.random() * 100000);
+        }
+
+        switch (order) {
+            case "ascending":
+                Arrays.sort(input);
+                break;
+            case "descending":
+                Arrays.sort(input);
+                reverse(input, 0, n - 1);
+                break;
+            default:
+                break;
+        }
+
+        long startTime, endTime, duration;
+        startTime = System.nanoTime();
+        switch (method) {
+            case "selection":
+                selectionSort(input, false);
+                break;
+            case "insertion":
+                insertionSort(input, false);
+                break;
+            case "merge":
+                mergeSort(input, false);
+                break;
+            case "quick":
+                quickSort(input, false);
+                break;
+            default:
+                return;
+        }
+        endTime = System.nanoTime();
+        duration = (endTime - startTime);
+        System.out.println((float) duration/1000000);
+
+        // check order
+        for (int i = 0; i < input.length - 1; ++i) {
+            if (input[i] > input[i+1]) {
+                System.out.println(input[i] + "   " + input[i+1]);
+            }
+        }
+    }
+
     public static void main(String[] args) {
-        for(String method : new String[]{"selection", "insertion", "merge", "quick"}) {
+        for(String method : new String[]{"selection", "insertion", "merge", "parallelMerge", "bottomUpMerge", "quick"}) {
             for(String order : new String[]{"ascending","unsorted", "descending"}) {
                 System.out.println(method + "   " + order);
                 sortTest(5, method, order);
@@ -369,6 +1148,20 @@ public class SortingAlgorithms {
             }
         }
 
+        for(String method : new String[]{"selection", "insertion", "merge", "quick"}) {
+            for(String order : new String[]{"ascending","unsorted", "descending"}) {
+                System.out.println(method + " int[]   " + order);
+                primitiveSortTest(5, method, order);
+                primitiveSortTest(10, method, order);
+                primitiveSortTest(50, method, order);
+                primitiveSortTest(100, method, order);
+                primitiveSortTest(500, method, order);
+                primitiveSortTest(1000, method, order);
+                primitiveSortTest(10000, method, order);
+                System.out.println("------------");
+            }
+        }
+
 //        Integer[] input = new Integer[10000];
 //        for(int i =0; i < 10000; ++i) {
 //            Integer item = (int) Math.floor(Math.random()*100000);
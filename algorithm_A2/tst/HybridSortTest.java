@@ -0,0 +1,130 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for HybridSort, checking each sort against Arrays.sort() in both
+ * directions.
+ */
+public class HybridSortTest {
+
+    @Test
+    public void testIntHybridSort() {
+        SortingAlgorithmsTest.checkInts(HybridSort::hybridSort);
+    }
+
+    @Test
+    public void testLongHybridSort() {
+        SortingAlgorithmsTest.checkLongs(HybridSort::hybridSort);
+    }
+
+    @Test
+    public void testDoubleHybridSort() {
+        SortingAlgorithmsTest.checkDoubles(HybridSort::hybridSort);
+    }
+
+    @Test
+    public void testHybridSortBothDirections() {
+        Random random = new Random(25);
+        for (int n : new int[]{0, 1, 2, 50, 99, 100, 101, 5000}) {
+            Integer[] input = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                input[i] = random.nextInt(40);
+            }
+            for (boolean adaptive : new boolean[]{false, true}) {
+                Integer[] ascending = input.clone();
+                HybridSort.hybridSort(ascending, false, adaptive);
+                Integer[] expected = input.clone();
+                Arrays.sort(expected);
+                assertArrayEquals(expected, ascending);
+
+                Integer[] descending = input.clone();
+                HybridSort.hybridSort(descending, true, adaptive);
+                Arrays.sort(expected, Collections.reverseOrder());
+                assertArrayEquals("n=" + n + " adaptive=" + adaptive,
+                        expected, descending);
+            }
+        }
+    }
+
+    /**
+     * Sorts input with the adaptive mode and checks, in both directions,
+     * that it matches the stable Arrays.sort() element for element.
+     */
+    private static void checkAdaptive(SortingAlgorithmsTest.Item[] input) {
+        SortingAlgorithmsTest.checkStable(
+                (items, reversed) -> HybridSort.hybridSort(items, reversed, true), input);
+    }
+
+    @Test
+    public void testAdaptiveRandom() {
+        for (int n : new int[]{0, 1, 2, 31, 32, 33, 64, 65, 1000, 100003}) {
+            checkAdaptive(SortingAlgorithmsTest.items(n, Integer.MAX_VALUE, n));
+        }
+    }
+
+    @Test
+    public void testAdaptiveDuplicates() {
+        for (int n : new int[]{2, 33, 1000, 100003}) {
+            checkAdaptive(SortingAlgorithmsTest.items(n, 3, n));
+            checkAdaptive(SortingAlgorithmsTest.items(n, 1, n));
+        }
+    }
+
+    @Test
+    public void testAdaptiveAscendingAndDescending() {
+        for (int n : new int[]{100, 100003}) {
+            SortingAlgorithmsTest.Item[] input = SortingAlgorithmsTest.items(n, 50, n);
+            Arrays.sort(input);
+            checkAdaptive(input);
+            Arrays.sort(input, Collections.reverseOrder());
+            checkAdaptive(input);
+        }
+    }
+
+    @Test
+    public void testAdaptivePartiallySorted() {
+        // Sorted stretches of uneven lengths, each ascending or descending,
+        // with a few random swaps, so that runs of all sizes are merged
+        Random random = new Random(25);
+        int n = 100003;
+        SortingAlgorithmsTest.Item[] input = SortingAlgorithmsTest.items(n, 1000, 25);
+        for (int low = 0; low < n; ) {
+            int high = Math.min(n, low + 1 + random.nextInt(5000));
+            Arrays.sort(input, low, high, random.nextBoolean()
+                    ? Collections.reverseOrder() : null);
+            low = high;
+        }
+        for (int k = 0; k < 50; k++) {
+            int i = random.nextInt(n), j = random.nextInt(n);
+            SortingAlgorithmsTest.Item tmp = input[i];
+            input[i] = input[j];
+            input[j] = tmp;
+        }
+        checkAdaptive(input);
+    }
+
+    @Test
+    public void testAdaptiveLinearOnSortedInput() {
+        // Distinct keys, so input against the order is a single strictly
+        // descending run that is reversed rather than merged
+        int n = 1 << 16;
+        SortingAlgorithmsTest.Item[] input = new SortingAlgorithmsTest.Item[n];
+        for (int i = 0; i < n; i++) {
+            input[i] = new SortingAlgorithmsTest.Item(i, i);
+        }
+        for (boolean reversed : new boolean[]{false, true}) {
+            SortingAlgorithmsTest.Item[] actual = input.clone();
+            SortingAlgorithmsTest.Item.comparisons = 0;
+            HybridSort.hybridSort(actual, reversed, true);
+            assertEquals(n - 1, SortingAlgorithmsTest.Item.comparisons);
+            SortingAlgorithmsTest.Item[] expected = input.clone();
+            if (reversed) HybridSort.reverse(expected, 0, n - 1);
+            assertArrayEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for SortingAlgorithms, checking each sort against Arrays.sort() in
+ * both directions.
+ */
+public class SortingAlgorithmsTest {
+    /** Lengths tried by the primitive tests, around the insertion cutoffs */
+    private static final int[] LENGTHS = {0, 1, 2, 3, 31, 32, 33, 99, 100,
+            101, 1000};
+
+    /** A sort of int values */
+    interface IntSort {
+        void sort(int[] input, boolean reversed);
+    }
+
+    /** A sort of long values */
+    interface LongSort {
+        void sort(long[] input, boolean reversed);
+    }
+
+    /** A sort of double values */
+    interface DoubleSort {
+        void sort(double[] input, boolean reversed);
+    }
+
+    /** A sort of Item objects */
+    interface ItemSort {
+        void sort(Item[] input, boolean reversed);
+    }
+
+    /**
+     * An element ordered by its key alone, so that equal keys show whether a
+     * sort kept their original order.
+     */
+    static final class Item implements Comparable<Item> {
+        /** Number of compareTo() calls, for single-threaded sorts */
+        static long comparisons;
+
+        final int key, id;
+
+        Item(int key, int id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            comparisons++;
+            return Integer.compare(this.key, other.key);
+        }
+
+        @Override
+        public String toString() {
+            return this.key + "#" + this.id;
+        }
+    }
+
+    /**
+     * Returns n items with random keys in [0, range), numbered in order.
+     */
+    static Item[] items(int n, int range, long seed) {
+        Random random = new Random(seed);
+        Item[] items = new Item[n];
+        for (int i = 0; i < n; i++) {
+            items[i] = new Item(random.nextInt(range), i);
+        }
+        return items;
+    }
+
+    /**
+     * Sorts input in both directions and compares the result, element by
+     * element and by identity, with the stable Arrays.sort(). Equal keys
+     * must therefore keep their original order in both directions.
+     */
+    static void checkStable(ItemSort sort, Item[] input) {
+        for (boolean reversed : new boolean[]{false, true}) {
+            Item[] expected = input.clone();
+            Arrays.sort(expected, reversed ? Comparator.reverseOrder()
+                    : Comparator.naturalOrder());
+            Item[] actual = input.clone();
+            sort.sort(actual, reversed);
+            for (int i = 0; i < input.length; i++) {
+                if (expected[i] != actual[i]) {
+                    fail("n=" + input.length + " reversed=" + reversed
+                            + " i=" + i + ": expected " + expected[i]
+                            + " but was " + actual[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts random values of every length in LENGTHS, with many duplicates
+     * and the extreme values, and compares the result with Arrays.sort(),
+     * reversed for the descending order.
+     */
+    static void checkInts(IntSort sort) {
+        Random random = new Random(22);
+        for (int n : LENGTHS) {
+            int[] input = new int[n];
+            for (int i = 0; i < n; i++) {
+                input[i] = random.nextInt(50) - 25;
+            }
+            if (n > 2) {
+                input[0] = Integer.MAX_VALUE;
+                input[n / 2] = Integer.MIN_VALUE;
+            }
+            for (boolean reversed : new boolean[]{false, true}) {
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                if (reversed) SortingAlgorithms.reverse(expected, 0, n - 1);
+                int[] actual = input.clone();
+                sort.sort(actual, reversed);
+                assertArrayEquals("n=" + n + " reversed=" + reversed,
+                        expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Like checkInts(), with values that do not fit in an int.
+     */
+    static void checkLongs(LongSort sort) {
+        Random random = new Random(22);
+        for (int n : LENGTHS) {
+            long[] input = new long[n];
+            for (int i = 0; i < n; i++) {
+                input[i] = (random.nextInt(50) - 25) * (1L << 40);
+            }
+            if (n > 2) {
+                input[0] = Long.MAX_VALUE;
+                input[n / 2] = Long.MIN_VALUE;
+            }
+            for (boolean reversed : new boolean[]{false, true}) {
+                long[] expected = input.clone();
+                Arrays.sort(expected);
+                if (reversed) SortingAlgorithms.reverse(expected, 0, n - 1);
+                long[] actual = input.clone();
+                sort.sort(actual, reversed);
+                assertArrayEquals("n=" + n + " reversed=" + reversed,
+                        expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Like checkInts(), with NaN, both zeros and the infinities mixed in.
+     * Arrays.sort() orders doubles as Double.compare() does, so NaN sorts
+     * last and -0.0 before 0.0, and the comparison is bit for bit.
+     */
+    static void checkDoubles(DoubleSort sort) {
+        double[] special = {Double.NaN, -0.0, 0.0, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MAX_VALUE};
+        Random random = new Random(22);
+        for (int n : LENGTHS) {
+            double[] input = new double[n];
+            for (int i = 0; i < n; i++) {
+                input[i] = random.nextInt(4) == 0
+                        ? special[random.nextInt(special.length)]
+                        : (random.nextInt(50) - 25) / 4.0;
+            }
+            for (boolean reversed : new boolean[]{false, true}) {
+                double[] expected = input.clone();
+                Arrays.sort(expected);
+                if (reversed) SortingAlgorithms.reverse(expected, 0, n - 1);
+                double[] actual = input.clone();
+                sort.sort(actual, reversed);
+                for (int i = 0; i < n; i++) {
+                    assertEquals("n=" + n + " reversed=" + reversed + " i=" + i,
+                            Double.doubleToLongBits(expected[i]),
+                            Double.doubleToLongBits(actual[i]));
+                }
+            }
+        }
+
+        double[] zeros = {0.0, Double.NaN, -0.0, 1.0, -0.0, Double.NaN, 0.0};
+        sort.sort(zeros, false);
+        assertEquals("[-0.0, -0.0, 0.0, 0.0, 1.0, NaN, NaN]",
+                Arrays.toString(zeros));
+        sort.sort(zeros, true);
+        assertEquals("[NaN, NaN, 1.0, 0.0, 0.0, -0.0, -0.0]",
+                Arrays.toString(zeros));
+    }
+
+    @Test
+    public void testIntSelectionSort() {
+        checkInts(SortingAlgorithms::selectionSort);
+    }
+
+    @Test
+    public void testIntInsertionSort() {
+        checkInts(SortingAlgorithms::insertionSort);
+    }
+
+    @Test
+    public void testIntMergeSort() {
+        checkInts(SortingAlgorithms::mergeSort);
+    }
+
+    @Test
+    public void testIntQuickSort() {
+        checkInts(SortingAlgorithms::quickSort);
+    }
+
+    @Test
+    public void testLongSelectionSort() {
+        checkLongs(SortingAlgorithms::selectionSort);
+    }
+
+    @Test
+    public void testLongInsertionSort() {
+        checkLongs(SortingAlgorithms::insertionSort);
+    }
+
+    @Test
+    public void testLongMergeSort() {
+        checkLongs(SortingAlgorithms::mergeSort);
+    }
+
+    @Test
+    public void testLongQuickSort() {
+        checkLongs(SortingAlgorithms::quickSort);
+    }
+
+    @Test
+    public void testDoubleSelectionSort() {
+        checkDoubles(SortingAlgorithms::selectionSort);
+    }
+
+    @Test
+    public void testDoubleInsertionSort() {
+        checkDoubles(SortingAlgorithms::insertionSort);
+    }
+
+    @Test
+    public void testDoubleMergeSort() {
+        checkDoubles(SortingAlgorithms::mergeSort);
+    }
+
+    @Test
+    public void testDoubleQuickSort() {
+        checkDoubles(SortingAlgorithms::quickSort);
+    }
+
+    @Test
+    public void testParallelMergeSortSmall() {
+        for (int n : LENGTHS) {
+            checkStable(SortingAlgorithms::parallelMergeSort, items(n, 10, n));
+        }
+    }
+
+    @Test
+    public void testParallelMergeSortSplitsMerges() {
+        // Large enough for the top merges to be split at a binary-searched
+        // point, with few enough keys that the split lands inside a stretch
+        // of equal keys
+        int n = 3 * SortingAlgorithms.PARALLEL_MERGE_CUTOFF + 17;
+        checkStable(SortingAlgorithms::parallelMergeSort, items(n, 100, 23));
+        checkStable(SortingAlgorithms::parallelMergeSort,
+                items(n, Integer.MAX_VALUE, 24));
+        Item[] equal = items(n, 1, 25);
+        checkStable(SortingAlgorithms::parallelMergeSort, equal);
+    }
+
+    @Test
+    public void testParallelMergeSortPresorted() {
+        int n = 2 * SortingAlgorithms.PARALLEL_MERGE_CUTOFF;
+        Item[] input = items(n, 1000, 26);
+        Arrays.sort(input);
+        checkStable(SortingAlgorithms::parallelMergeSort, input);
+        Arrays.sort(input, Comparator.reverseOrder());
+        checkStable(SortingAlgorithms::parallelMergeSort, input);
+    }
+
+    @Test
+    public void testBottomUpMergeSort() {
+        // Lengths with and without an odd run left over at the end of a pass
+        int width = SortingAlgorithms.INSERTION_RUN;
+        for (int n : new int[]{0, 1, 2, width - 1, width, width + 1, 2 * width,
+                2 * width + 1, 3 * width, 5 * width + 7, 1000, 4099}) {
+            checkStable(SortingAlgorithms::bottomUpMergeSort, items(n, 10, n));
+            checkStable(SortingAlgorithms::bottomUpMergeSort,
+                    items(n, Integer.MAX_VALUE, n + 1));
+        }
+    }
+
+    @Test
+    public void testBottomUpMergeSortStopsWhenSorted() {
+        int n = 1 << 16;
+        for (boolean reversed : new boolean[]{false, true}) {
+            Item[] input = items(n, 1000, 27);
+            Arrays.sort(input, reversed ? Comparator.reverseOrder()
+                    : Comparator.naturalOrder());
+            Item[] actual = input.clone();
+            Item.comparisons = 0;
+            SortingAlgorithms.bottomUpMergeSort(actual, reversed);
+            // Insertion sort of the presorted runs and one in-order check,
+            // without a single merge pass
+            assertEquals(n - 1, Item.comparisons);
+            assertArrayEquals(input, actual);
+        }
+    }
+
+    @Test
+    public void testBottomUpMergeSortSkipsOrderedRuns() {
+        // Two sorted halves in the wrong order: every pair of runs but the
+        // middle one is already in order, so only the last pass merges
+        int n = 1 << 16;
+        Item[] input = items(n, 1000, 28);
+        Arrays.sort(input);
+        Item[] swapped = new Item[n];
+        System.arraycopy(input, n / 2, swapped, 0, n / 2);
+        System.arraycopy(input, 0, swapped, n / 2, n / 2);
+        Item.comparisons = 0;
+        Item[] actual = swapped.clone();
+        SortingAlgorithms.bottomUpMergeSort(actual, false);
+        assertTrue("comparisons: " + Item.comparisons,
+                Item.comparisons < 2L * n);
+        Item[] expected = swapped.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testReverseRange() {
+        int[] ints = {1, 2, 3, 4, 5};
+        SortingAlgorithms.reverse(ints, 1, 3);
+        assertArrayEquals(new int[]{1, 4, 3, 2, 5}, ints);
+        long[] longs = {1, 2};
+        SortingAlgorithms.reverse(longs, 0, 1);
+        assertArrayEquals(new long[]{2, 1}, longs);
+        double[] doubles = {};
+        SortingAlgorithms.reverse(doubles, 0, -1);
+        assertEquals(0, doubles.length);
+    }
+}